@@ -31,9 +31,9 @@ systemctl enable mysql
 
 echo "MySQL installed and started successfully"
 
-# 4. Install Java 17 (Required for Spring Boot)
-echo "Step 4: Installing Java 17..."
-apt install -y openjdk-17-jdk
+# 4. Install Java 21 (Required for Spring Boot and virtual threads)
+echo "Step 4: Installing Java 21..."
+apt install -y openjdk-21-jdk
 
 # Verify Java installation
 java -version
@@ -81,8 +81,22 @@ mkdir -p /opt/csye6225
 echo "Application directory created at /opt/csye6225/"
 echo "Please copy your application JAR file to this directory"
 
-# 10. Set File Permissions
-echo "Step 10: Setting file permissions..."
+# 10. Create Journal Directories
+echo "Step 10: Creating journal directories..."
+# The stock and product change journals must survive reboots, unlike the
+# temp-dir defaults in the packaged application.properties. Spring Boot reads
+# application.properties from the working directory on top of the packaged one.
+mkdir -p /var/lib/webapp/stock-journal /var/lib/webapp/product-journal
+chown -R csye6225:csye6225 /var/lib/webapp
+chmod -R 750 /var/lib/webapp
+
+cat > /opt/csye6225/application.properties <<PROPERTIES
+webapp.stock.write-behind.journal-dir=/var/lib/webapp/stock-journal
+webapp.outbox.journal-dir=/var/lib/webapp/product-journal
+PROPERTIES
+
+# 11. Set File Permissions
+echo "Step 11: Setting file permissions..."
 chown -R csye6225:csye6225 /opt/csye6225
 chmod -R 750 /opt/csye6225
 
@@ -94,14 +108,15 @@ echo "Summary:"
 echo "- MySQL Server: Installed and running"
 echo "- Database: webapp_db created"
 echo "- Database User: webappuser (password: webapppassword)"
-echo "- Java 17: Installed"
+echo "- Java 21: Installed"
 echo "- Maven: Installed"
 echo "- Application Group: csye6225"
 echo "- Application User: csye6225"
 echo "- Application Directory: /opt/csye6225"
+echo "- Journal Directories: /var/lib/webapp (set in /opt/csye6225/application.properties)"
 echo ""
 echo "Next Steps:"
 echo "1. Copy your Spring Boot JAR file to /opt/csye6225/"
 echo "2. Update application.properties with database credentials"
-echo "3. Run your application as the csye6225 user"
+echo "3. Run your application as the csye6225 user from /opt/csye6225"
 echo ""
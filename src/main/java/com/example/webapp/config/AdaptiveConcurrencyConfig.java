@@ -0,0 +1,100 @@
+package com.example.webapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One adaptive concurrency limit per route group in front of ProductController and
+ * UserController, tuned by webapp.adaptive-concurrency.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "webapp.adaptive-concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptiveConcurrencyConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyConfig.class);
+
+    private static final List<String> GROUPS = List.of(
+            BulkheadFilter.AUTH, BulkheadFilter.PUBLIC_READ, BulkheadFilter.AUTHENTICATED_WRITE);
+
+    @Bean
+    public FilterRegistrationBean<AdaptiveConcurrencyFilter> adaptiveConcurrencyFilter(
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            @Value("${webapp.adaptive-concurrency.initial-limit:20}") int initialLimit,
+            @Value("${webapp.adaptive-concurrency.min-limit:4}") int minLimit,
+            @Value("${webapp.adaptive-concurrency.max-limit:200}") int maxLimit,
+            @Value("${webapp.adaptive-concurrency.tolerance:2.0}") double tolerance,
+            @Value("${webapp.adaptive-concurrency.smoothing:0.2}") double smoothing,
+            @Value("${webapp.bulkhead.retry-after-seconds:1}") long retryAfterSeconds
+    ) {
+        Map<String, AdaptiveConcurrencyLimit> limits = new HashMap<>();
+        Map<String, Counter> rejected = new HashMap<>();
+        for (String group : GROUPS) {
+            AdaptiveConcurrencyLimit limit =
+                    new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance, smoothing);
+            limits.put(group, limit);
+
+            Gauge.builder("http.adaptive.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("group", group)
+                    .register(meterRegistry);
+            Gauge.builder("http.adaptive.in.flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                    .description("Requests currently counted against the limit")
+                    .tag("group", group)
+                    .register(meterRegistry);
+            rejected.put(group, Counter.builder("http.adaptive.rejected")
+                    .description("Requests shed with 503 by the adaptive limit")
+                    .tag("group", group)
+                    .register(meterRegistry));
+        }
+        logger.info("Adaptive concurrency limits: start {}, range {}-{}, tolerance {}",
+                initialLimit, minLimit, maxLimit, tolerance);
+
+        FilterRegistrationBean<AdaptiveConcurrencyFilter> registration = new FilterRegistrationBean<>(
+                new AdaptiveConcurrencyFilter(limits, rejected, objectMapper, retryAfterSeconds));
+        // Before the bulkheads: a request over the limit is shed, never parked in a bulkhead queue
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+}
+
+/*
+Explanation of AdaptiveConcurrencyConfig:
+
+The bulkheads and the Hikari pool are fixed numbers. Sized for a fast MySQL they let far too
+many requests pile up when it slows down; sized for a slow one they waste capacity the rest of
+the time. This limit is learned from latency instead (the gradient algorithm):
+
+- every finished request is a latency sample; a short average (last ~10 requests) is compared
+  with a long baseline (last ~600)
+- gradient = tolerance * baseline / short, clamped to 0.5..1
+- new limit = limit * gradient + sqrt(limit), smoothed and kept within min-limit..max-limit
+
+While latency stays within tolerance x baseline, gradient is 1 and the limit keeps growing by
+sqrt(limit), probing for headroom. When MySQL slows and requests start waiting on each other,
+latency climbs and the limit falls, so the excess is shed with 503 + Retry-After at once
+instead of queueing on threads and connections. The limit only moves while at least half of
+it is in use; a quiet service keeps its current limit.
+
+Scope: ProductController and UserController, per bulkhead route group (auth, public-read,
+authenticated-write). Health checks, reservations and reactive reads are not limited. Async
+requests (SSE) count while their handler runs but give no latency sample.
+
+Metrics (tag group=<group>):
+http.adaptive.limit, http.adaptive.in.flight - gauges
+http.adaptive.rejected - counter
+*/
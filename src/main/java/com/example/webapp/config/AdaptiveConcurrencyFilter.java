@@ -0,0 +1,69 @@
+package com.example.webapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Sheds ProductController and UserController requests once their route group (the same
+ * groups as the bulkheads) has as many requests in flight as its adaptive limit allows.
+ * Health checks and the other controllers pass straight through.
+ */
+class AdaptiveConcurrencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyFilter.class);
+
+    private final Map<String, AdaptiveConcurrencyLimit> limits;
+    private final Map<String, Counter> rejected;
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+
+    AdaptiveConcurrencyFilter(Map<String, AdaptiveConcurrencyLimit> limits,
+                              Map<String, Counter> rejected,
+                              ObjectMapper objectMapper,
+                              long retryAfterSeconds) {
+        this.limits = limits;
+        this.rejected = rejected;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.startsWith("/v1/product") || path.startsWith("/v1/user"))
+                || !limits.containsKey(BulkheadFilter.groupOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String group = BulkheadFilter.groupOf(request);
+        AdaptiveConcurrencyLimit limit = limits.get(group);
+
+        if (!limit.tryAcquire()) {
+            rejected.get(group).increment();
+            logger.warn("Concurrency limit {} reached for {}, rejecting {} {}",
+                    limit.getLimit(), group, request.getMethod(), request.getRequestURI());
+            BulkheadFilter.writeServiceUnavailable(request, response, objectMapper, retryAfterSeconds);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // An async request has only started here; its duration says nothing about load
+            limit.release(request.isAsyncStarted() ? 0 : System.nanoTime() - start);
+        }
+    }
+}
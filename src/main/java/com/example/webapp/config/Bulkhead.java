@@ -0,0 +1,99 @@
+package com.example.webapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps how many requests of one route group run at once. A request that finds every slot
+ * taken waits in a bounded queue for at most max-wait-ms; when the queue is full too it is
+ * turned away at once.
+ */
+class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitMillis;
+
+    // Fair, so queued requests are let in oldest first
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Counter rejected;
+    private final Timer queueWait;
+
+    Bulkhead(String name, int maxConcurrent, int maxQueue, long maxWaitMillis, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+
+        Gauge.builder("http.bulkhead.active", this, Bulkhead::active)
+                .description("Requests currently running in the bulkhead")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("http.bulkhead.queued", queued, AtomicInteger::get)
+                .description("Requests waiting for a slot")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("http.bulkhead.limit", this, bulkhead -> bulkhead.maxConcurrent)
+                .description("Maximum concurrent requests")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("http.bulkhead.rejected")
+                .description("Requests turned away with 503")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("http.bulkhead.queue.wait")
+                .description("Time admitted requests spent waiting for a slot")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * True once the caller holds a slot and must call exit(); false if it was rejected.
+     */
+    boolean tryEnter() throws InterruptedException {
+        // Timed form even for zero: the untimed tryAcquire() would jump the queue
+        if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return true;
+            }
+            rejected.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    void exit() {
+        permits.release();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
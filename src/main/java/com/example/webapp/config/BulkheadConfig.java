@@ -0,0 +1,87 @@
+package com.example.webapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One bulkhead per route group (see BulkheadFilter.groupOf), each sized by
+ * webapp.bulkhead.&lt;group&gt;.max-concurrent / max-queue / max-wait-ms.
+ */
+@Configuration
+@ConditionalOnProperty(name = "webapp.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadConfig.class);
+
+    private static final List<String> GROUPS = List.of(
+            BulkheadFilter.HEALTH, BulkheadFilter.AUTH, BulkheadFilter.PUBLIC_READ, BulkheadFilter.AUTHENTICATED_WRITE);
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            @Value("${webapp.bulkhead.retry-after-seconds:1}") long retryAfterSeconds
+    ) {
+        Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+        for (String group : GROUPS) {
+            String prefix = "webapp.bulkhead." + group + ".";
+            int maxConcurrent = environment.getProperty(prefix + "max-concurrent", Integer.class, 50);
+            int maxQueue = environment.getProperty(prefix + "max-queue", Integer.class, 50);
+            long maxWaitMillis = environment.getProperty(prefix + "max-wait-ms", Long.class, 500L);
+
+            bulkheads.put(group, new Bulkhead(group, maxConcurrent, maxQueue, maxWaitMillis, meterRegistry));
+            logger.info("Bulkhead {}: {} concurrent, {} queued, {} ms max wait", group, maxConcurrent, maxQueue, maxWaitMillis);
+        }
+
+        FilterRegistrationBean<BulkheadFilter> registration =
+                new FilterRegistrationBean<>(new BulkheadFilter(bulkheads, objectMapper, retryAfterSeconds));
+        // Ahead of Spring Security, so rejected requests never reach BCrypt or the users table
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
+
+/*
+Explanation of BulkheadConfig:
+
+Tomcat has one pool of request threads (server.tomcat.threads.max, 200 by default). Without
+bulkheads a burst of signups (BCrypt, ~100 ms of CPU each) or a few huge product listings can
+take all of them, and health checks and cheap single-product GETs queue behind the burst.
+
+Each route group gets its own limit, and the limits add up to less than the thread pool, so
+every group always has threads left:
+
+health               /v1/user/health, /v1/product/health, /actuator/health
+auth                 POST /v1/user, PUT/PATCH /v1/user/self
+public-read          GET/HEAD under /v1/product and /v1/reactive/product without credentials
+authenticated-write  everything else, including reads that carry an Authorization header
+
+Authentication is stateless HTTP Basic, so every request with credentials runs a BCrypt
+verify (~100 ms of CPU) before its handler, not just signups. auth hashes on top of that.
+Together auth and authenticated-write are the BCrypt-bound groups: their max-concurrent is
+sized from the CPU cores (about twice the cores between them), since past that more threads
+only slice the same CPU thinner and every request gets slower. Bursts wait in max-queue
+instead. public-read holds only anonymous reads, so it never waits behind BCrypt work.
+
+A full bulkhead queues up to max-queue requests for max-wait-ms; past that, 503 with
+Retry-After straight away, before authentication runs.
+
+Metrics (tag bulkhead=<group>), e.g. /actuator/metrics/http.bulkhead.rejected?tag=bulkhead:auth
+http.bulkhead.active, http.bulkhead.queued, http.bulkhead.limit - gauges
+http.bulkhead.rejected - counter
+http.bulkhead.queue.wait - timer, for requests that were admitted after waiting
+*/
@@ -0,0 +1,123 @@
+package com.example.webapp.config;
+
+import com.example.webapp.dto.ErrorResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Puts every request into the bulkhead of its route group before anything else runs,
+ * authentication included, so a flood in one group cannot take the servlet threads the
+ * others need. The slot is held until the request thread leaves the filter; an async request
+ * (SSE stream, reactive read) gives it back once its handler has returned.
+ */
+class BulkheadFilter extends OncePerRequestFilter {
+
+    static final String HEALTH = "health";
+    static final String AUTH = "auth";
+    static final String PUBLIC_READ = "public-read";
+    static final String AUTHENTICATED_WRITE = "authenticated-write";
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadFilter.class);
+
+    private final Map<String, Bulkhead> bulkheads;
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+
+    BulkheadFilter(Map<String, Bulkhead> bulkheads, ObjectMapper objectMapper, long retryAfterSeconds) {
+        this.bulkheads = bulkheads;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Bulkhead bulkhead = bulkheads.get(groupOf(request));
+
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryEnter();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+
+        if (!admitted) {
+            logger.warn("Bulkhead {} full, rejecting {} {}", bulkhead.getName(), request.getMethod(), request.getRequestURI());
+            writeServiceUnavailable(request, response, objectMapper, retryAfterSeconds);
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bulkhead.exit();
+        }
+    }
+
+    static String groupOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+
+        if (isHealth(path, "/v1/user/health") || isHealth(path, "/v1/product/health") || path.startsWith("/actuator/health")) {
+            return HEALTH;
+        }
+        // Signup and password changes: BCrypt hashing
+        if ((method.equals("POST") && path.equals("/v1/user"))
+                || ((method.equals("PUT") || method.equals("PATCH")) && path.equals("/v1/user/self"))) {
+            return AUTH;
+        }
+        // Anonymous reads only: with credentials a read costs a BCrypt verify like any signed-in request
+        if ((method.equals("GET") || method.equals("HEAD"))
+                && (path.startsWith("/v1/product") || path.startsWith("/v1/reactive/product"))
+                && request.getHeader(HttpHeaders.AUTHORIZATION) == null) {
+            return PUBLIC_READ;
+        }
+        // Everything with credentials, reads included: each request verifies its Basic password
+        return AUTHENTICATED_WRITE;
+    }
+
+    // The health endpoint itself and its /live and /ready probes
+    private static boolean isHealth(String path, String base) {
+        return path.startsWith(base) && (path.length() == base.length() || path.charAt(base.length()) == '/');
+    }
+
+    static void writeServiceUnavailable(HttpServletRequest request, HttpServletResponse response,
+                                        ObjectMapper objectMapper, String retryAfterSeconds) throws IOException {
+        writeRejection(request, response, objectMapper, HttpStatus.SERVICE_UNAVAILABLE,
+                "Server is busy, retry later", retryAfterSeconds);
+    }
+
+    /**
+     * Error status with Retry-After and the same body GlobalExceptionHandler would produce;
+     * filters that turn requests away run outside the DispatcherServlet and cannot throw into it.
+     */
+    static void writeRejection(HttpServletRequest request, HttpServletResponse response, ObjectMapper objectMapper,
+                               HttpStatus status, String message, String retryAfterSeconds) throws IOException {
+        ErrorResponseDTO body = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                request.getRequestURI()
+        );
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
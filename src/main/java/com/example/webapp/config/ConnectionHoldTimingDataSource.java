@@ -0,0 +1,95 @@
+package com.example.webapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times how long each pooled connection stays checked out, from getConnection() to close(),
+ * and records it as db.connection.hold tagged with the pool and the endpoint that held it.
+ * Connections taken outside a request (schedulers, startup) are tagged uri=none; those taken
+ * before the request was matched to a handler (authentication) uri=UNKNOWN.
+ */
+class ConnectionHoldTimingDataSource extends DelegatingDataSource {
+
+    static final String METRIC = "db.connection.hold";
+
+    private final String pool;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    ConnectionHoldTimingDataSource(DataSource target, String pool, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(target);
+        this.pool = pool;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    private Connection timed(Connection target) {
+        long start = System.nanoTime();
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Timed " + target;
+                    default -> {
+                        if (method.getName().equals("close") && !closed[0]) {
+                            closed[0] = true;
+                            record(System.nanoTime() - start);
+                        }
+                        try {
+                            yield method.invoke(target, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                    }
+                });
+    }
+
+    private void record(long nanos) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+
+        String uri = "none";
+        String httpMethod = "none";
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            httpMethod = request.getMethod();
+        }
+
+        Timer.builder(METRIC)
+                .description("Time a pooled JDBC connection stays checked out")
+                .tag("pool", pool)
+                .tag("method", httpMethod)
+                .tag("uri", uri)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.webapp.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Counts the requests LifecycleManager has to wait for on shutdown. Runs before every other
+ * filter, so a request shed by a bulkhead or a limit is counted too, however briefly. Like the
+ * bulkheads it counts until the request thread leaves the filter.
+ */
+class InFlightRequestFilter extends OncePerRequestFilter {
+
+    private final LifecycleManager lifecycleManager;
+
+    InFlightRequestFilter(LifecycleManager lifecycleManager) {
+        this.lifecycleManager = lifecycleManager;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        lifecycleManager.requestStarted();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            lifecycleManager.requestFinished();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.webapp.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class LifecycleConfig {
+
+    @Bean
+    public LifecycleManager lifecycleManager(
+            ApplicationEventPublisher eventPublisher,
+            ApplicationAvailability availability,
+            MeterRegistry meterRegistry,
+            @Value("${webapp.lifecycle.readiness-propagation-ms:5000}") long readinessPropagationMillis,
+            @Value("${webapp.lifecycle.drain-timeout-ms:20000}") long drainTimeoutMillis
+    ) {
+        LifecycleManager lifecycleManager =
+                new LifecycleManager(eventPublisher, availability, readinessPropagationMillis, drainTimeoutMillis);
+        Gauge.builder("http.server.requests.in.flight", lifecycleManager, LifecycleManager::inFlight)
+                .description("Requests currently inside the filter chain")
+                .register(meterRegistry);
+        return lifecycleManager;
+    }
+
+    @Bean
+    public FilterRegistrationBean<InFlightRequestFilter> inFlightRequestFilter(LifecycleManager lifecycleManager) {
+        FilterRegistrationBean<InFlightRequestFilter> registration =
+                new FilterRegistrationBean<>(new InFlightRequestFilter(lifecycleManager));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
+
+/*
+Explanation of LifecycleConfig:
+
+A rolling restart used to drop requests: on SIGTERM Tomcat stopped at once, while the load
+balancer still sent traffic for a few seconds.
+
+Startup: readiness is REFUSING_TRAFFIC until Spring Boot has run every ApplicationRunner
+(warmup included) and publishes ACCEPTING_TRAFFIC. Liveness is CORRECT once the context is
+refreshed.
+
+Shutdown, in order:
+1. LifecycleManager (phase Integer.MAX_VALUE, so it stops first) sets readiness to
+   REFUSING_TRAFFIC; /health/ready answers 503 while normal requests are still served.
+2. It waits readiness-propagation-ms for the load balancer's probe to take the instance out.
+3. It waits up to drain-timeout-ms for the requests counted by InFlightRequestFilter, and logs
+   how many were left if the deadline passes.
+4. ProductChangeStream (phase just above the web server's) ends every open SSE stream. A
+   stream never finishes on its own, and graceful shutdown would wait the whole
+   timeout-per-shutdown-phase for it. Clients reconnect elsewhere with Last-Event-ID.
+5. Tomcat's graceful shutdown (server.shutdown=graceful) stops accepting and finishes the rest.
+6. Bean destruction closes the Hikari and R2DBC pools. That happens after every lifecycle
+   phase has stopped, so no draining request loses its connection.
+
+Probes (permitted without authentication, outside bulkheads and rate limits):
+GET /v1/user/health/live, /v1/product/health/live    200 unless the app is broken
+GET /v1/user/health/ready, /v1/product/health/ready  200 only when accepting traffic
+The existing /health endpoints answer as before.
+
+Metric: http.server.requests.in.flight
+*/
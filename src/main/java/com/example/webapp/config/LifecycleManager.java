@@ -0,0 +1,109 @@
+package com.example.webapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns the instance's part in a rolling restart. Readiness comes from Spring Boot: it reports
+ * ACCEPTING_TRAFFIC only after every ApplicationRunner has finished. On shutdown this is the
+ * first lifecycle bean to stop: it flips readiness to REFUSING_TRAFFIC, gives the load balancer
+ * readiness-propagation-ms to notice, then waits up to drain-timeout-ms for in-flight requests
+ * to finish. Only after that are the change streams ended (see ProductChangeStream), the web
+ * server stopped and the context's beans destroyed, with the connection pools among the last,
+ * since everything that writes on shutdown depends on them.
+ */
+public class LifecycleManager implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LifecycleManager.class);
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApplicationAvailability availability;
+    private final long readinessPropagationMillis;
+    private final long drainTimeoutMillis;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean running;
+
+    public LifecycleManager(ApplicationEventPublisher eventPublisher, ApplicationAvailability availability,
+                            long readinessPropagationMillis, long drainTimeoutMillis) {
+        this.eventPublisher = eventPublisher;
+        this.availability = availability;
+        this.readinessPropagationMillis = readinessPropagationMillis;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        logger.info("Shutting down: refusing traffic, {} requests in flight", inFlight.get());
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+
+        try {
+            // Requests still arrive until the load balancer has seen the failed readiness probe
+            Thread.sleep(readinessPropagationMillis);
+
+            long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+            while (inFlight.get() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        int remaining = inFlight.get();
+        if (remaining > 0) {
+            logger.warn("Drain deadline of {} ms passed with {} requests still in flight", drainTimeoutMillis, remaining);
+        } else {
+            logger.info("All in-flight requests finished");
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops before everything else, the web server included
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    public boolean isLive() {
+        return availability.getLivenessState() == LivenessState.CORRECT;
+    }
+
+    public boolean isReady() {
+        return running && availability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC;
+    }
+
+    // Readiness has never been ACCEPTING_TRAFFIC yet: still starting up or warming up
+    public boolean isStarting() {
+        return availability.getState(ReadinessState.class) == null;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    void requestFinished() {
+        inFlight.decrementAndGet();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.webapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits failed sign-ins per IP address. Runs before Spring Security: a 401 for bad Basic
+ * credentials is answered inside the security chain, so RateLimitFilter never sees those
+ * requests. Every request that carries credentials takes a token from the address's login
+ * bucket before the password is checked, and gets it back unless the answer is 401; once the
+ * bucket is empty, requests with credentials from that address are refused with 429. So
+ * successful sign-ins cost nothing in the end, but only as many sign-ins as there are tokens
+ * left can be in flight from one address at a time.
+ */
+class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    static final String LOGIN = "login";
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimitFilter.class);
+
+    private final RateLimiter rateLimiter;
+    private final Counter rejected;
+    private final ObjectMapper objectMapper;
+    private final LifecycleManager lifecycleManager;
+
+    LoginRateLimitFilter(RateLimiter rateLimiter, Counter rejected, ObjectMapper objectMapper,
+                         LifecycleManager lifecycleManager) {
+        this.rateLimiter = rateLimiter;
+        this.rejected = rejected;
+        this.objectMapper = objectMapper;
+        this.lifecycleManager = lifecycleManager;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(HttpHeaders.AUTHORIZATION) == null || lifecycleManager.isStarting();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = "ip:" + request.getRemoteAddr();
+
+        // Taken before the password check, so N parallel guesses cost N tokens, not one
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(LOGIN, client, System.nanoTime());
+        if (decision != null && !decision.allowed()) {
+            rejected.increment();
+            logger.warn("Too many failed sign-ins from {}, rejecting {} {}",
+                    request.getRemoteAddr(), request.getMethod(), request.getRequestURI());
+            BulkheadFilter.writeRejection(request, response, objectMapper, HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many failed sign-ins, retry later", String.valueOf(Math.max(1, seconds(decision.retryAfterNanos()))));
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (decision != null && response.getStatus() != HttpStatus.UNAUTHORIZED.value()) {
+                rateLimiter.giveBack(LOGIN, client);
+            }
+        }
+    }
+
+    private static long seconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.webapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Wraps every connection pool (the single default pool, or the primary and replica pools)
+     * so connection hold time is recorded per endpoint.
+     */
+    @Bean
+    public static BeanPostProcessor connectionHoldTimer(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    return new ConnectionHoldTimingDataSource(pool, beanName, meterRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+}
+
+/*
+Explanation of MetricsConfig:
+
+db.connection.hold shows which endpoints keep connections checked out and for how long:
+GET /actuator/metrics/db.connection.hold?tag=uri:/v1/user
+(only for accounts listed in webapp.security.admin-emails)
+
+A long hold means the pool is empty for longer, and requests queue for a connection even
+though the database itself is idle. The usual causes are slow work (BCrypt, remote calls,
+JSON rendering) done while a transaction is open.
+*/
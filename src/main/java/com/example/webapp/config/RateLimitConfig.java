@@ -0,0 +1,143 @@
+package com.example.webapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-client rate limits for each route group, from webapp.rate-limit.&lt;group&gt;.capacity and
+ * refill-per-second, plus the per-IP limit on failed sign-ins (webapp.rate-limit.login.*).
+ * Health checks are not limited.
+ */
+@Configuration
+@ConditionalOnProperty(name = "webapp.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitConfig.class);
+
+    private static final List<String> ROUTES = List.of(
+            BulkheadFilter.AUTH, BulkheadFilter.PUBLIC_READ, BulkheadFilter.AUTHENTICATED_WRITE,
+            LoginRateLimitFilter.LOGIN);
+
+    @Bean
+    public RateLimiter rateLimiter(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${webapp.rate-limit.max-buckets:100000}") int maxBuckets
+    ) {
+        Map<String, RateLimiter.Rule> rules = new HashMap<>();
+        for (String route : ROUTES) {
+            String prefix = "webapp.rate-limit." + route + ".";
+            int capacity = environment.getProperty(prefix + "capacity", Integer.class, 60);
+            double refillPerSecond = environment.getProperty(prefix + "refill-per-second", Double.class, 10.0);
+
+            rules.put(route, RateLimiter.Rule.of(capacity, refillPerSecond));
+            logger.info("Rate limit {}: {} requests burst, {} per second per client", route, capacity, refillPerSecond);
+        }
+
+        RateLimiter rateLimiter = new RateLimiter(rules, maxBuckets);
+        Gauge.builder("http.rate-limit.buckets", rateLimiter, RateLimiter::size)
+                .description("Clients with a partly used rate limit bucket")
+                .register(meterRegistry);
+        return rateLimiter;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            RateLimiter rateLimiter,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            LifecycleManager lifecycleManager
+    ) {
+        Map<String, Counter> rejected = new HashMap<>();
+        for (String route : ROUTES) {
+            rejected.put(route, rejectedCounter(meterRegistry, route));
+        }
+
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, rejected, objectMapper, lifecycleManager));
+        // After Spring Security, so the authenticated email is known
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<LoginRateLimitFilter> loginRateLimitFilter(
+            RateLimiter rateLimiter,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            LifecycleManager lifecycleManager
+    ) {
+        FilterRegistrationBean<LoginRateLimitFilter> registration = new FilterRegistrationBean<>(
+                new LoginRateLimitFilter(rateLimiter, rejectedCounter(meterRegistry, LoginRateLimitFilter.LOGIN),
+                        objectMapper, lifecycleManager));
+        // Before Spring Security, which answers bad credentials itself; ahead of the
+        // concurrency limit and the bulkheads too, so a refused address holds no slot
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 3);
+        return registration;
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("http.rate-limit.rejected")
+                .description("Requests refused with 429")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
+
+/*
+Explanation of RateLimitConfig:
+
+The bulkheads and the adaptive limit protect the service as a whole; nothing stopped a single
+client from using all of it. Each client now gets a token bucket per route group:
+
+auth                 signup, password change - keyed by IP (signup) or email
+public-read          anonymous product GETs - keyed by IP
+authenticated-write  everything else, signed-in reads included - keyed by email
+
+capacity is the burst a quiet client may send at once; refill-per-second is its sustained rate.
+
+login                failed sign-ins (401 to a request with an Authorization header) - keyed by IP
+
+RateLimitFilter runs after Spring Security, but a wrong Basic password is answered with 401
+inside the security chain, so password guessing never reached it. LoginRateLimitFilter runs
+before the chain instead: every request with credentials takes a token from the address's
+login bucket before its BCrypt check and gives it back unless it ends in 401, so a burst of
+parallel guesses costs one token each. An address with an empty bucket gets 429 for any
+request with credentials until it refills. Successful sign-ins take nothing in the end, so
+clients behind one NAT address are only limited by their failures.
+
+Responses of limited routes carry
+RateLimit-Limit      capacity
+RateLimit-Remaining  tokens left after this request
+RateLimit-Reset      seconds until the bucket is full again
+and a refused request gets 429 with Retry-After (seconds until the next token).
+
+Buckets are one AtomicLong each in a ConcurrentHashMap: taking a token is one CAS, with no
+lock and no refill thread (see RateLimiter). A full bucket is the same as no bucket, so the
+sweep every idle-sweep-ms drops those. At max-buckets a new client triggers a sweep right away
+(at most once a second) and is refused if that freed nothing. Memory is bounded by
+max-buckets, not by the number of IPs that ever called.
+
+Until the instance is first ready nothing is limited: the only callers then are the warmup
+(see WarmupRunner), all from one loopback address, and the readiness probe.
+
+Behind a load balancer set server.forward-headers-strategy so the client IP, not the
+balancer's, is used for anonymous callers.
+
+Metrics: http.rate-limit.rejected (tag route), http.rate-limit.buckets
+*/
@@ -0,0 +1,92 @@
+package com.example.webapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the per-client rate limit of the request's route group (the bulkhead groups). Runs
+ * after Spring Security, so a signed-in client is limited by its email wherever it connects
+ * from, and anyone else by IP address. Requests Spring Security turns away with 401 never get
+ * here; LoginRateLimitFilter limits those. Limited responses carry RateLimit-Limit,
+ * RateLimit-Remaining and RateLimit-Reset; refused ones are 429 with Retry-After.
+ * Nothing is limited before the instance has first been ready: that traffic is the warmup's.
+ */
+class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT_HEADER = "RateLimit-Limit";
+    static final String REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RESET_HEADER = "RateLimit-Reset";
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimiter rateLimiter;
+    private final Map<String, Counter> rejected;
+    private final ObjectMapper objectMapper;
+    private final LifecycleManager lifecycleManager;
+
+    RateLimitFilter(RateLimiter rateLimiter, Map<String, Counter> rejected, ObjectMapper objectMapper,
+                    LifecycleManager lifecycleManager) {
+        this.rateLimiter = rateLimiter;
+        this.rejected = rejected;
+        this.objectMapper = objectMapper;
+        this.lifecycleManager = lifecycleManager;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return lifecycleManager.isStarting();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String route = BulkheadFilter.groupOf(request);
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(route, clientOf(request), System.nanoTime());
+        if (decision == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader(LIMIT_HEADER, String.valueOf(decision.limit()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        response.setHeader(RESET_HEADER, String.valueOf(seconds(decision.resetNanos())));
+
+        if (!decision.allowed()) {
+            rejected.get(route).increment();
+            logger.warn("Rate limit for {} exceeded, rejecting {} {}", route, request.getMethod(), request.getRequestURI());
+            BulkheadFilter.writeRejection(request, response, objectMapper, HttpStatus.TOO_MANY_REQUESTS,
+                    "Rate limit exceeded, retry later", String.valueOf(Math.max(1, seconds(decision.retryAfterNanos()))));
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    static String clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static long seconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.webapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per (route, client), one AtomicLong each. A bucket stores the time at which it
+ * will be full again (GCRA, the token bucket written as a single timestamp): taking a token
+ * pushes that time one refill interval further out, and a request is refused when that would
+ * put it more than capacity intervals ahead of now. Taking a token is a single CAS; there are
+ * no locks and no refill thread.
+ */
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    // At most one sweep a second triggered by a full map, so a flood of new IPs can't make
+    // every request walk every bucket
+    private static final long FULL_SWEEP_SPACING_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, Rule> rules;
+    private final int maxBuckets;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastFullSweep = new AtomicLong(System.nanoTime() - FULL_SWEEP_SPACING_NANOS);
+
+    public RateLimiter(Map<String, Rule> rules, int maxBuckets) {
+        this.rules = rules;
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Takes one token from the bucket of client on route. Routes without a rule are not limited
+     * (null is returned).
+     */
+    public Decision tryAcquire(String route, String client, long nowNanos) {
+        Rule rule = rules.get(route);
+        if (rule == null) {
+            return null;
+        }
+
+        String key = route + '|' + client;
+        AtomicLong fullAt = buckets.get(key);
+        if (fullAt == null) {
+            if (buckets.size() >= maxBuckets) {
+                long lastSweep = lastFullSweep.get();
+                if (nowNanos - lastSweep >= FULL_SWEEP_SPACING_NANOS && lastFullSweep.compareAndSet(lastSweep, nowNanos)) {
+                    evictIdle(nowNanos);
+                }
+                if (buckets.size() >= maxBuckets) {
+                    // Refuse new clients rather than grow without bound
+                    return new Decision(false, rule.capacity(), 0, rule.intervalNanos(), rule.intervalNanos());
+                }
+            }
+            fullAt = buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        }
+
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + rule.intervalNanos();
+            long ahead = next - nowNanos;
+            if (ahead > rule.burstNanos()) {
+                long aheadNow = Math.max(current - nowNanos, 0);
+                return new Decision(false, rule.capacity(), 0, aheadNow, ahead - rule.burstNanos());
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                int remaining = (int) ((rule.burstNanos() - ahead) / rule.intervalNanos());
+                return new Decision(true, rule.capacity(), remaining, ahead, 0);
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by tryAcquire, by moving the full-at time one interval earlier.
+     * A bucket that is already full is not overfilled: tryAcquire never counts from before now.
+     */
+    public void giveBack(String route, String client) {
+        Rule rule = rules.get(route);
+        AtomicLong fullAt = rule == null ? null : buckets.get(route + '|' + client);
+        if (fullAt != null) {
+            fullAt.addAndGet(-rule.intervalNanos());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${webapp.rate-limit.idle-sweep-ms:60000}",
+            initialDelayString = "${webapp.rate-limit.idle-sweep-ms:60000}")
+    public void evictIdle() {
+        int before = buckets.size();
+        evictIdle(System.nanoTime());
+        logger.debug("Rate limit buckets: {} before sweep, {} after", before, buckets.size());
+    }
+
+    // A full bucket holds no state a fresh one wouldn't, so dropping it changes nothing
+    private void evictIdle(long nowNanos) {
+        buckets.values().removeIf(fullAt -> fullAt.get() - nowNanos <= 0);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * capacity tokens at most, refilled at refillPerSecond.
+     */
+    public record Rule(int capacity, long intervalNanos) {
+
+        public static Rule of(int capacity, double refillPerSecond) {
+            return new Rule(Math.max(1, capacity), (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(refillPerSecond, 1e-6)));
+        }
+
+        long burstNanos() {
+            return capacity * intervalNanos;
+        }
+    }
+
+    /**
+     * resetNanos: until the bucket is full again. retryAfterNanos: until the next token, when refused.
+     */
+    public record Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+    }
+}
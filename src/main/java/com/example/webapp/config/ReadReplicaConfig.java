@@ -0,0 +1,105 @@
+package com.example.webapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replica support, switched on by setting webapp.datasource.replica.url.
+ *
+ * spring.datasource.* stays the primary (writes, Flyway, anything outside a read-only
+ * transaction); read-only transactions are routed to the replica pool while ReplicaLagMonitor
+ * keeps it in rotation. Without the property the single auto-configured pool is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "webapp.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${webapp.datasource.replica.url}") String url,
+            @Value("${webapp.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${webapp.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${webapp.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${webapp.datasource.replica.connection-timeout-ms:2000}") long connectionTimeoutMillis
+    ) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        // Fail fast and fall back to the primary rather than queue behind a dead replica
+        dataSource.setConnectionTimeout(connectionTimeoutMillis);
+        // Don't refuse to start just because the replica is down
+        dataSource.setInitializationFailTimeout(-1);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${webapp.datasource.replica.max-lag-ms:1000}") long maxLagMillis
+    ) {
+        return new ReplicaLagMonitor(primary, replica, maxLagMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReplicaLagMonitor lagMonitor
+    ) {
+        logger.info("Routing read-only transactions to the read replica");
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, lagMonitor));
+    }
+}
+
+/*
+Explanation of ReadReplicaConfig:
+
+@Transactional(readOnly = true) does two things here:
+1. Hibernate opens the session read-only with FlushMode.MANUAL: loaded entities get no
+   snapshot and are never dirty checked or flushed
+2. The routing DataSource sends the transaction's connection to the replica
+
+Flow of a read-only request:
+- The transaction begins; the LazyConnectionDataSourceProxy hands Hibernate a placeholder
+- The first query asks ReadWriteRoutingDataSource for a real connection
+- Read-only transaction and replica in rotation → replica pool, otherwise → primary pool
+
+Replication lag:
+- ReplicaLagMonitor writes the time into replication_heartbeat on the primary every
+  lag-check-ms; each check first reads the beat the primary and the replica have
+- Lag = primary beat - replicated beat: how far the replica is behind the previous stamp.
+  Measured between two stamps rather than against the clock, so a check delayed behind
+  other scheduled jobs does not count the delay as lag
+- Behind by more than max-lag-ms (or unreachable) → all reads go to the primary until it
+  catches up, so clients never see data older than that
+*/
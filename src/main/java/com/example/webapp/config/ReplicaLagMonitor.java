@@ -0,0 +1,103 @@
+package com.example.webapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides whether read-only transactions may go to the replica. Each check reads the
+ * heartbeat row from the primary and then from the replica, and stamps a new beat on the
+ * primary for the next check; a replica that is more than max-lag-ms behind, or cannot be
+ * read at all, is taken out of rotation until a later check finds it caught up. Until a
+ * check has seen a stamped beat it is out of rotation too.
+ *
+ * The lag is how much older the replica's beat is than the primary's, i.e. than the previous
+ * stamp by this or any other instance, measured to a resolution of the time between stamps.
+ * It does not depend on when the check runs: a check that starts late because the scheduler
+ * was busy compares the same two beats it would have compared on time.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    private final ReentrantLock checkLock = new ReentrantLock();
+
+    private volatile boolean replicaUsable;
+    private volatile long lastLagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource, long maxLagMillis) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.maxLagMillis = maxLagMillis;
+        // A hung replica must not hold up the scheduler thread
+        this.replica.setQueryTimeout((int) Math.max(1, maxLagMillis / 1000));
+    }
+
+    @Scheduled(fixedDelayString = "${webapp.datasource.replica.lag-check-ms:1000}",
+            initialDelayString = "${webapp.datasource.replica.lag-check-ms:1000}")
+    public void checkLag() {
+        // Not a synchronized method: the check waits on two databases, and on a virtual
+        // scheduler thread a monitor held that long pins the carrier
+        checkLock.lock();
+        try {
+            check();
+        } finally {
+            checkLock.unlock();
+        }
+    }
+
+    private void check() {
+        boolean usable;
+        try {
+            // Both read before stamping: a beat stamped just now could not have replicated yet
+            Long stamped = primary.queryForObject(
+                    "SELECT beat_millis FROM replication_heartbeat WHERE id = 1", Long.class);
+            Long replicated = replica.queryForObject(
+                    "SELECT beat_millis FROM replication_heartbeat WHERE id = 1", Long.class);
+
+            if (stamped == null || stamped == 0 || replicated == null) {
+                // Nothing stamped yet (fresh schema), so nothing to measure against
+                lastLagMillis = Long.MAX_VALUE;
+            } else {
+                // Another instance may have stamped a newer beat that already reached the replica
+                lastLagMillis = Math.max(0, stamped - replicated);
+            }
+            usable = lastLagMillis <= maxLagMillis;
+
+            primary.update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1", System.currentTimeMillis());
+        } catch (DataAccessException ex) {
+            logger.error("Replica lag check failed: {}", ex.getMessage());
+            lastLagMillis = -1;
+            usable = false;
+        }
+
+        if (usable != replicaUsable) {
+            if (usable) {
+                logger.info("Read replica back in rotation (lag {} ms)", lastLagMillis);
+            } else {
+                logger.warn("Read replica out of rotation (lag {} ms, limit {} ms), reads go to the primary",
+                        lastLagMillis, maxLagMillis);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * Lag seen by the last check in milliseconds, or -1 if the replica could not be read.
+     */
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.webapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Refuses to start when an index the read paths rely on is missing, instead of serving
+ * every request with a table scan. Runs once all beans (Flyway included) are set up and
+ * before the web server accepts connections.
+ */
+@Component
+public class RequiredIndexCheck implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequiredIndexCheck.class);
+
+    // table → leading columns some index must start with
+    static final Map<String, List<List<String>>> REQUIRED_INDEXES = new LinkedHashMap<>();
+
+    static {
+        REQUIRED_INDEXES.put("users", List.of(
+                List.of("email")));
+        REQUIRED_INDEXES.put("products", List.of(
+                List.of("sku"),
+                List.of("date_last_updated", "id"),
+                List.of("owner_user_id", "date_added"),
+                List.of("date_added"),
+                List.of("manufacturer")));
+        REQUIRED_INDEXES.put("stock_reservations", List.of(
+                List.of("status", "expires_at"),
+                List.of("product_id")));
+        REQUIRED_INDEXES.put("product_tombstones", List.of(
+                List.of("deleted_at", "product_id")));
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${webapp.schema.verify-indexes:true}")
+    private boolean enabled;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+
+        List<String> missing = new ArrayList<>();
+        int checked = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, List<List<String>>> table : REQUIRED_INDEXES.entrySet()) {
+                List<List<String>> indexes = indexesOf(connection, metaData, table.getKey());
+                for (List<String> required : table.getValue()) {
+                    checked++;
+                    if (indexes.stream().noneMatch(columns -> startsWith(columns, required))) {
+                        missing.add(table.getKey() + "(" + String.join(", ", required) + ")");
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not read index metadata", ex);
+        }
+
+        if (!missing.isEmpty()) {
+            logger.error("Missing database indexes: {}", missing);
+            throw new IllegalStateException("Missing database indexes " + missing
+                    + "; apply the Flyway migrations in db/migration or set webapp.schema.verify-indexes=false");
+        }
+
+        logger.info("All {} required database indexes are present", checked);
+    }
+
+    private List<List<String>> indexesOf(Connection connection, DatabaseMetaData metaData, String table)
+            throws SQLException {
+        String name = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+
+        Map<String, TreeMap<Short, String>> byIndex = new LinkedHashMap<>();
+        try (ResultSet rows = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), name, false, true)) {
+            while (rows.next()) {
+                String indexName = rows.getString("INDEX_NAME");
+                String column = rows.getString("COLUMN_NAME");
+                if (indexName == null || column == null) {
+                    continue;
+                }
+                byIndex.computeIfAbsent(indexName, key -> new TreeMap<>())
+                        .put(rows.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        List<List<String>> indexes = new ArrayList<>();
+        byIndex.values().forEach(columns -> indexes.add(new ArrayList<>(columns.values())));
+        return indexes;
+    }
+
+    private boolean startsWith(List<String> columns, List<String> prefix) {
+        return columns.size() >= prefix.size() && columns.subList(0, prefix.size()).equals(prefix);
+    }
+}
+
+/*
+Explanation of RequiredIndexCheck:
+
+The schema is created by Flyway (db/migration). If someone points the app at a database
+where an index was dropped or a migration never ran, queries still work, just as full table
+scans, and the problem only shows up under load. This check makes it a startup failure.
+
+An index counts if its leading columns match, so (owner_user_id, date_added) also satisfies
+a lookup by owner_user_id alone.
+*/
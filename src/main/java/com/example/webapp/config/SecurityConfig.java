@@ -39,14 +39,27 @@ public class SecurityConfig {
                         // PUBLIC: Anyone can create a user account
                         .requestMatchers(HttpMethod.POST, "/v1/user").permitAll()
 
+                        // PROTECTED: Import job status belongs to whoever uploaded the file
+                        .requestMatchers(HttpMethod.GET, "/v1/product/import/**").authenticated()
+
+                        // PROTECTED: A caller's own products need a caller
+                        .requestMatchers(HttpMethod.GET, "/v1/product/my-products").authenticated()
+
                         // PUBLIC: Anyone can read products (GET only)
                         .requestMatchers(HttpMethod.GET, "/v1/product/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/v1/product").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/v1/reactive/product/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/v1/reactive/product").permitAll()
 
                         // PUBLIC: Health checks
                         .requestMatchers(HttpMethod.GET, "/v1/user/health").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/v1/user/health/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/v1/product/health").permitAll()
 
+                        // ADMIN: Metrics show endpoint timings, pools and limiter internals, and
+                        // anyone can sign up, so signed in is not enough
+                        .requestMatchers(HttpMethod.GET, "/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
+
                         // PROTECTED: Everything else requires authentication
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,215 @@
+package com.example.webapp.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs the hot read endpoints over HTTP against this instance before it reports ready, so the
+ * first real requests don't pay for class loading, JIT compilation and Hibernate's query plans.
+ * Requests go through Tomcat and the whole filter chain, like real ones; they only read. Spring
+ * Boot publishes ACCEPTING_TRAFFIC once this runner returns.
+ *
+ * Only 2xx and 404 responses exercise the code real traffic runs; 404 is what a product id
+ * nobody has created yet gets. When other statuses make up most of a window, warming up is
+ * pointless and it stops with a warning rather than reporting a stable latency.
+ */
+@Component
+@ConditionalOnProperty(name = "webapp.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // {id} is replaced with ids of existing products, in turn
+    @Value("${webapp.warmup.paths:/v1/product/{id},/v1/product/changes?limit=50,/v1/reactive/product/{id}}")
+    private List<String> paths;
+
+    @Value("${webapp.warmup.sample-size:50}")
+    private int sampleSize;
+
+    @Value("${webapp.warmup.max-iterations:500}")
+    private int maxIterations;
+
+    @Value("${webapp.warmup.window:20}")
+    private int window;
+
+    @Value("${webapp.warmup.stable-tolerance:0.1}")
+    private double stableTolerance;
+
+    @Value("${webapp.warmup.timeout-ms:60000}")
+    private long timeoutMillis;
+
+    private volatile Result lastResult;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        try {
+            String port = environment.getProperty("local.server.port");
+            if (port == null) {
+                logger.info("Warmup: no web server running, skipping the request phase");
+                return;
+            }
+            String baseUrl = "http://localhost:" + port + environment.getProperty("server.servlet.context-path", "");
+            lastResult = exerciseEndpoints(baseUrl, start + timeoutMillis * 1_000_000);
+
+            if (lastResult.mostlyFailed()) {
+                logger.warn("Warmup stopped after {} iterations: {} of {} responses were errors, so it was not "
+                                + "warming the code real traffic runs. Check webapp.warmup.paths",
+                        lastResult.iterations(), lastResult.failedResponses(), lastResult.responses());
+                return;
+            }
+            logger.info("Warmup done in {} ms: {} iterations, latency {} (last window {} µs per iteration, {} error responses)",
+                    (System.nanoTime() - start) / 1_000_000, lastResult.iterations(),
+                    lastResult.stable() ? "stable" : "still changing", lastResult.lastWindowMicros(),
+                    lastResult.failedResponses());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            // A cold instance is slow, not broken: serve anyway
+            logger.warn("Warmup failed, reporting ready without it: {}", ex.getMessage());
+        }
+    }
+
+    private Result exerciseEndpoints(String baseUrl, long deadlineNanos) throws Exception {
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build()) {
+            List<String> ids = sampleProductIds(client, baseUrl);
+
+            int iterations = 0;
+            long windowNanos = 0;
+            long previousWindowNanos = -1;
+            boolean stable = false;
+            int responses = 0;
+            int failedResponses = 0;
+            int windowFailures = 0;
+
+            while (iterations < maxIterations && System.nanoTime() < deadlineNanos) {
+                String id = ids.get(iterations % ids.size());
+                long iterationStart = System.nanoTime();
+                for (String path : paths) {
+                    int status = get(client, baseUrl + path.replace("{id}", id)).statusCode();
+                    responses++;
+                    if (status / 100 != 2 && status != 404) {
+                        failedResponses++;
+                        windowFailures++;
+                    }
+                }
+                windowNanos += System.nanoTime() - iterationStart;
+                iterations++;
+
+                if (iterations % window == 0) {
+                    if (windowFailures * 2 > window * paths.size()) {
+                        return new Result(iterations, false, 0, responses, failedResponses);
+                    }
+                    windowFailures = 0;
+                    // Stable once a window's mean is within tolerance of the previous one's
+                    if (previousWindowNanos > 0
+                            && Math.abs(windowNanos - previousWindowNanos) <= stableTolerance * previousWindowNanos) {
+                        stable = true;
+                        previousWindowNanos = windowNanos;
+                        break;
+                    }
+                    previousWindowNanos = windowNanos;
+                    windowNanos = 0;
+                }
+            }
+            long lastWindowMicros = previousWindowNanos > 0 ? previousWindowNanos / window / 1000 : 0;
+            return new Result(iterations, stable, lastWindowMicros, responses, failedResponses);
+        }
+    }
+
+    // Existing products from the first page of the change feed; a random id (404) when there are none yet
+    private List<String> sampleProductIds(HttpClient client, String baseUrl) throws Exception {
+        List<String> ids = new ArrayList<>();
+        HttpResponse<String> response = get(client, baseUrl + "/v1/product/changes?limit=" + Math.max(1, sampleSize));
+        if (response.statusCode() == 200) {
+            for (JsonNode product : objectMapper.readTree(response.body()).path("changed")) {
+                ids.add(product.path("id").asText());
+            }
+        }
+        if (ids.isEmpty()) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        return ids;
+    }
+
+    private static HttpResponse<String> get(HttpClient client, String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    public Result getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * lastWindowMicros: mean time of one iteration (every path once) over the last full window.
+     * failedResponses: responses other than 2xx and 404.
+     */
+    public record Result(int iterations, boolean stable, long lastWindowMicros, int responses, int failedResponses) {
+
+        public boolean mostlyFailed() {
+            return failedResponses * 2 > responses;
+        }
+    }
+}
+
+/*
+Explanation of WarmupRunner:
+
+The first minute after a deploy had p99 latency ten times the steady state: every request was
+paying for class loading, the JIT still interpreting ProductController, ProductServiceImpl,
+Jackson and Hibernate, and Hibernate building query plans.
+
+Readiness already stays at REFUSING_TRAFFIC until every ApplicationRunner has returned (see
+LifecycleConfig), so warming up in one keeps the load balancer away until it is done:
+
+1. GET /v1/product/changes?limit=sample-size picks existing products (read-only data).
+2. One iteration requests each of webapp.warmup.paths once, with {id} replaced by the next
+   sampled id. The requests go to this instance's own port, so they run through Tomcat, the
+   filters (security, bulkheads, limits) and the controllers, exactly like real traffic.
+3. Iterations are timed in windows of window iterations. Warmup stops when a window's time is
+   within stable-tolerance of the previous one's (latency has stopped improving), after
+   max-iterations, or at timeout-ms, whichever is first.
+4. Responses other than 2xx and 404 are counted. If they are more than half of a window
+   (a path that needs credentials, a broken query, a limit refusing the requests), the
+   latency says nothing about the real code paths: warmup stops and logs a warning.
+
+The connection pools need nothing from warmup: Hikari fills up to minimumIdle in the background
+as soon as a pool starts, and Flyway starts the primary one early in context startup.
+
+Only GETs are sent, so warmup changes no data. Rate limits don't apply before the instance has
+first been ready, since all of these requests come from one loopback address. A failing
+warmup is logged and the instance becomes ready anyway.
+
+Set webapp.warmup.enabled=false to skip it (the tests do).
+*/
@@ -0,0 +1,39 @@
+package com.example.webapp.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+final class BasicCredentials {
+
+    private static final String PREFIX = "Basic ";
+
+    private BasicCredentials() {
+    }
+
+    /**
+     * True if the password equals the one this request authenticated with. Spring Security has
+     * already checked that password against the stored hash, so a match means it is unchanged
+     * and does not need to be hashed again.
+     */
+    static boolean isCurrentPassword(String authorization, String password) {
+        String current = password(authorization);
+        return current != null && password != null
+                && MessageDigest.isEqual(current.getBytes(StandardCharsets.UTF_8), password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String password(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getDecoder().decode(authorization.substring(PREFIX.length()).trim()),
+                    StandardCharsets.UTF_8);
+            int colon = decoded.indexOf(':');
+            return colon < 0 ? null : decoded.substring(colon + 1);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
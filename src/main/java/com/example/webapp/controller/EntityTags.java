@@ -0,0 +1,43 @@
+package com.example.webapp.controller;
+
+import com.example.webapp.exception.InvalidRequestException;
+
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static String format(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Turns an If-Match header into the version the client expects, or null when the
+     * header is absent or "*" (any current representation is acceptable).
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return null;
+        }
+        if (value.contains(",")) {
+            throw new InvalidRequestException("If-Match must contain a single entity tag");
+        }
+        if (value.startsWith("W/")) {
+            throw new InvalidRequestException("If-Match requires a strong entity tag");
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new InvalidRequestException("Malformed If-Match entity tag: " + ifMatch);
+        }
+    }
+}
@@ -1,19 +1,37 @@
 package com.example.webapp.controller;
 
+import com.example.webapp.config.LifecycleManager;
+import com.example.webapp.dto.ImportJobDTO;
+import com.example.webapp.dto.ProductChangesDTO;
 import com.example.webapp.dto.ProductRequestDTO;
 import com.example.webapp.dto.ProductResponseDTO;
 import com.example.webapp.dto.ProductUpdateDTO;
+import com.example.webapp.dto.StockAdjustmentDTO;
+import com.example.webapp.dto.StockLevelDTO;
+import com.example.webapp.exception.InvalidRequestException;
+import com.example.webapp.exception.PreconditionRequiredException;
+import com.example.webapp.security.AuthenticatedUser;
+import com.example.webapp.service.IdempotencyStore;
+import com.example.webapp.service.ProductChangeStream;
+import com.example.webapp.service.ProductCsvImporter;
 import com.example.webapp.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,22 +44,77 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private LifecycleManager lifecycleManager;
+
+    @Autowired
+    private ProductChangeStream productChangeStream;
+
+    @Autowired
+    private ProductCsvImporter productCsvImporter;
+
+    @Value("${webapp.product.require-if-match:false}")
+    private boolean requireIfMatch;
+
+    @Value("${webapp.sync.max-page-size:1000}")
+    private int maxSyncPageSize;
+
     @PostMapping
     public ResponseEntity<ProductResponseDTO> createProduct(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody ProductRequestDTO productRequestDTO
     ) {
         logger.info("POST /v1/product - Creating product with SKU: {}", productRequestDTO.getSku());
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String ownerEmail = authentication.getName();
+        logger.debug("Authenticated user: {}", user.getUsername());
+
+        // Keys are scoped to the caller, so one user can never replay another user's product
+        return idempotencyStore.execute("POST /v1/product", user.getUsername(), idempotencyKey, productRequestDTO, () -> {
+            ProductResponseDTO createdProduct = productService.createProduct(productRequestDTO, user.getId());
 
-        logger.debug("Authenticated user: {}", ownerEmail);
+            logger.info("Product created successfully: {}", createdProduct.getId());
 
-        ProductResponseDTO createdProduct = productService.createProduct(productRequestDTO, ownerEmail);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .eTag(EntityTags.format(createdProduct.getVersion()))
+                    .body(createdProduct);
+        });
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> importProducts(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam("file") MultipartFile file
+    ) {
+        logger.info("POST /v1/product/import - Importing CSV {} ({} bytes)", file.getOriginalFilename(), file.getSize());
 
-        logger.info("Product created successfully: {}", createdProduct.getId());
+        ImportJobDTO job = productCsvImporter.submit(file, user.getId());
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
+        logger.info("Import job {} queued", job.getId());
+
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(job.getId())
+                .toUri();
+
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobDTO> getImportJob(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable("jobId") UUID jobId
+    ) {
+        logger.info("GET /v1/product/import/{} - Fetching import job", jobId);
+
+        ImportJobDTO job = productCsvImporter.getJob(jobId, user.getId());
+
+        logger.info("Import job {} is {}", jobId, job.getStatus());
+
+        return ResponseEntity.ok(job);
     }
 
     @GetMapping("/{id}")
@@ -52,7 +125,9 @@ public class ProductController {
 
         logger.info("Product retrieved successfully");
 
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.format(product.getVersion()))
+                .body(product);
     }
 
     @GetMapping
@@ -66,61 +141,130 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangesDTO> getProductChanges(
+            @RequestParam(value = "since", required = false) String since,
+            @RequestParam(value = "limit", defaultValue = "${webapp.sync.page-size:100}") int limit
+    ) {
+        logger.info("GET /v1/product/changes - Fetching changes since token {}", since);
+
+        if (limit < 1) {
+            throw new InvalidRequestException("limit must be at least 1");
+        }
+
+        ProductChangesDTO changes = productService.getChangesSince(since, Math.min(limit, maxSyncPageSize));
+
+        logger.info("Returning {} changed and {} deleted products",
+                changes.getChanged().size(), changes.getDeleted().size());
+
+        return ResponseEntity.ok(changes);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProductChanges(
+            @RequestParam(value = "ownerId", required = false) UUID ownerId,
+            @RequestParam(value = "sku", required = false) String sku,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        logger.info("GET /v1/product/stream - Opening change stream (owner={}, sku={})", ownerId, sku);
+
+        Long resumeAfter = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                resumeAfter = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException ex) {
+                throw new InvalidRequestException("Malformed Last-Event-ID: " + lastEventId);
+            }
+        }
+
+        return productChangeStream.subscribe(ownerId, sku, resumeAfter);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponseDTO> updateProduct(
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable("id") UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ProductUpdateDTO productUpdateDTO
     ) {
         logger.info("PUT /v1/product/{} - Updating product", id);
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String authenticatedEmail = authentication.getName();
+        Long expectedVersion = resolveExpectedVersion(ifMatch);
 
-        logger.debug("Authenticated user: {}", authenticatedEmail);
+        logger.debug("Authenticated user: {}", user.getUsername());
 
-        ProductResponseDTO updatedProduct = productService.updateProduct(id, productUpdateDTO, authenticatedEmail);
+        ProductResponseDTO updatedProduct = productService.updateProduct(id, productUpdateDTO, user.getId(), expectedVersion);
 
         logger.info("Product updated successfully: {}", id);
 
-        return ResponseEntity.ok(updatedProduct);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.format(updatedProduct.getVersion()))
+                .body(updatedProduct);
     }
 
-    @PatchMapping("/{id}")
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
     public ResponseEntity<ProductResponseDTO> patchProduct(
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable("id") UUID id,
-            @Valid @RequestBody ProductUpdateDTO productUpdateDTO
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode mergePatch
     ) {
-        logger.info("PATCH /v1/product/{} - Updating product", id);
+        logger.info("PATCH /v1/product/{} - Patching product", id);
+
+        Long expectedVersion = resolveExpectedVersion(ifMatch);
 
-        return updateProduct(id, productUpdateDTO);
+        logger.debug("Authenticated user: {}", user.getUsername());
+
+        ProductResponseDTO patchedProduct = productService.patchProduct(id, mergePatch, user.getId(), expectedVersion);
+
+        logger.info("Product patched successfully: {}", id);
+
+        return ResponseEntity.ok()
+                .eTag(EntityTags.format(patchedProduct.getVersion()))
+                .body(patchedProduct);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProduct(@PathVariable("id") UUID id) {
+    public ResponseEntity<Void> deleteProduct(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable("id") UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
         logger.info("DELETE /v1/product/{} - Deleting product", id);
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String authenticatedEmail = authentication.getName();
+        Long expectedVersion = resolveExpectedVersion(ifMatch);
 
-        logger.debug("Authenticated user: {}", authenticatedEmail);
+        logger.debug("Authenticated user: {}", user.getUsername());
 
-        productService.deleteProduct(id, authenticatedEmail);
+        productService.deleteProduct(id, user.getId(), expectedVersion);
 
         logger.info("Product deleted successfully: {}", id);
 
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{id}/stock")
+    public ResponseEntity<StockLevelDTO> adjustStock(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable("id") UUID id,
+            @Valid @RequestBody StockAdjustmentDTO stockAdjustmentDTO
+    ) {
+        logger.info("POST /v1/product/{}/stock - Adjusting stock by {}", id, stockAdjustmentDTO.getDelta());
+
+        StockLevelDTO stockLevel = productService.adjustStock(id, stockAdjustmentDTO.getDelta(), user.getId());
+
+        logger.info("Available stock of product {} is now {}", id, stockLevel.getAvailableQuantity());
+
+        return ResponseEntity.ok(stockLevel);
+    }
+
     @GetMapping("/my-products")
-    public ResponseEntity<List<ProductResponseDTO>> getMyProducts() {
+    public ResponseEntity<List<ProductResponseDTO>> getMyProducts(@AuthenticationPrincipal AuthenticatedUser user) {
         logger.info("GET /v1/product/my-products - Fetching user's products");
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String ownerEmail = authentication.getName();
-
-        logger.debug("Fetching products for user: {}", ownerEmail);
+        logger.debug("Fetching products for user: {}", user.getUsername());
 
-        List<ProductResponseDTO> products = productService.getProductsByOwner(ownerEmail);
+        List<ProductResponseDTO> products = productService.getProductsByOwner(user.getId());
 
         logger.info("User has {} products", products.size());
 
@@ -132,6 +276,31 @@ public class ProductController {
         logger.debug("Health check requested");
         return ResponseEntity.ok("Product API is running");
     }
+
+    // Liveness probe: a failure means restart the instance
+    @GetMapping("/health/live")
+    public ResponseEntity<String> livenessCheck() {
+        if (!lifecycleManager.isLive()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Product API is broken");
+        }
+        return ResponseEntity.ok("Product API is live");
+    }
+
+    // Readiness probe: a failure means stop sending traffic (starting up, warming up or draining)
+    @GetMapping("/health/ready")
+    public ResponseEntity<String> readinessCheck() {
+        if (!lifecycleManager.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Product API is not accepting traffic");
+        }
+        return ResponseEntity.ok("Product API is ready");
+    }
+
+    private Long resolveExpectedVersion(String ifMatch) {
+        if (requireIfMatch && (ifMatch == null || ifMatch.isBlank())) {
+            throw new PreconditionRequiredException("If-Match header is required for this operation");
+        }
+        return EntityTags.parseIfMatch(ifMatch);
+    }
 }
 
 /*
@@ -149,8 +318,8 @@ public class ProductController {
 - Only owner can update
 - Service checks ownership
 - Returns 200 OK or 403 Forbidden5. patchProduct() - PATCH /v1/product/{id}
-- Same as PUT (delegates to it)
-- Assignment allows both PUT and PATCH6. deleteProduct() - DELETE /v1/product/{id}
+- JSON Merge Patch: send only the fields to change, null clears description
+- Nothing changed → no write, same ETag6. deleteProduct() - DELETE /v1/product/{id}
 - Only owner can delete
 - Service checks ownership
 - Returns 204 No Content7. getMyProducts() - GET /v1/product/my-products
@@ -165,8 +334,31 @@ URL: /v1/product/123e4567-...
 id = "123e4567-..."
 Spring converts String to UUID automatically
 Getting authenticated user:
-javaAuthentication authentication = SecurityContextHolder.getContext().getAuthentication();
-String email = authentication.getName();
-
-Gets email of logged-in user
-Used to set owner or check ownership*/
\ No newline at end of file
+java@AuthenticationPrincipal AuthenticatedUser user
+
+The principal Spring Security built while checking the password
+user.getId() is the user's UUID: services set the owner and check ownership with it,
+without looking the user up again by email
+Optimistic concurrency:
+GET /v1/product/stream - Server-Sent Events for every committed create/update/delete
+- Public like the other GETs; ?ownerId= and ?sku= narrow it down
+- Reconnect with Last-Event-ID to get the events missed in between ("reset" if too far behind,
+  or if the id is from before a restart)
+
+GET /v1/product/changes?since=<token>&limit= - Delta sync for caches and mobile clients
+- No token = first sync; pass nextToken back each time, call again at once while hasMore
+- changed = products updated since the token, deleted = ids removed since (tombstones)
+- 410 Gone once the token is older than the tombstone retention: reload the full list
+
+POST /v1/product/import - CSV bulk import (multipart part "file"), signed-in users
+- 202 Accepted right away; rows are imported in the background in chunks
+- GET /v1/product/import/{jobId} (Location header) shows progress and per-row errors
+
+GET/POST/PUT/PATCH return the product version as an ETag.
+PUT/PATCH/DELETE honor If-Match and return 412 if the product changed in the meantime.
+Set webapp.product.require-if-match=true to make If-Match mandatory (428 when missing).
+Stock:
+POST /v1/product/{id}/stock {"delta": -1} sells one unit (409 if out of stock).
+Positive deltas restock and are owner only.
+Probes:
+GET /v1/product/health/live and /v1/product/health/ready - same as the /v1/user ones (see LifecycleConfig)*/
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.example.webapp.controller;
+
+import com.example.webapp.dto.ProductResponseDTO;
+import com.example.webapp.service.ReactiveProductReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/v1/reactive/product")
+public class ReactiveProductController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveProductController.class);
+
+    @Autowired
+    private ReactiveProductReader reactiveProductReader;
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductResponseDTO>> getProductById(@PathVariable("id") UUID id) {
+        logger.info("GET /v1/reactive/product/{} - Fetching product", id);
+
+        return reactiveProductReader.getProductById(id)
+                .map(product -> ResponseEntity.ok()
+                        .eTag(EntityTags.format(product.getVersion()))
+                        .body(product));
+    }
+
+    /**
+     * JSON array by default; with Accept: application/x-ndjson one product per line, written
+     * out as the rows are read instead of after the whole result is collected.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductResponseDTO> getAllProducts() {
+        logger.info("GET /v1/reactive/product - Fetching all products");
+
+        return reactiveProductReader.getAllProducts();
+    }
+}
+
+/*
+Explanation of ReactiveProductController:
+
+Same reads as GET /v1/product/{id} and GET /v1/product, same JSON, same ETag, same 404 body
+(errors go through GlobalExceptionHandler), same public access. The difference is the thread
+model: the handler returns a Mono/Flux right away, Tomcat's thread goes back to the pool, and
+the response is written when the data arrives. Connections waiting on the database cost a
+socket and a few objects instead of a blocked thread.
+
+GET /v1/reactive/product/{id}
+- 200 + ETag, or 404
+
+GET /v1/reactive/product
+- Accept: application/json → one JSON array
+- Accept: application/x-ndjson → streamed, one product per line
+*/
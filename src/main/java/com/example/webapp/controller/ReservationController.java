@@ -0,0 +1,79 @@
+package com.example.webapp.controller;
+
+import com.example.webapp.dto.ReservationRequestDTO;
+import com.example.webapp.dto.ReservationResponseDTO;
+import com.example.webapp.service.ReservationService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/v1/reservation")
+public class ReservationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationController.class);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @PostMapping
+    public ResponseEntity<ReservationResponseDTO> createReservation(
+            @Valid @RequestBody ReservationRequestDTO reservationRequestDTO
+    ) {
+        logger.info("POST /v1/reservation - Reserving {} units of product {}",
+                reservationRequestDTO.getQuantity(), reservationRequestDTO.getProductId());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String holderEmail = authentication.getName();
+
+        ReservationResponseDTO reservation = reservationService.createReservation(reservationRequestDTO, holderEmail);
+
+        logger.info("Reservation created successfully: {}", reservation.getId());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReservationResponseDTO> getReservation(@PathVariable("id") UUID id) {
+        logger.info("GET /v1/reservation/{} - Fetching reservation", id);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        return ResponseEntity.ok(reservationService.getReservation(id, authentication.getName()));
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<ReservationResponseDTO> confirmReservation(@PathVariable("id") UUID id) {
+        logger.info("POST /v1/reservation/{}/confirm - Confirming reservation", id);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        return ResponseEntity.ok(reservationService.confirmReservation(id, authentication.getName()));
+    }
+
+    @PostMapping("/{id}/release")
+    public ResponseEntity<ReservationResponseDTO> releaseReservation(@PathVariable("id") UUID id) {
+        logger.info("POST /v1/reservation/{}/release - Releasing reservation", id);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        return ResponseEntity.ok(reservationService.releaseReservation(id, authentication.getName()));
+    }
+}
+
+/*
+* Explanation of ReservationController:
+Endpoints (all require authentication, only the holder can see or change a reservation):
+POST /v1/reservation              {"productId": "...", "quantity": 2, "ttlSeconds": 300} → 201
+GET  /v1/reservation/{id}         → 200
+POST /v1/reservation/{id}/confirm → 200, or 409 if it expired / was released
+POST /v1/reservation/{id}/release → 200, or 409 if it is no longer active
+*/
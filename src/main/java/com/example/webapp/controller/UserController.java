@@ -1,13 +1,17 @@
 package com.example.webapp.controller;
 
+import com.example.webapp.config.LifecycleManager;
+import com.example.webapp.dto.UserPatchDTO;
 import com.example.webapp.dto.UserRequestDTO;
 import com.example.webapp.dto.UserResponseDTO;
 import com.example.webapp.dto.UserUpdateDTO;
+import com.example.webapp.service.IdempotencyStore;
 import com.example.webapp.service.UserService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -23,17 +27,27 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private LifecycleManager lifecycleManager;
+
     @PostMapping
     public ResponseEntity<UserResponseDTO> createUser(
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody UserRequestDTO userRequestDTO
     ) {
         logger.info("POST /v1/user - Creating user with email: {}", userRequestDTO.getEmail());
 
-        UserResponseDTO createdUser = userService.createUser(userRequestDTO);
+        // Nobody is logged in yet, so the key is scoped to the account being created
+        return idempotencyStore.execute("POST /v1/user", userRequestDTO.getEmail(), idempotencyKey, userRequestDTO, () -> {
+            UserResponseDTO createdUser = userService.createUser(userRequestDTO);
 
-        logger.info("User created successfully: {}", createdUser.getId());
+            logger.info("User created successfully: {}", createdUser.getId());
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+        });
     }
 
     @GetMapping("/self")
@@ -54,36 +68,71 @@ public class UserController {
 
     @PutMapping("/self")
     public ResponseEntity<UserResponseDTO> updateUser(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
             @Valid @RequestBody UserUpdateDTO userUpdateDTO
     ) {
         logger.info("PUT /v1/user/self - Updating user info");
 
+        UserPatchDTO changes = new UserPatchDTO(
+                userUpdateDTO.getFirstName(),
+                userUpdateDTO.getLastName(),
+                userUpdateDTO.getPassword());
+
+        return applyChanges(authorization, changes);
+    }
+
+    @PatchMapping("/self")
+    public ResponseEntity<UserResponseDTO> patchUser(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @Valid @RequestBody UserPatchDTO userPatchDTO
+    ) {
+        logger.info("PATCH /v1/user/self - Updating user info");
+
+        return applyChanges(authorization, userPatchDTO);
+    }
+
+    private ResponseEntity<UserResponseDTO> applyChanges(String authorization, UserPatchDTO changes) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
 
         logger.debug("Updating user with email: {}", email);
 
-        UserResponseDTO updatedUser = userService.updateUser(email, userUpdateDTO);
+        // Re-sending the password you logged in with is not a change; skip the BCrypt round
+        if (BasicCredentials.isCurrentPassword(authorization, changes.getPassword())) {
+            logger.debug("Password unchanged, not rehashing");
+            changes.setPassword(null);
+        }
+
+        UserResponseDTO updatedUser = userService.patchUser(email, changes);
 
         logger.info("User updated successfully");
 
         return ResponseEntity.ok(updatedUser);
     }
 
-    @PatchMapping("/self")
-    public ResponseEntity<UserResponseDTO> patchUser(
-            @Valid @RequestBody UserUpdateDTO userUpdateDTO
-    ) {
-        logger.info("PATCH /v1/user/self - Updating user info");
-
-        return updateUser(userUpdateDTO);
-    }
-
     @GetMapping("/health")
     public ResponseEntity<String> healthCheck() {
         logger.debug("Health check requested");
         return ResponseEntity.ok("User API is running");
     }
+
+    // Liveness probe: a failure means restart the instance
+    @GetMapping("/health/live")
+    public ResponseEntity<String> livenessCheck() {
+        if (!lifecycleManager.isLive()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("User API is broken");
+        }
+        return ResponseEntity.ok("User API is live");
+    }
+
+    // Readiness probe: a failure means stop sending traffic (starting up, warming up or draining)
+    @GetMapping("/health/ready")
+    public ResponseEntity<String> readinessCheck() {
+        if (!lifecycleManager.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("User API is not accepting traffic");
+        }
+        return ResponseEntity.ok("User API is ready");
+    }
 }
 
 /*
@@ -106,7 +155,9 @@ POST /v1/user
 - No authentication required
 - Accepts: UserRequestDTO (JSON)
 - Returns: 201 Created + UserResponseDTO
-- Used to create new accountMethod 2: getUser()
+- Used to create new account
+- Optional Idempotency-Key header: a retry with the same key and body gets the first response back
+  (no second BCrypt hash or insert); same key with a different body → 422Method 2: getUser()
 GET /v1/user/self
 - Authentication required
 - Gets currently logged-in user's info
@@ -117,10 +168,15 @@ PUT /v1/user/self
 - Updates firstName, lastName, password
 - Returns: 200 OK + UserResponseDTOMethod 4: patchUser()
 PATCH /v1/user/self
-- Same as PUT (assignment allows both)
-- Just delegates to updateUser()Getting authenticated user:
+- Accepts: UserPatchDTO, every field optional
+- Password omitted (or the same one you logged in with) → no BCrypt hashing
+- Only changed columns are writtenGetting authenticated user:
 javaAuthentication authentication = SecurityContextHolder.getContext().getAuthentication();
 String email = authentication.getName();
 
 Gets email of logged-in user
-Spring Security stores this after authentication*/
\ No newline at end of file
+Spring Security stores this after authentication
+Probes:
+GET /v1/user/health/live - 200 while the app works, 503 if it is broken (restart it)
+GET /v1/user/health/ready - 200 only once warmed up and until shutdown starts, 503 otherwise
+GET /v1/user/health is unchanged*/
\ No newline at end of file
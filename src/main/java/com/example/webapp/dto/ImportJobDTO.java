@@ -0,0 +1,30 @@
+package com.example.webapp.dto;
+
+import com.example.webapp.model.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDTO {
+
+    private UUID id;
+    private ImportJobStatus status;
+    private String fileName;
+    private long rowsProcessed;
+    private long rowsImported;
+    private long rowsFailed;
+    // First webapp.import.max-reported-errors failures only; rowsFailed has the full count
+    private List<ImportRowErrorDTO> errors;
+    private boolean errorsTruncated;
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
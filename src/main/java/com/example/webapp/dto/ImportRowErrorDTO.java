@@ -0,0 +1,16 @@
+package com.example.webapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowErrorDTO {
+
+    // CSV record number, header = 1
+    private long row;
+    private String sku;
+    private String message;
+}
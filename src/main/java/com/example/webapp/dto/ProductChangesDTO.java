@@ -0,0 +1,20 @@
+package com.example.webapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangesDTO {
+
+    private List<ProductResponseDTO> changed;
+    private List<ProductTombstoneDTO> deleted;
+    // Pass back as ?since= on the next call
+    private String nextToken;
+    // More changes are already waiting; call again right away
+    private boolean hasMore;
+}
@@ -1,5 +1,6 @@
 package com.example.webapp.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,9 +19,13 @@ public class ProductResponseDTO {
     private String sku;
     private String manufacturer;
     private Integer quantity;
+    private Integer availableQuantity;
     private LocalDateTime dateAdded;
     private LocalDateTime dateLastUpdated;
     private UUID ownerUserId;
+
+    @JsonIgnore
+    private Long version;
 }
 
 
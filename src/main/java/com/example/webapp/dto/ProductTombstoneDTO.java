@@ -0,0 +1,17 @@
+package com.example.webapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductTombstoneDTO {
+
+    private UUID id;
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,16 @@
+package com.example.webapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelDTO {
+
+    private UUID productId;
+    private Integer availableQuantity;
+}
@@ -0,0 +1,28 @@
+package com.example.webapp.dto;
+
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPatchDTO {
+
+    // Every field is optional; null means "leave as is", but a value that is sent must not be blank
+    @Pattern(regexp = ".*\\S.*", message = "First name cannot be blank")
+    private String firstName;
+
+    @Pattern(regexp = ".*\\S.*", message = "Last name cannot be blank")
+    private String lastName;
+
+    @Pattern(regexp = ".*\\S.*", message = "Password cannot be blank")
+    private String password;
+}
+
+/*
+* **4. UserPatchDTO** (for partial updates - PATCH /v1/user/self)
+- Same fields as UserUpdateDTO, all optional
+- Omitted password → the stored hash is kept and BCrypt is not run at all
+- Only the columns that actually change are written*/
@@ -1,8 +1,12 @@
 package com.example.webapp.exception;
 
 import com.example.webapp.dto.ErrorResponseDTO;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -159,6 +163,246 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
     }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponseDTO> handlePreconditionFailed(
+            PreconditionFailedException ex,
+            WebRequest request
+    ) {
+        logger.error("Precondition failed: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.PRECONDITION_FAILED.value(),
+                HttpStatus.PRECONDITION_FAILED.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDTO> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException ex,
+            WebRequest request
+    ) {
+        logger.error("Concurrent modification detected: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.PRECONDITION_FAILED.value(),
+                HttpStatus.PRECONDITION_FAILED.getReasonPhrase(),
+                "The resource was modified by another request. Fetch it again and retry.",
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(PreconditionRequiredException.class)
+    public ResponseEntity<ErrorResponseDTO> handlePreconditionRequired(
+            PreconditionRequiredException ex,
+            WebRequest request
+    ) {
+        logger.error("Precondition required: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.PRECONDITION_REQUIRED.value(),
+                HttpStatus.PRECONDITION_REQUIRED.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_REQUIRED);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorResponseDTO> handleInsufficientStock(
+            InsufficientStockException ex,
+            WebRequest request
+    ) {
+        logger.error("Insufficient stock: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<ErrorResponseDTO> handleReservationNotFound(
+            ReservationNotFoundException ex,
+            WebRequest request
+    ) {
+        logger.error("Reservation not found: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.NOT_FOUND.value(),
+                HttpStatus.NOT_FOUND.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ReservationStateException.class)
+    public ResponseEntity<ErrorResponseDTO> handleReservationState(
+            ReservationStateException ex,
+            WebRequest request
+    ) {
+        logger.error("Reservation state conflict: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ErrorResponseDTO> handleIdempotencyKeyMismatch(
+            IdempotencyKeyMismatchException ex,
+            WebRequest request
+    ) {
+        logger.error("Idempotency key mismatch: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                HttpStatus.UNPROCESSABLE_ENTITY.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(IdempotencyKeyInUseException.class)
+    public ResponseEntity<ErrorResponseDTO> handleIdempotencyKeyInUse(
+            IdempotencyKeyInUseException ex,
+            WebRequest request
+    ) {
+        logger.error("Idempotency key in use: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(StreamCapacityException.class)
+    public ResponseEntity<ErrorResponseDTO> handleStreamCapacity(
+            StreamCapacityException ex,
+            WebRequest request
+    ) {
+        logger.error("Stream capacity reached: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(SyncTokenExpiredException.class)
+    public ResponseEntity<ErrorResponseDTO> handleSyncTokenExpired(
+            SyncTokenExpiredException ex,
+            WebRequest request
+    ) {
+        logger.error("Sync token expired: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.GONE.value(),
+                HttpStatus.GONE.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.GONE);
+    }
+
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<ErrorResponseDTO> handleImportJobNotFound(
+            ImportJobNotFoundException ex,
+            WebRequest request
+    ) {
+        logger.error("Import job not found: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.NOT_FOUND.value(),
+                HttpStatus.NOT_FOUND.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ImportCapacityException.class)
+    public ResponseEntity<ErrorResponseDTO> handleImportCapacity(
+            ImportCapacityException ex,
+            WebRequest request
+    ) {
+        logger.error("Import capacity reached: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler({
+            CannotCreateTransactionException.class,
+            CannotGetJdbcConnectionException.class,
+            InFlightLoadTimeoutException.class
+    })
+    public ResponseEntity<ErrorResponseDTO> handleConnectionUnavailable(
+            RuntimeException ex,
+            WebRequest request
+    ) {
+        logger.error("Database too slow to answer in time: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                "Server is busy, retry later",
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
 }
 
 /*
@@ -175,5 +419,19 @@ Three exception handlers for product-related errors:
 handleProductAlreadyExists() - Returns 400 when SKU already exists
 handleProductNotFound() - Returns 404 when product not found
 handleUnauthorizedAccess() - Returns 403 when user doesn't own product
+handlePreconditionFailed() / handleOptimisticLockingFailure() - Return 412 when If-Match is stale
+handlePreconditionRequired() - Returns 428 when If-Match is mandatory but missing
+handleInsufficientStock() - Returns 409 when a stock decrement would go below 0
+handleReservationNotFound() - Returns 404 for an unknown reservation
+handleReservationState() - Returns 409 when a reservation is no longer active (expired, confirmed, released)
+handleIdempotencyKeyMismatch() - Returns 422 when an Idempotency-Key is reused with a different body
+handleIdempotencyKeyInUse() - Returns 409 when the first request with that key is still running
+handleStreamCapacity() - Returns 503 when GET /v1/product/stream already has max-subscribers connections
+handleSyncTokenExpired() - Returns 410 when a GET /v1/product/changes token is older than the tombstone retention
+handleImportJobNotFound() - Returns 404 for an unknown (or already purged) CSV import job
+handleImportCapacity() - Returns 503 when webapp.import.max-queued-jobs imports are already waiting
+handleConnectionUnavailable() - Returns 503 with Retry-After when no pooled connection frees up within
+  spring.datasource.hikari.connection-timeout (the pool is the concurrency limit on virtual threads),
+  or when a coalesced product read waits longer than webapp.product.coalescing.max-wait-ms
 
 Now GlobalExceptionHandler can catch product exceptions too!*/
\ No newline at end of file
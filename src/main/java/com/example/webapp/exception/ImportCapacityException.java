@@ -0,0 +1,12 @@
+package com.example.webapp.exception;
+
+public class ImportCapacityException extends RuntimeException {
+
+    public ImportCapacityException(String message) {
+        super(message);
+    }
+
+    public ImportCapacityException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.webapp.exception;
+
+public class InFlightLoadTimeoutException extends RuntimeException {
+
+    public InFlightLoadTimeoutException(String message) {
+        super(message);
+    }
+
+    public InFlightLoadTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
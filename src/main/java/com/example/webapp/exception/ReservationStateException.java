@@ -0,0 +1,12 @@
+package com.example.webapp.exception;
+
+public class ReservationStateException extends RuntimeException {
+
+    public ReservationStateException(String message) {
+        super(message);
+    }
+
+    public ReservationStateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.webapp.exception;
+
+public class StreamCapacityException extends RuntimeException {
+
+    public StreamCapacityException(String message) {
+        super(message);
+    }
+
+    public StreamCapacityException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.webapp.model;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
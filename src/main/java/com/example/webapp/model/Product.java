@@ -8,21 +8,34 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_last_updated", columnList = "date_last_updated, id"),
+        @Index(name = "idx_products_owner_added", columnList = "owner_user_id, date_added"),
+        @Index(name = "idx_products_date_added", columnList = "date_added"),
+        @Index(name = "idx_products_manufacturer", columnList = "manufacturer")
+})
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
 
+    // UUIDv7 in BINARY(16): time-ordered, so inserts append to the primary key index
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
     private UUID id;
 
     @NotBlank(message = "Product name is required")
@@ -45,6 +58,11 @@ public class Product {
     @Column(nullable = false)
     private Integer quantity;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(name = "reserved_quantity", nullable = false)
+    private Integer reservedQuantity = 0;
+
     @CreationTimestamp
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     @Column(name = "date_added", nullable = false, updatable = false)
@@ -59,6 +77,11 @@ public class Product {
     @JoinColumn(name = "owner_user_id", nullable = false)
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private User owner;
+
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false)
+    private Long version;
 }
 
 /*
@@ -71,7 +94,7 @@ public class Product {
 
 **Fields:**
 
-1. **id** - Auto-generated UUID (primary key)
+1. **id** - Auto-generated UUIDv7 (primary key, BINARY(16), increases with creation time)
 2. **name** - Product name (required)
 3. **description** - Product description (optional, up to 1000 characters)
 4. **sku** - Stock Keeping Unit (required, unique)
@@ -80,6 +103,14 @@ public class Product {
 7. **dateAdded** - When product was created (auto-generated)
 8. **dateLastUpdated** - When product was last modified (auto-updated)
 9. **owner** - User who created the product (relationship)
+10. **reservedQuantity** - Units held by active reservations (available = quantity - reservedQuantity)
+11. **version** - Optimistic lock counter, bumped by Hibernate on every update (exposed as ETag)
+
+`idx_products_last_updated` - (date_last_updated, id), serves GET /v1/product/changes without a scan
+`idx_products_owner_added` / `idx_products_date_added` / `idx_products_manufacturer` - read paths (db/migration/V2)
+The schema itself is owned by the Flyway scripts in db/migration; @Index here only documents it
+
+`@DynamicUpdate` - UPDATE statements list only the columns that changed (plus version and date_last_updated)
 
 **Important validations:**
 
@@ -101,7 +132,7 @@ Used to check: "Does this user own this product?"
 
 Database table that will be created:
 sqlCREATE TABLE products (
-    id VARCHAR(36) PRIMARY KEY,
+    id BINARY(16) PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     description VARCHAR(1000),
     sku VARCHAR(255) UNIQUE NOT NULL,
@@ -109,6 +140,6 @@ sqlCREATE TABLE products (
     quantity INT NOT NULL,
     date_added DATETIME NOT NULL,
     date_last_updated DATETIME NOT NULL,
-    owner_user_id VARCHAR(36) NOT NULL,
+    owner_user_id BINARY(16) NOT NULL,
     FOREIGN KEY (owner_user_id) REFERENCES users(id)
 );*/
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.webapp.model;
+
+public enum ProductEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,56 @@
+package com.example.webapp.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "product_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductOutboxEvent {
+
+    // Auto-increment so the relay can drain in roughly commit order with an index-only scan
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "product_id", nullable = false, updatable = false, length = 16)
+    private UUID productId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "event_type", nullable = false, updatable = false, length = 16)
+    private ProductEventType eventType;
+
+    @Column(name = "product_version", updatable = false)
+    private Long productVersion;
+
+    // Product as the API returns it after the change; null for deletes
+    @Column(length = 4000, updatable = false)
+    private String payload;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
+
+/*
+Explanation of ProductOutboxEvent:
+
+One row per product create / update / delete, inserted in the SAME transaction as the change
+itself. Either both commit or neither does, so the change log can never miss or invent a change.
+
+ProductOutboxRelay copies the rows to the on-disk change journal in the background and deletes
+them once the journal is fsynced. The table only holds what has not been relayed yet, so it
+stays small.
+*/
@@ -0,0 +1,45 @@
+package com.example.webapp.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "product_tombstones", indexes = {
+        @Index(name = "idx_tombstone_deleted_at", columnList = "deleted_at, product_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductTombstone {
+
+    // Keyed by the deleted product, so there is never more than one tombstone per id
+    @Id
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "product_id", length = 16)
+    private UUID productId;
+
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "owner_user_id", nullable = false, updatable = false, length = 16)
+    private UUID ownerUserId;
+
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+}
+
+/*
+Explanation of ProductTombstone:
+
+deleteProduct() removes the product row, so on its own a delete leaves nothing for
+GET /v1/product/changes to report. The tombstone is inserted in the same transaction and
+tells syncing clients "this id is gone".
+
+Tombstones are kept for webapp.sync.tombstone-retention-hours, then purged. A client whose
+sync token is older than that may have missed a delete and gets 410 (full resync).
+*/
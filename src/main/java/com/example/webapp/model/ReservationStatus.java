@@ -0,0 +1,8 @@
+package com.example.webapp.model;
+
+public enum ReservationStatus {
+    ACTIVE,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
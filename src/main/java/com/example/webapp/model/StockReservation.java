@@ -0,0 +1,67 @@
+package com.example.webapp.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_reservation_status_expires", columnList = "status, expires_at"),
+        @Index(name = "idx_reservation_product", columnList = "product_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
+    private UUID id;
+
+    // Plain column rather than @ManyToOne: the reservation paths never need the product row
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "product_id", nullable = false, updatable = false, length = 16)
+    private UUID productId;
+
+    @Column(name = "holder_email", nullable = false, updatable = false)
+    private String holderEmail;
+
+    @Column(nullable = false, updatable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private ReservationStatus status;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
+
+/*
+Explanation of StockReservation:
+
+A time-bounded hold on part of a product's stock (checkout flows).
+
+- ACTIVE: units are counted in products.reserved_quantity, nobody else can buy them
+- CONFIRMED: units left stock for good (quantity and reserved_quantity both drop)
+- RELEASED / EXPIRED: units went back to the available pool
+
+Status changes are single conditional UPDATEs (WHERE status = 'ACTIVE'), so two requests
+racing on the same reservation cannot both confirm or both release it.
+
+The (status, expires_at) index lets the expiry sweep find due holds without a table scan.
+*/
@@ -8,20 +8,27 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
+    // UUIDv7 in BINARY(16): time-ordered, so inserts append to the primary key index
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
     private UUID id;
 
     @NotBlank(message = "Email is required")
@@ -65,9 +72,10 @@ Important annotations:
 
 @Entity - Tells Spring this is a database table
 @Table(name = "users") - Table name in MySQL
+@DynamicUpdate - UPDATE only lists the columns that changed (a name change does not rewrite the password hash)
 @Data - Lombok generates getters/setters automatically
 @Id - Primary key
-@GeneratedValue - Auto-generate UUID
+@TimeOrderedId - Auto-generate a time-ordered UUID (v7), stored as BINARY(16)
 @Column(unique = true) - Email must be unique
 @JsonProperty(access = WRITE_ONLY) - Password never returned in responses
 @JsonProperty(access = READ_ONLY) - Timestamps cannot be set by users
@@ -76,7 +84,7 @@ Important annotations:
 
 What database table will be created?
 sqlCREATE TABLE users (
-    id VARCHAR(36) PRIMARY KEY,
+    id BINARY(16) PRIMARY KEY,
     email VARCHAR(255) UNIQUE NOT NULL,
     password VARCHAR(255) NOT NULL,
     first_name VARCHAR(255) NOT NULL,
@@ -0,0 +1,14 @@
+package com.example.webapp.repository;
+
+import com.example.webapp.model.ProductOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductOutboxRepository extends JpaRepository<ProductOutboxEvent, Long> {
+
+    List<ProductOutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+}
@@ -2,11 +2,19 @@ package com.example.webapp.repository;
 
 import com.example.webapp.model.Product;
 import com.example.webapp.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -16,11 +24,98 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
 
     boolean existsBySku(String sku);
 
+    @Query("select p.sku from Product p where p.sku in :skus")
+    Set<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
     List<Product> findByOwner(User owner);
 
-    List<Product> findByOwnerEmail(String email);
+    List<Product> findByOwnerId(UUID ownerId);
 
     long countByOwner(User owner);
+
+    boolean existsByIdAndOwnerId(UUID id, UUID ownerId);
+
+    @Query("select p from Product p " +
+            "where (p.dateLastUpdated > :after or (p.dateLastUpdated = :after and p.id > :afterId)) " +
+            "and p.dateLastUpdated <= :upTo order by p.dateLastUpdated, p.id")
+    List<Product> findChangedAfter(@Param("after") LocalDateTime after,
+                                   @Param("afterId") UUID afterId,
+                                   @Param("upTo") LocalDateTime upTo,
+                                   Pageable pageable);
+
+    @Query("select p.quantity from Product p where p.id = :id")
+    Optional<Integer> findQuantityById(@Param("id") UUID id);
+
+    @Query("select p.quantity - p.reservedQuantity from Product p where p.id = :id")
+    Optional<Integer> findAvailableQuantityById(@Param("id") UUID id);
+
+    @Query("select p.sku from Product p where p.id = :id")
+    Optional<String> findSkuById(@Param("id") UUID id);
+
+    @Query("select p.sku as sku, p.version as version from Product p where p.id = :id and p.owner.id = :ownerId")
+    Optional<OwnedProductKey> findOwnedProductKey(@Param("id") UUID id, @Param("ownerId") UUID ownerId);
+
+    @Transactional
+    @Modifying
+    @Query("update Product p set p.name = :name, p.description = :description, p.sku = :sku, " +
+            "p.manufacturer = :manufacturer, p.quantity = :quantity, p.version = p.version + 1, " +
+            "p.dateLastUpdated = :now " +
+            "where p.id = :id and p.owner.id = :ownerId " +
+            "and (:expectedVersion < 0 or p.version = :expectedVersion) " +
+            "and p.reservedQuantity <= :quantity " +
+            "and (p.name <> :name or p.sku <> :sku or p.manufacturer <> :manufacturer or p.quantity <> :quantity " +
+            "or coalesce(p.description, '') <> :descriptionOrEmpty " +
+            "or (p.description is null and :descriptionIsNull = false) " +
+            "or (p.description is not null and :descriptionIsNull = true))")
+    int updateOwnedProduct(@Param("id") UUID id,
+                           @Param("ownerId") UUID ownerId,
+                           @Param("expectedVersion") long expectedVersion,
+                           @Param("name") String name,
+                           @Param("description") String description,
+                           @Param("descriptionOrEmpty") String descriptionOrEmpty,
+                           @Param("descriptionIsNull") boolean descriptionIsNull,
+                           @Param("sku") String sku,
+                           @Param("manufacturer") String manufacturer,
+                           @Param("quantity") int quantity,
+                           @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Product p where p.id = :id and p.owner.id = :ownerId and p.version = :version")
+    int deleteOwnedProduct(@Param("id") UUID id, @Param("ownerId") UUID ownerId, @Param("version") long version);
+
+    // The stock UPDATEs that bump the version clear the persistence context, so
+    // ProductOutbox.recordStockChange reads the row they wrote rather than a stale entity
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.quantity = p.quantity + :delta, p.version = p.version + 1, " +
+            "p.dateLastUpdated = :now where p.id = :id and p.quantity - p.reservedQuantity + :delta >= 0")
+    int adjustQuantity(@Param("id") UUID id, @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.quantity = p.quantity + :delta, p.version = p.version + 1, " +
+            "p.dateLastUpdated = :now where p.id = :id")
+    int applyQuantityDelta(@Param("id") UUID id, @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Product p set p.reservedQuantity = p.reservedQuantity + :units " +
+            "where p.id = :id and p.quantity - p.reservedQuantity >= :units")
+    int reserveQuantity(@Param("id") UUID id, @Param("units") int units);
+
+    @Modifying
+    @Query("update Product p set p.reservedQuantity = p.reservedQuantity + :units where p.id = :id")
+    int addReservedQuantity(@Param("id") UUID id, @Param("units") int units);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.quantity = p.quantity - :units, p.reservedQuantity = p.reservedQuantity - :units, " +
+            "p.version = p.version + 1, p.dateLastUpdated = :now where p.id = :id")
+    int commitReservedQuantity(@Param("id") UUID id, @Param("units") int units, @Param("now") LocalDateTime now);
+
+    interface OwnedProductKey {
+        String getSku();
+
+        Long getVersion();
+    }
 }
 
 /*
@@ -45,6 +140,13 @@ Returns true/false
 
 
 
+findExistingSkus(Collection<String> skus)
+
+Which of these SKUs are taken, in one query (CSV import checks a whole chunk at once)
+SQL: SELECT sku FROM products WHERE sku IN (?, ?, ...)
+
+
+
 findByOwner(User owner)
 
 Gets all products by a specific user
@@ -52,11 +154,11 @@ SQL: SELECT * FROM products WHERE owner_user_id = ?
 
 
 
-findByOwnerEmail(String email)
+findByOwnerId(UUID ownerId)
 
-Gets all products by owner's email
-SQL: SELECT p.* FROM products p JOIN users u ON p.owner_user_id = u.id WHERE u.email = ?
-Spring automatically joins tables!
+Gets all products of one owner straight from the foreign key (no join to users)
+SQL: SELECT * FROM products WHERE owner_user_id = ?
+Served by idx_products_owner_added
 
 
 
@@ -66,6 +168,51 @@ Counts how many products a user has
 SQL: SELECT COUNT(*) FROM products WHERE owner_user_id = ?
 
 
+findChangedAfter(LocalDateTime after, UUID afterId, LocalDateTime upTo, Pageable page)
+
+Keyset page for GET /v1/product/changes: rows past the (date_last_updated, id) cursor
+SQL: ... WHERE (date_last_updated > ? OR (date_last_updated = ? AND id > ?)) AND date_last_updated <= ?
+     ORDER BY date_last_updated, id LIMIT ?
+Served by idx_products_last_updated, so cost follows the page size, not the catalog size
+
+
+
+adjustQuantity(UUID id, int delta, LocalDateTime now)
+
+Conditional stock change in one statement (no read-modify-write)
+SQL: UPDATE products SET quantity = quantity + ? ... WHERE id = ? AND quantity - reserved_quantity + ? >= 0
+Returns 0 when the product is missing or the decrement would oversell (reserved units are not for sale)
+
+
+
+applyQuantityDelta(UUID id, int delta, LocalDateTime now)
+
+Unconditional version used by the write-behind flush for hot SKUs
+(the in-memory counter already guaranteed the delta cannot oversell)
+
+
+reserveQuantity / addReservedQuantity / commitReservedQuantity
+
+Reservation bookkeeping, each a single-row UPDATE (row lock only, never a table lock)
+reserveQuantity only succeeds while enough unreserved stock is left
+
+
+updateOwnedProduct(...)
+
+PUT in one statement, ownership and If-Match included:
+SQL: UPDATE products SET name = ?, ... , version = version + 1
+     WHERE id = ? AND owner_user_id = ? AND (version check) AND reserved_quantity <= ? AND (something differs)
+Returns 0 when the product is missing, someone else's, stale, below its reservations or unchanged;
+only then does the service load the row to find out which
+
+
+findOwnedProductKey(UUID id, UUID ownerId) / deleteOwnedProduct(UUID id, UUID ownerId, long version)
+
+DELETE without hydrating the entity or its owner. The read returns just the SKU and version
+(MySQL has no DELETE ... RETURNING) and only for the owner; the DELETE repeats the ownership
+and version condition so a concurrent change makes it match nothing
+
+
 Inherited methods (FREE):
 
 save(Product product) - Insert or update
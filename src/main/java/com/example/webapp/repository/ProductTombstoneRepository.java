@@ -0,0 +1,40 @@
+package com.example.webapp.repository;
+
+import com.example.webapp.model.ProductTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, UUID> {
+
+    @Query("select t from ProductTombstone t " +
+            "where (t.deletedAt > :after or (t.deletedAt = :after and t.productId > :afterId)) " +
+            "and t.deletedAt <= :upTo order by t.deletedAt, t.productId")
+    List<ProductTombstone> findDeletedAfter(@Param("after") LocalDateTime after,
+                                            @Param("afterId") UUID afterId,
+                                            @Param("upTo") LocalDateTime upTo,
+                                            Pageable pageable);
+
+    @Modifying
+    @Query("delete from ProductTombstone t where t.deletedAt < :cutoff")
+    int deleteByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
+
+/*
+Explanation of ProductTombstoneRepository:
+
+findDeletedAfter
+- Keyset page over (deleted_at, product_id), served by idx_tombstone_deleted_at
+- Same shape as ProductRepository.findChangedAfter so the two can be merged into one feed
+
+deleteByDeletedAtBefore
+- Retention purge, one DELETE per run
+*/
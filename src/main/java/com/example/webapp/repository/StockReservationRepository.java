@@ -0,0 +1,50 @@
+package com.example.webapp.repository;
+
+import com.example.webapp.model.ReservationStatus;
+import com.example.webapp.model.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+
+    @Modifying
+    @Query("update StockReservation r set r.status = com.example.webapp.model.ReservationStatus.CONFIRMED " +
+            "where r.id = :id and r.status = com.example.webapp.model.ReservationStatus.ACTIVE and r.expiresAt > :now")
+    int confirmIfActive(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update StockReservation r set r.status = com.example.webapp.model.ReservationStatus.RELEASED " +
+            "where r.id = :id and r.status = com.example.webapp.model.ReservationStatus.ACTIVE")
+    int releaseIfActive(@Param("id") UUID id);
+
+    @Modifying
+    @Query("update StockReservation r set r.status = com.example.webapp.model.ReservationStatus.EXPIRED " +
+            "where r.id = :id and r.status = com.example.webapp.model.ReservationStatus.ACTIVE and r.expiresAt <= :now")
+    int expireIfDue(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    @Query("select r.id from StockReservation r where r.status = :status and r.expiresAt <= :now order by r.expiresAt")
+    List<UUID> findIdsByStatusAndExpiresAtBefore(@Param("status") ReservationStatus status,
+                                                 @Param("now") LocalDateTime now,
+                                                 Pageable pageable);
+}
+
+/*
+Explanation of StockReservationRepository:
+
+confirmIfActive / releaseIfActive / expireIfDue
+- Compare-and-set on the status column: returns 1 for the request that wins, 0 for everyone else
+- confirm refuses holds that are past expires_at even if the sweeper has not reached them yet
+
+findIdsByStatusAndExpiresAtBefore
+- Backstop for the in-memory expiry wheel (e.g. after a restart)
+- Served by the (status, expires_at) index, bounded by the page size
+*/
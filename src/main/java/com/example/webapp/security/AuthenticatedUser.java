@@ -0,0 +1,27 @@
+package com.example.webapp.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * The principal of an authenticated request. Besides the email (username) it carries the
+ * user's id, read together with the password hash during authentication, so controllers
+ * can hand services the id without looking the user up a second time.
+ */
+public class AuthenticatedUser extends User {
+
+    private final UUID id;
+
+    public AuthenticatedUser(UUID id, String email, String password,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, true, true, true, true, authorities);
+        this.id = id;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
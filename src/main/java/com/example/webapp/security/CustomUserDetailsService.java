@@ -4,9 +4,9 @@ import com.example.webapp.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
@@ -23,6 +24,10 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    // Accounts that may read /actuator/metrics; signup is open, so nobody else may
+    @Value("${webapp.security.admin-emails:}")
+    private Set<String> adminEmails;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         logger.debug("Loading user by username (email): {}", username);
@@ -37,16 +42,16 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         List<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+        if (adminEmails.contains(user.getEmail())) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+        }
 
         logger.debug("Authorities assigned: {}", authorities);
 
-        UserDetails userDetails = new User(
+        UserDetails userDetails = new AuthenticatedUser(
+                user.getId(),
                 user.getEmail(),
                 user.getPassword(),
-                true,
-                true,
-                true,
-                true,
                 authorities
         );
 
@@ -69,8 +74,10 @@ How authentication works:1. User sends request with email:password
 7. If no match → 401 Unauthorized ❌loadUserByUsername() method:
 Step 1: Find user by email in database
 Step 2: If not found → throw UsernameNotFoundException
-Step 3: Create authorities (roles) - we use "ROLE_USER"
-Step 4: Create UserDetails object with user info
+Step 3: Create authorities (roles) - we use "ROLE_USER", plus "ROLE_ADMIN" for the
+        emails listed in webapp.security.admin-emails
+Step 4: Create UserDetails object with user info (AuthenticatedUser, which also
+        carries the user id so later code doesn't look the user up again)
 Step 5: Return UserDetails to Spring SecurityImportant notes:
 username parameter = email (we use email as username)
 User constructor parameters:
@@ -81,11 +88,12 @@ enabled (true)
 accountNonExpired (true)
 credentialsNonExpired (true)
 accountNonLocked (true)
-authorities (ROLE_USER)
+authorities (ROLE_USER, and ROLE_ADMIN for admin emails)
 
 
 WARNING: There are TWO User classes:
 
 com.example.webapp.model.User - OUR user entity
 org.springframework.security.core.userdetails.User - Spring Security's User
-We use Spring Security's User in the constructor.*/
\ No newline at end of file
+AuthenticatedUser extends Spring Security's User.
+Controllers get it with @AuthenticationPrincipal AuthenticatedUser user.*/
\ No newline at end of file
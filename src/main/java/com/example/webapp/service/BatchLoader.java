@@ -0,0 +1,108 @@
+package com.example.webapp.service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Merges concurrent single-key loads into one batch load (DataLoader style). The first caller
+ * of a batch waits up to windowMillis for others to add their keys, or until maxBatchSize keys
+ * are in, then runs the batch load on its own thread and hands every caller its value.
+ * A key the batch load returns nothing for comes back as null.
+ */
+final class BatchLoader<K, V> {
+
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long maxWaitMillis;
+    private final Function<Collection<K>, Map<K, V>> batchLoad;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Batch<K, V> open;
+
+    BatchLoader(long windowMillis, int maxBatchSize, long maxWaitMillis, Function<Collection<K>, Map<K, V>> batchLoad) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitMillis = maxWaitMillis;
+        this.batchLoad = batchLoad;
+    }
+
+    V load(K key) {
+        Batch<K, V> batch;
+        CompletableFuture<V> result;
+        boolean leader = false;
+
+        lock.lock();
+        try {
+            if (open == null) {
+                open = new Batch<>(lock.newCondition());
+                leader = true;
+            }
+            batch = open;
+            result = batch.entries.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (batch.entries.size() >= maxBatchSize) {
+                seal(batch);
+            }
+
+            if (leader) {
+                awaitWindow(batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            dispatch(batch);
+        }
+        return SingleFlight.await(key, result, maxWaitMillis);
+    }
+
+    // Called with the lock held, by the batch's first caller only
+    private void awaitWindow(Batch<K, V> batch) {
+        long remaining = windowNanos;
+        try {
+            while (!batch.sealed && remaining > 0) {
+                remaining = batch.full.awaitNanos(remaining);
+            }
+        } catch (InterruptedException ex) {
+            // Dispatch anyway, so the callers that joined are not stranded
+            Thread.currentThread().interrupt();
+        }
+        seal(batch);
+    }
+
+    // Called with the lock held
+    private void seal(Batch<K, V> batch) {
+        if (open == batch) {
+            open = null;
+        }
+        batch.sealed = true;
+        batch.full.signal();
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        try {
+            Map<K, V> values = batchLoad.apply(List.copyOf(batch.entries.keySet()));
+            batch.entries.forEach((key, future) -> future.complete(values.get(key)));
+        } catch (RuntimeException | Error ex) {
+            batch.entries.values().forEach(future -> future.completeExceptionally(ex));
+        }
+    }
+
+    private static final class Batch<K, V> {
+
+        private final Map<K, CompletableFuture<V>> entries = new LinkedHashMap<>();
+        private final Condition full;
+        private boolean sealed;
+
+        private Batch(Condition full) {
+            this.full = full;
+        }
+    }
+}
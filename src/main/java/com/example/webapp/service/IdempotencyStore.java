@@ -0,0 +1,192 @@
+package com.example.webapp.service;
+
+import com.example.webapp.exception.IdempotencyKeyInUseException;
+import com.example.webapp.exception.IdempotencyKeyMismatchException;
+import com.example.webapp.exception.InvalidRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * In-memory store for the Idempotency-Key header on create endpoints. The first request with
+ * a key runs; later requests with the same key and body get the stored response back without
+ * running the action again. Duplicates that arrive while the first one is still running wait
+ * for its result instead of racing it.
+ *
+ * Only successful responses are kept. A request that fails frees its key, so the client can
+ * retry it. Entries live for the configured TTL, and the oldest are dropped once the store
+ * holds max-entries keys.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long waitTimeoutMillis;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Insertion order; with a single TTL this is also expiry order, so eviction only looks at the head
+    private final ConcurrentLinkedQueue<Slot> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public IdempotencyStore(
+            ObjectMapper objectMapper,
+            @Value("${webapp.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${webapp.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${webapp.idempotency.wait-timeout-ms:10000}") long waitTimeoutMillis
+    ) {
+        this.objectMapper = objectMapper;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    /**
+     * Runs the action once per (operation, scope, key). Without a key the action just runs.
+     *
+     * @param operation   the endpoint, e.g. "POST /v1/product"
+     * @param scope       who the key belongs to, so two callers cannot replay each other's responses
+     * @param key         the Idempotency-Key header, may be null
+     * @param requestBody the request DTO; a reused key with a different body is rejected
+     */
+    public <T> ResponseEntity<T> execute(String operation, String scope, String key, Object requestBody,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException(IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String storeKey = operation + " " + scope + " " + key;
+        String fingerprint = fingerprint(requestBody);
+        long now = System.currentTimeMillis();
+        Entry claim = new Entry(fingerprint, now + ttlMillis);
+
+        Entry existing;
+        while ((existing = entries.putIfAbsent(storeKey, claim)) != null) {
+            if (existing.expiresAt > now) {
+                return replay(existing, fingerprint, key);
+            }
+            entries.remove(storeKey, existing);
+        }
+
+        order.add(new Slot(storeKey, claim));
+        queued.incrementAndGet();
+        evict(now);
+
+        try {
+            ResponseEntity<T> response = action.get();
+            claim.response.complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            entries.remove(storeKey, claim);
+            claim.response.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${webapp.idempotency.sweep-interval-ms:60000}")
+    public void purgeExpired() {
+        int before = entries.size();
+        evict(System.currentTimeMillis());
+        int purged = before - entries.size();
+        if (purged > 0) {
+            logger.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(Entry existing, String fingerprint, String key) {
+        if (!existing.fingerprint.equals(fingerprint)) {
+            logger.error("Idempotency key {} reused with a different request body", key);
+            throw new IdempotencyKeyMismatchException("Idempotency key " + key + " was already used with a different request");
+        }
+
+        ResponseEntity<?> stored;
+        try {
+            stored = existing.response.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new IdempotencyKeyInUseException("A request with idempotency key " + key + " is still being processed");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInUseException("A request with idempotency key " + key + " is still being processed");
+        } catch (ExecutionException ex) {
+            // The original attempt failed; the waiter gets the same outcome, and the key is free again
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+
+        logger.info("Replaying stored response for idempotency key {}", key);
+
+        return (ResponseEntity<T>) ResponseEntity.status(stored.getStatusCode())
+                .headers(stored.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.getBody());
+    }
+
+    private void evict(long now) {
+        Slot head;
+        while ((head = order.peek()) != null) {
+            if (head.entry.expiresAt > now && queued.get() <= maxEntries) {
+                return;
+            }
+            Slot polled = order.poll();
+            if (polled == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            entries.remove(polled.key, polled.entry);
+        }
+    }
+
+    // The body is hashed rather than kept, so user passwords are not held in memory for the TTL
+    private String fingerprint(Object requestBody) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(requestBody)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not fingerprint request body", ex);
+        }
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final long expiresAt;
+        final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private record Slot(String key, Entry entry) {
+    }
+}
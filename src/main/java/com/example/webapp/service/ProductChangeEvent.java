@@ -0,0 +1,15 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.ProductResponseDTO;
+import com.example.webapp.model.ProductEventType;
+
+import java.util.UUID;
+
+/**
+ * Published by ProductServiceImpl for every product create, update and delete, and by
+ * ProductOutbox.recordStockChange for stock changes. Listeners that must only see committed
+ * changes use @TransactionalEventListener. product is null for deletes.
+ */
+public record ProductChangeEvent(ProductEventType type, UUID productId, UUID ownerId, String sku,
+                                 ProductResponseDTO product) {
+}
@@ -0,0 +1,201 @@
+package com.example.webapp.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, segmented change log. The active segment is a preallocated file mapped into
+ * memory, so an append is a couple of buffer puts and no system call; {@link #force()} is
+ * the only point that waits on the disk.
+ *
+ * Record layout: int length, int CRC32 of the body, body bytes. The mapped file is zero
+ * filled, so a zero length marks the end of a segment, and a record with a bad checksum
+ * (torn by a crash mid-append) ends it as well.
+ *
+ * Not thread safe; {@link ProductOutboxRelay} is the only writer.
+ */
+final class ProductChangeJournal {
+
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private long activeSequence;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private boolean dirty;
+
+    ProductChangeJournal(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+
+        // Always start a fresh segment; the tail of the previous one may hold a torn record
+        List<Path> existing = segments(directory);
+        activeSequence = existing.isEmpty() ? 1 : sequenceOf(existing.get(existing.size() - 1)) + 1;
+        openSegment();
+    }
+
+    void append(byte[] body) throws IOException {
+        int needed = HEADER_BYTES + body.length;
+        if (needed > segmentBytes) {
+            throw new IOException("Journal record of " + body.length + " bytes does not fit a segment");
+        }
+        if (buffer.remaining() < needed) {
+            roll();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        buffer.putInt(body.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(body);
+        dirty = true;
+    }
+
+    /**
+     * Flushes everything appended so far to the storage device.
+     */
+    void force() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * Segments that are no longer written to, oldest first.
+     */
+    List<Path> sealedSegments() throws IOException {
+        List<Path> sealed = segments(directory);
+        sealed.removeIf(segment -> sequenceOf(segment) >= activeSequence);
+        return sealed;
+    }
+
+    /**
+     * Rewrites the sealed segments into one that keeps only the newest record per key. The
+     * result takes the name of the newest sealed segment, so ordering against the active
+     * segment is unchanged. A crash part way leaves older segments behind, which only means
+     * some superseded records survive until the next compaction.
+     *
+     * @return how many records were dropped
+     */
+    int compact(Function<byte[], Object> keyOf) throws IOException {
+        List<Path> sealed = sealedSegments();
+        if (sealed.size() < 2) {
+            return 0;
+        }
+
+        int total = 0;
+        Map<Object, byte[]> latest = new LinkedHashMap<>();
+        for (Path segment : sealed) {
+            for (byte[] body : read(segment)) {
+                Object key = keyOf.apply(body);
+                // Re-insert so the map keeps the order of each key's last change
+                latest.remove(key);
+                latest.put(key, body);
+                total++;
+            }
+        }
+
+        Path target = sealed.get(sealed.size() - 1);
+        Path temp = directory.resolve(target.getFileName() + ".compacting");
+        try (FileChannel out = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (byte[] body : latest.values()) {
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + body.length);
+                record.putInt(body.length).putInt((int) crc.getValue()).put(body).flip();
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+            }
+            out.force(true);
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        for (Path segment : sealed.subList(0, sealed.size() - 1)) {
+            Files.deleteIfExists(segment);
+        }
+
+        return total - latest.size();
+    }
+
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private void roll() throws IOException {
+        close();
+        activeSequence++;
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        Path file = directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, activeSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        dirty = false;
+    }
+
+    static List<byte[]> read(Path segment) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            while (data.remaining() >= HEADER_BYTES) {
+                int length = data.getInt();
+                int checksum = data.getInt();
+                if (length <= 0 || length > data.remaining()) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                data.get(body);
+
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                records.add(body);
+            }
+        }
+        return records;
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(Comparator.comparingLong(ProductChangeJournal::sequenceOf));
+        return segments;
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.webapp.service;
+
+import com.example.webapp.exception.StreamCapacityException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events feed of committed product changes (GET /v1/product/stream).
+ *
+ * Connections are servlet async requests, so an idle subscriber holds a socket and a small
+ * queue but no thread. Events are fanned out into per-subscriber bounded queues, and a small
+ * shared pool writes them out; only subscribers with something to send occupy a sender thread.
+ *
+ * The last replay-size events are kept in a ring so a client reconnecting with Last-Event-ID
+ * gets what it missed. If it fell further behind than the ring, it is sent a "reset" event
+ * and should reload the product list. Ids start from the process start time, so an id from
+ * before a restart is lower than every id of this process and also gets a reset, never a
+ * silent gap.
+ *
+ * On shutdown every open stream is ended before the web server's graceful shutdown starts
+ * waiting for active requests, which a stream never stops being on its own.
+ */
+@Component
+public class ProductChangeStream implements SmartLifecycle {
+
+    public enum OverflowPolicy {
+        /** Drop the oldest queued event; the subscriber sees a gap in the ids. */
+        DROP_OLDEST,
+        /** Close the connection; the client reconnects with Last-Event-ID and replays from the ring. */
+        DISCONNECT
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeStream.class);
+
+    private static final Entry HEARTBEAT = new Entry(-1, null, null, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final OverflowPolicy overflowPolicy;
+
+    // A lock rather than a monitor: publish runs on request threads, and a virtual thread
+    // blocked entering a monitor holds on to its carrier
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final Entry[] ring;
+    private final long firstEventId;
+    private long lastEventId;
+    private volatile boolean running;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders;
+
+    public ProductChangeStream(
+            ObjectMapper objectMapper,
+            @Value("${webapp.stream.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${webapp.stream.queue-capacity:256}") int queueCapacity,
+            @Value("${webapp.stream.replay-size:1024}") int replaySize,
+            @Value("${webapp.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${webapp.stream.overflow-policy:DISCONNECT}") OverflowPolicy overflowPolicy,
+            @Value("${webapp.stream.sender-threads:4}") int senderThreads
+    ) {
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeoutMillis;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.ring = new Entry[Math.max(1, replaySize)];
+        // An earlier process's ids stay below these unless it averaged over 1000 events per ms
+        this.lastEventId = System.currentTimeMillis() * 1000;
+        this.firstEventId = lastEventId + 1;
+        this.maxSubscribers = maxSubscribers;
+        this.overflowPolicy = overflowPolicy;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "product-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a stream, optionally limited to one owner and/or SKU, resuming after lastEventId.
+     */
+    public SseEmitter subscribe(UUID ownerId, String sku, Long lastEventIdHeader) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            logger.error("Rejecting product stream subscriber, already {} connected", maxSubscribers);
+            throw new StreamCapacityException("Too many product stream subscribers, retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, ownerId, sku, queueCapacity);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        // Replay and registration under the publish lock: nothing is missed or sent twice in between
+        publishLock.lock();
+        try {
+            if (!running) {
+                subscriberCount.decrementAndGet();
+                throw new StreamCapacityException("Shutting down, reconnect to another instance");
+            }
+            if (lastEventIdHeader != null) {
+                replay(subscriber, lastEventIdHeader);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            publishLock.unlock();
+        }
+
+        logger.info("Product stream subscriber connected (owner={}, sku={}, resume after={})",
+                ownerId, sku, lastEventIdHeader);
+
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChange(ProductChangeEvent event) {
+        String data;
+        try {
+            ObjectNode body = objectMapper.createObjectNode();
+            body.put("type", event.type().name());
+            body.put("productId", event.productId().toString());
+            body.set("product", objectMapper.valueToTree(event.product()));
+            data = objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            logger.error("Could not serialize product change {}: {}", event.productId(), ex.getMessage());
+            return;
+        }
+
+        List<Subscriber> notified = new ArrayList<>();
+        publishLock.lock();
+        try {
+            Entry entry = new Entry(++lastEventId, event.type().name().toLowerCase(Locale.ROOT),
+                    event.ownerId(), event.sku(), data);
+            ring[(int) (entry.id % ring.length)] = entry;
+
+            // Offers never block, so a slow subscriber cannot hold up the lock or the committing thread
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.matches(entry)) {
+                    enqueue(subscriber, entry);
+                    notified.add(subscriber);
+                }
+            }
+        } finally {
+            publishLock.unlock();
+        }
+
+        notified.forEach(this::scheduleDrain);
+    }
+
+    /**
+     * Comment line to every subscriber, so proxies keep idle connections open and dead
+     * clients are noticed on the failed write.
+     */
+    @Scheduled(fixedDelayString = "${webapp.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.offer(HEARTBEAT)) {
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Ends every open stream; clients reconnect with Last-Event-ID, to another instance by then.
+     * Under the publish lock so no subscriber can register behind it.
+     */
+    @Override
+    public void stop() {
+        int closed = 0;
+        publishLock.lock();
+        try {
+            running = false;
+            for (Subscriber subscriber : subscribers) {
+                remove(subscriber);
+                subscriber.emitter.complete();
+                closed++;
+            }
+        } finally {
+            publishLock.unlock();
+        }
+        logger.info("Product stream stopped, closed {} subscriber connections", closed);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // After LifecycleManager has drained the ordinary requests, before the web server waits for the rest
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE + 1;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdown();
+    }
+
+    private void replay(Subscriber subscriber, long afterId) {
+        long oldest = Math.max(firstEventId, lastEventId - ring.length + 1);
+        // Ahead of us: an id from another instance, or sent by something other than this stream
+        if (afterId + 1 < oldest || afterId > lastEventId || lastEventId - afterId > queueCapacity) {
+            subscriber.queue.offer(new Entry(lastEventId, "reset", null, null, "{}"));
+            return;
+        }
+        for (long id = afterId + 1; id <= lastEventId; id++) {
+            Entry entry = ring[(int) (id % ring.length)];
+            if (entry != null && entry.id == id && subscriber.matches(entry)) {
+                subscriber.queue.offer(entry);
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Entry entry) {
+        if (subscriber.queue.offer(entry)) {
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+            subscriber.queue.poll();
+            subscriber.queue.offer(entry);
+            logger.debug("Product stream subscriber is slow, dropped its oldest queued event");
+        } else {
+            logger.info("Product stream subscriber is slow, disconnecting it");
+            remove(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.closed || !subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException ex) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Entry entry;
+            while (!subscriber.closed && (entry = subscriber.queue.poll()) != null) {
+                if (entry == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(Long.toString(entry.id))
+                            .name(entry.name)
+                            .data(entry.data, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            logger.debug("Product stream subscriber went away: {}", ex.getMessage());
+            remove(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // An event may have been queued after the loop saw an empty queue
+        if (!subscriber.closed && !subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+        if (subscriber.released.compareAndSet(false, true)) {
+            subscriberCount.decrementAndGet();
+            logger.debug("Product stream subscriber disconnected");
+        }
+    }
+
+    private record Entry(long id, String name, UUID ownerId, String sku, String data) {
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final UUID ownerId;
+        final String sku;
+        final ArrayBlockingQueue<Entry> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean released = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, UUID ownerId, String sku, int capacity) {
+            this.emitter = emitter;
+            this.ownerId = ownerId;
+            this.sku = sku;
+            // One spare slot for a heartbeat or reset marker
+            this.queue = new ArrayBlockingQueue<>(capacity + 1);
+        }
+
+        boolean matches(Entry entry) {
+            return (ownerId == null || ownerId.equals(entry.ownerId))
+                    && (sku == null || sku.equals(entry.sku));
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.ImportJobDTO;
+import com.example.webapp.dto.ImportRowErrorDTO;
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.exception.ImportCapacityException;
+import com.example.webapp.exception.ImportJobNotFoundException;
+import com.example.webapp.exception.InvalidRequestException;
+import com.example.webapp.exception.UnauthorizedAccessException;
+import com.example.webapp.model.ImportJobStatus;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * CSV bulk import of products (POST /v1/product/import).
+ *
+ * The upload is spooled to a temp file and parsed one record at a time on a background
+ * worker, so memory depends on the chunk size, never on the file size. Every chunk is its own
+ * transaction; a row that fails validation or collides on SKU is reported and skipped, and
+ * the rest of the file carries on.
+ *
+ * Job status lives in memory on the instance that accepted the upload and is dropped
+ * webapp.import.job-retention-ms after the job finishes.
+ */
+@Component
+public class ProductCsvImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCsvImporter.class);
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "sku", "manufacturer", "quantity");
+
+    private final ProductService productService;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final int maxRecordChars;
+    private final long jobRetentionMillis;
+
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor workers;
+
+    public ProductCsvImporter(
+            ProductService productService,
+            Validator validator,
+            @Value("${webapp.import.chunk-size:500}") int chunkSize,
+            @Value("${webapp.import.threads:2}") int threads,
+            @Value("${webapp.import.max-queued-jobs:10}") int maxQueuedJobs,
+            @Value("${webapp.import.max-reported-errors:100}") int maxReportedErrors,
+            @Value("${webapp.import.max-record-chars:65536}") int maxRecordChars,
+            @Value("${webapp.import.job-retention-ms:3600000}") long jobRetentionMillis
+    ) {
+        this.productService = productService;
+        this.validator = validator;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReportedErrors = Math.max(0, maxReportedErrors);
+        this.maxRecordChars = maxRecordChars;
+        this.jobRetentionMillis = jobRetentionMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxQueuedJobs)), runnable -> {
+            Thread thread = new Thread(runnable, "product-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Spools the upload, checks the header and queues the import. Returns the QUEUED job.
+     */
+    public ImportJobDTO submit(MultipartFile file, UUID ownerId) {
+        if (file == null || file.isEmpty()) {
+            throw new InvalidRequestException("CSV file is required");
+        }
+
+        Path upload = null;
+        try {
+            upload = Files.createTempFile("product-import-", ".csv");
+            // Tomcat has already written the part to disk; this moves or copies it without buffering
+            file.transferTo(upload);
+
+            try (CsvRecordReader reader = open(upload)) {
+                columnsOf(reader.next());
+            }
+
+            ImportJob job = new ImportJob(UUID.randomUUID(), ownerId, file.getOriginalFilename());
+            Path spooled = upload;
+            workers.execute(() -> run(job, spooled));
+            jobs.put(job.id, job);
+
+            logger.info("Queued product import {} ({} bytes) for user {}", job.id, file.getSize(), ownerId);
+
+            return job.snapshot();
+        } catch (RejectedExecutionException ex) {
+            deleteQuietly(upload);
+            logger.error("Rejecting product import for {}, import queue is full", ownerId);
+            throw new ImportCapacityException("Too many imports in progress, retry later");
+        } catch (IOException ex) {
+            deleteQuietly(upload);
+            logger.error("Could not read uploaded CSV: {}", ex.getMessage());
+            throw new InvalidRequestException("Could not read CSV: " + ex.getMessage());
+        } catch (RuntimeException ex) {
+            deleteQuietly(upload);
+            throw ex;
+        }
+    }
+
+    public ImportJobDTO getJob(UUID jobId, UUID userId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            logger.error("Import job not found: {}", jobId);
+            throw new ImportJobNotFoundException("Import job not found with ID: " + jobId);
+        }
+        if (!job.ownerId.equals(userId)) {
+            logger.error("User {} attempted to read import job {} of {}", userId, jobId, job.ownerId);
+            throw new UnauthorizedAccessException("You are not authorized to access this import job");
+        }
+        return job.snapshot();
+    }
+
+    @Scheduled(fixedDelayString = "${webapp.import.sweep-interval-ms:60000}")
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(jobRetentionMillis, ChronoUnit.MILLIS);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void run(ImportJob job, Path upload) {
+        job.start();
+        logger.info("Product import {} started", job.id);
+
+        try (CsvRecordReader reader = open(upload)) {
+            Map<String, Integer> columns = columnsOf(reader.next());
+            List<PendingRow> chunk = new ArrayList<>(chunkSize);
+            Map<String, Long> chunkSkus = new HashMap<>();
+            long rowNumber = 1;
+
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                rowNumber++;
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                job.rowsProcessed.incrementAndGet();
+
+                PendingRow row = parse(job, rowNumber, record, columns);
+                if (row == null) {
+                    continue;
+                }
+                if (chunkSkus.putIfAbsent(row.product.getSku(), rowNumber) != null) {
+                    job.rowFailed(rowNumber, row.product.getSku(), "Duplicate SKU in file (row "
+                            + chunkSkus.get(row.product.getSku()) + ")");
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    commit(job, chunk);
+                    chunk.clear();
+                    chunkSkus.clear();
+                }
+            }
+            commit(job, chunk);
+
+            job.finish(ImportJobStatus.COMPLETED, null);
+            logger.info("Product import {} completed: {} imported, {} failed",
+                    job.id, job.rowsImported.get(), job.rowsFailed.get());
+        } catch (IOException | RuntimeException ex) {
+            job.finish(ImportJobStatus.FAILED, ex.getMessage());
+            logger.error("Product import {} failed after {} rows: {}", job.id, job.rowsProcessed.get(), ex.getMessage());
+        } finally {
+            deleteQuietly(upload);
+        }
+    }
+
+    private PendingRow parse(ImportJob job, long rowNumber, List<String> record, Map<String, Integer> columns) {
+        String sku = field(record, columns, "sku");
+
+        Integer quantity = null;
+        String rawQuantity = field(record, columns, "quantity");
+        if (rawQuantity != null) {
+            try {
+                quantity = Integer.valueOf(rawQuantity.trim());
+            } catch (NumberFormatException ex) {
+                job.rowFailed(rowNumber, sku, "quantity: must be a whole number");
+                return null;
+            }
+        }
+
+        ProductRequestDTO product = new ProductRequestDTO(
+                field(record, columns, "name"),
+                field(record, columns, "description"),
+                sku,
+                field(record, columns, "manufacturer"),
+                quantity);
+
+        // Same constraints as POST /v1/product
+        Set<ConstraintViolation<ProductRequestDTO>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            job.rowFailed(rowNumber, sku, message);
+            return null;
+        }
+
+        return new PendingRow(rowNumber, product);
+    }
+
+    private void commit(ImportJob job, List<PendingRow> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<ProductRequestDTO> products = chunk.stream().map(PendingRow::product).collect(Collectors.toList());
+        try {
+            record(job, chunk, productService.importProducts(products, job.ownerId));
+        } catch (RuntimeException ex) {
+            // Typically a SKU created concurrently; retry row by row so only that row is lost
+            logger.error("Import {} chunk of {} rows failed, retrying rows one by one: {}",
+                    job.id, chunk.size(), ex.getMessage());
+            for (PendingRow row : chunk) {
+                try {
+                    record(job, List.of(row), productService.importProducts(List.of(row.product), job.ownerId));
+                } catch (RuntimeException rowEx) {
+                    job.rowFailed(row.rowNumber, row.product.getSku(), "Could not be saved: " + rowEx.getMessage());
+                }
+            }
+        }
+    }
+
+    private void record(ImportJob job, List<PendingRow> rows, Set<String> skippedSkus) {
+        for (PendingRow row : rows) {
+            if (skippedSkus.contains(row.product.getSku())) {
+                job.rowFailed(row.rowNumber, row.product.getSku(),
+                        "Product with SKU " + row.product.getSku() + " already exists");
+            } else {
+                job.rowsImported.incrementAndGet();
+            }
+        }
+    }
+
+    private CsvRecordReader open(Path upload) throws IOException {
+        return new CsvRecordReader(Files.newBufferedReader(upload, StandardCharsets.UTF_8), maxRecordChars);
+    }
+
+    private Map<String, Integer> columnsOf(List<String> header) {
+        if (header == null) {
+            throw new InvalidRequestException("CSV file is empty");
+        }
+
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        List<String> missing = REQUIRED_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new InvalidRequestException("CSV header is missing column(s): " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            logger.error("Could not delete import spool file {}: {}", file, ex.getMessage());
+        }
+    }
+
+    private record PendingRow(long rowNumber, ProductRequestDTO product) {
+    }
+
+    private final class ImportJob {
+        final UUID id;
+        final UUID ownerId;
+        final String fileName;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        final AtomicLong rowsProcessed = new AtomicLong();
+        final AtomicLong rowsImported = new AtomicLong();
+        final AtomicLong rowsFailed = new AtomicLong();
+        final List<ImportRowErrorDTO> errors = new ArrayList<>();
+        volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+        volatile String message;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+
+        ImportJob(UUID id, UUID ownerId, String fileName) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.fileName = fileName;
+        }
+
+        void start() {
+            startedAt = LocalDateTime.now();
+            status = ImportJobStatus.RUNNING;
+        }
+
+        void finish(ImportJobStatus finalStatus, String finalMessage) {
+            message = finalMessage;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        void rowFailed(long rowNumber, String sku, String error) {
+            rowsFailed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxReportedErrors) {
+                    errors.add(new ImportRowErrorDTO(rowNumber, sku, error));
+                }
+            }
+        }
+
+        ImportJobDTO snapshot() {
+            List<ImportRowErrorDTO> reported;
+            synchronized (errors) {
+                reported = List.copyOf(errors);
+            }
+            long failed = rowsFailed.get();
+            return new ImportJobDTO(id, status, fileName, rowsProcessed.get(), rowsImported.get(), failed,
+                    reported, failed > reported.size(), message, createdAt, startedAt, finishedAt);
+        }
+    }
+}
+
+/*
+Explanation of the CSV import:
+
+POST /v1/product/import (multipart, part "file") → 202 + job, Location: /v1/product/import/{id}
+GET  /v1/product/import/{id} → progress and per-row errors (owner only)
+
+File format:
+- Header row with name, sku, manufacturer, quantity (description optional), any order
+- RFC 4180 quoting: "Laptop, 15""" is a valid field
+
+Per row:
+- Validated against the same constraints as POST /v1/product → error recorded, row skipped
+- SKU already taken (in the database or earlier in the same chunk) → error, row skipped
+
+Per chunk (webapp.import.chunk-size rows):
+- One transaction, INSERTs sent as JDBC batches
+- If the chunk still fails (e.g. a SKU created concurrently) it is retried row by row
+
+Memory: one CSV record + one chunk per running import. The upload itself is on disk.
+*/
@@ -0,0 +1,102 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.ProductResponseDTO;
+import com.example.webapp.model.ProductEventType;
+import com.example.webapp.model.ProductOutboxEvent;
+import com.example.webapp.repository.ProductOutboxRepository;
+import com.example.webapp.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Records product changes in the outbox table. Must be called inside the transaction that
+ * makes the change; the insert commits or rolls back with it.
+ */
+@Component
+public class ProductOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductOutbox.class);
+
+    @Autowired
+    private ProductOutboxRepository outboxRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${webapp.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(ProductEventType eventType, ProductResponseDTO product) {
+        if (!enabled) {
+            return;
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(product);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize product " + product.getId() + " for the outbox", ex);
+        }
+
+        save(eventType, product.getId(), product.getVersion(), payload);
+    }
+
+    /**
+     * For the stock paths, which change a product with a bulk UPDATE and have no DTO at hand:
+     * reads the product as that UPDATE left it, records it as UPDATED and publishes the
+     * {@link ProductChangeEvent}, so stock changes reach the journal and the change stream like
+     * any other update. The UPDATE must clear the persistence context, or the read is stale.
+     * pendingDelta is the write-behind delta not yet in the row. Empty if the product is gone.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<ProductResponseDTO> recordStockChange(UUID productId, long pendingDelta) {
+        Optional<ProductResponseDTO> product = productRepository.findById(productId)
+                .map(found -> ProductServiceImpl.toResponseDTO(found, pendingDelta));
+
+        product.ifPresent(dto -> {
+            recordChange(ProductEventType.UPDATED, dto);
+            eventPublisher.publishEvent(new ProductChangeEvent(
+                    ProductEventType.UPDATED, dto.getId(), dto.getOwnerUserId(), dto.getSku(), dto));
+        });
+        return product;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletion(UUID productId, Long version) {
+        if (!enabled) {
+            return;
+        }
+
+        save(ProductEventType.DELETED, productId, version, null);
+    }
+
+    private void save(ProductEventType eventType, UUID productId, Long version, String payload) {
+        ProductOutboxEvent event = new ProductOutboxEvent();
+        event.setProductId(productId);
+        event.setEventType(eventType);
+        event.setProductVersion(version);
+        event.setPayload(payload);
+
+        outboxRepository.save(event);
+
+        logger.debug("Outbox: {} product {} at version {}", eventType, productId, version);
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.webapp.service;
+
+import com.example.webapp.model.ProductOutboxEvent;
+import com.example.webapp.repository.ProductOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves product changes from the outbox table into the {@link ProductChangeJournal}. Runs on
+ * the scheduler, so request threads only pay for the outbox insert.
+ *
+ * Rows are deleted only after the journal has been fsynced, which makes delivery at least
+ * once: a crash between the fsync and the delete appends those events again on the next run.
+ * Every record carries the outbox id so readers can drop the repeats.
+ */
+@Component
+public class ProductOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductOutboxRelay.class);
+
+    private final ProductOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path journalDirectory;
+    private final int segmentBytes;
+    private final int batchSize;
+    private final long fsyncIntervalMillis;
+    private final int compactAfterSegments;
+
+    // Held across JDBC and journal writes; a monitor here would pin a virtual carrier thread
+    private final ReentrantLock relayLock = new ReentrantLock();
+    // Journaled but not yet fsynced, so their rows must stay in the outbox
+    private final Set<Long> unsynced = new LinkedHashSet<>();
+    private long lastSyncMillis = System.currentTimeMillis();
+    private ProductChangeJournal journal;
+
+    public ProductOutboxRelay(
+            ProductOutboxRepository outboxRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${webapp.outbox.enabled:true}") boolean enabled,
+            @Value("${webapp.outbox.journal-dir:${java.io.tmpdir}/webapp-product-journal}") Path journalDirectory,
+            @Value("${webapp.outbox.segment-bytes:16777216}") int segmentBytes,
+            @Value("${webapp.outbox.batch-size:500}") int batchSize,
+            @Value("${webapp.outbox.fsync-interval-ms:1000}") long fsyncIntervalMillis,
+            @Value("${webapp.outbox.compact-after-segments:4}") int compactAfterSegments
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.journalDirectory = journalDirectory;
+        this.segmentBytes = segmentBytes;
+        this.batchSize = Math.max(1, batchSize);
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.compactAfterSegments = Math.max(2, compactAfterSegments);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        journal = new ProductChangeJournal(journalDirectory, segmentBytes);
+
+        logger.info("Product change journal at {} ({} byte segments)", journalDirectory, segmentBytes);
+    }
+
+    /**
+     * Drains the outbox into the journal and returns how many events were appended.
+     */
+    @Scheduled(fixedDelayString = "${webapp.outbox.relay-interval-ms:200}")
+    public int relay() {
+        if (!enabled) {
+            return 0;
+        }
+
+        relayLock.lock();
+        try {
+            int appended = 0;
+            try {
+                int fresh;
+                do {
+                    fresh = appendBatch();
+                    appended += fresh;
+
+                    boolean syncDue = System.currentTimeMillis() - lastSyncMillis >= fsyncIntervalMillis;
+                    if (!unsynced.isEmpty() && (syncDue || unsynced.size() >= batchSize)) {
+                        sync();
+                    }
+                } while (fresh == batchSize);
+
+                if (journal.sealedSegments().size() >= compactAfterSegments) {
+                    int dropped = journal.compact(this::productIdOf);
+                    logger.info("Compacted product change journal, dropped {} superseded events", dropped);
+                }
+            } catch (IOException ex) {
+                logger.error("Product change journal write failed, will retry: {}", ex.getMessage());
+            } catch (RuntimeException ex) {
+                logger.error("Outbox relay failed, will retry: {}", ex.getMessage());
+            }
+
+            if (appended > 0) {
+                logger.debug("Relayed {} product change events", appended);
+            }
+            return appended;
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    /**
+     * Forces the journal to disk and removes the relayed rows from the outbox.
+     */
+    public void sync() {
+        relayLock.lock();
+        try {
+            if (unsynced.isEmpty()) {
+                return;
+            }
+
+            journal.force();
+            List<Long> relayed = new ArrayList<>(unsynced);
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllByIdInBatch(relayed));
+            unsynced.clear();
+            lastSyncMillis = System.currentTimeMillis();
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        relay();
+        sync();
+        journal.close();
+    }
+
+    private int appendBatch() throws IOException {
+        // Rows still waiting for their fsync are read again; skip them rather than
+        // double-append. The page is sized so a full batch of new rows still fits.
+        List<ProductOutboxEvent> page = transactionTemplate.execute(status ->
+                outboxRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize + unsynced.size())));
+
+        int fresh = 0;
+        for (ProductOutboxEvent event : page) {
+            if (unsynced.contains(event.getId())) {
+                continue;
+            }
+            journal.append(encode(event));
+            unsynced.add(event.getId());
+            fresh++;
+        }
+        return fresh;
+    }
+
+    private byte[] encode(ProductOutboxEvent event) throws IOException {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("eventId", event.getId());
+        record.put("productId", event.getProductId().toString());
+        record.put("type", event.getEventType().name());
+        record.put("version", event.getProductVersion());
+        record.put("occurredAt", event.getCreatedAt().toString());
+        if (event.getPayload() != null) {
+            // Already JSON; embed it as is instead of parsing it again
+            record.putRawValue("product", new RawValue(event.getPayload()));
+        }
+        return objectMapper.writeValueAsBytes(record);
+    }
+
+    private Object productIdOf(byte[] record) {
+        try {
+            return objectMapper.readTree(record).get("productId").asText();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unreadable product change record", ex);
+        }
+    }
+}
+
+/*
+Explanation of the product change journal:
+
+Write path (request thread):
+- ProductServiceImpl calls ProductOutbox inside its own transaction → one extra INSERT
+- No file I/O, no second datasource, no waiting on the relay
+
+Relay (scheduler thread, every webapp.outbox.relay-interval-ms):
+- Reads the oldest outbox rows in pages of webapp.outbox.batch-size
+- Appends them to the memory-mapped active segment (no syscall per record)
+- Every webapp.outbox.fsync-interval-ms (or every full batch): fsync, then delete those rows
+
+Segments (webapp.outbox.journal-dir):
+- segment-<sequence>.log, preallocated to webapp.outbox.segment-bytes
+- Once webapp.outbox.compact-after-segments are sealed, they are merged into one that keeps
+  only the newest event per product (deletes are kept, so readers learn about them)
+*/
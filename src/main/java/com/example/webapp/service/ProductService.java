@@ -1,26 +1,40 @@
 package com.example.webapp.service;
 
+import com.example.webapp.dto.ProductChangesDTO;
 import com.example.webapp.dto.ProductRequestDTO;
 import com.example.webapp.dto.ProductResponseDTO;
 import com.example.webapp.dto.ProductUpdateDTO;
+import com.example.webapp.dto.StockLevelDTO;
 import com.example.webapp.model.Product;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public interface ProductService {
 
-    ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO, String ownerEmail);
+    ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO, UUID ownerId);
+
+    Set<String> importProducts(List<ProductRequestDTO> products, UUID ownerId);
 
     ProductResponseDTO getProductById(UUID id);
 
     List<ProductResponseDTO> getAllProducts();
 
-    List<ProductResponseDTO> getProductsByOwner(String ownerEmail);
+    List<ProductResponseDTO> getProductsByOwner(UUID ownerId);
+
+    ProductChangesDTO getChangesSince(String syncToken, int limit);
+
+    int purgeExpiredTombstones();
+
+    ProductResponseDTO updateProduct(UUID id, ProductUpdateDTO productUpdateDTO, UUID userId, Long expectedVersion);
+
+    ProductResponseDTO patchProduct(UUID id, JsonNode mergePatch, UUID userId, Long expectedVersion);
 
-    ProductResponseDTO updateProduct(UUID id, ProductUpdateDTO productUpdateDTO, String authenticatedEmail);
+    void deleteProduct(UUID id, UUID userId, Long expectedVersion);
 
-    void deleteProduct(UUID id, String authenticatedEmail);
+    StockLevelDTO adjustStock(UUID id, int delta, UUID userId);
 
-    boolean isOwner(Product product, String userEmail);
+    boolean isOwner(Product product, UUID userId);
 }
\ No newline at end of file
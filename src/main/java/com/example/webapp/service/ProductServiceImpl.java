@@ -1,26 +1,64 @@
 package com.example.webapp.service;
 
+import com.example.webapp.dto.ProductChangesDTO;
 import com.example.webapp.dto.ProductRequestDTO;
 import com.example.webapp.dto.ProductResponseDTO;
+import com.example.webapp.dto.ProductTombstoneDTO;
 import com.example.webapp.dto.ProductUpdateDTO;
+import com.example.webapp.dto.StockLevelDTO;
+import com.example.webapp.exception.InsufficientStockException;
+import com.example.webapp.exception.InvalidRequestException;
+import com.example.webapp.exception.PreconditionFailedException;
 import com.example.webapp.exception.ProductAlreadyExistsException;
 import com.example.webapp.exception.ProductNotFoundException;
+import com.example.webapp.exception.SyncTokenExpiredException;
 import com.example.webapp.exception.UnauthorizedAccessException;
 import com.example.webapp.exception.UserNotFoundException;
 import com.example.webapp.model.Product;
+import com.example.webapp.model.ProductEventType;
+import com.example.webapp.model.ProductTombstone;
 import com.example.webapp.model.User;
 import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.ProductTombstoneRepository;
 import com.example.webapp.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +67,9 @@ public class ProductServiceImpl implements ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
 
+    // Unique constraint on products.sku, see V1__baseline.sql
+    private static final String SKU_CONSTRAINT = "uk_products_sku";
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -38,22 +79,72 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ProductTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private WriteBehindStockBuffer stockBuffer;
+
+    @Autowired
+    private ProductOutbox productOutbox;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${webapp.sync.settle-ms:2000}")
+    private long syncSettleMillis;
+
+    @Value("${webapp.sync.tombstone-retention-hours:720}")
+    private long tombstoneRetentionHours;
+
+    @Value("${webapp.product.coalescing.max-wait-ms:2000}")
+    private long coalescingMaxWaitMillis;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${webapp.product.batching.enabled:false}")
+    private boolean batchingEnabled;
+
+    @Value("${webapp.product.batching.window-ms:2}")
+    private long batchWindowMillis;
+
+    @Value("${webapp.product.batching.max-batch-size:100}")
+    private int maxBatchSize;
+
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate writeTransaction;
+    private SingleFlight<UUID, ProductResponseDTO> productLoads;
+    private BatchLoader<UUID, Product> productBatches;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        productLoads = new SingleFlight<>(coalescingMaxWaitMillis);
+        if (batchingEnabled) {
+            productBatches = new BatchLoader<>(batchWindowMillis, maxBatchSize, coalescingMaxWaitMillis, this::loadProducts);
+        }
+    }
+
     @Override
-    public ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO, String ownerEmail) {
-        logger.info("Creating product with SKU: {} for user: {}", productRequestDTO.getSku(), ownerEmail);
+    public ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO, UUID ownerId) {
+        logger.info("Creating product with SKU: {} for user: {}", productRequestDTO.getSku(), ownerId);
 
         if (productRepository.existsBySku(productRequestDTO.getSku())) {
             logger.error("SKU already exists: {}", productRequestDTO.getSku());
             throw new ProductAlreadyExistsException("Product with SKU " + productRequestDTO.getSku() + " already exists");
         }
 
-        User owner = userRepository.findByEmail(ownerEmail)
-                .orElseThrow(() -> {
-                    logger.error("Owner not found with email: {}", ownerEmail);
-                    return new UserNotFoundException("User not found");
-                });
-
-        logger.debug("Owner found: {} {}", owner.getFirstName(), owner.getLastName());
+        // The caller was just authenticated as this user: a reference sets the foreign key without a SELECT
+        User owner = userRepository.getReferenceById(ownerId);
 
         Product product = new Product();
         product.setName(productRequestDTO.getName());
@@ -71,18 +162,89 @@ public class ProductServiceImpl implements ProductService {
 
         logger.info("Product created successfully with ID: {}", savedProduct.getId());
 
-        return convertToResponseDTO(savedProduct);
+        ProductResponseDTO createdProduct = convertToResponseDTO(savedProduct);
+        recordChange(ProductEventType.CREATED, createdProduct);
+
+        return createdProduct;
+    }
+
+    /**
+     * Inserts one import chunk in a single transaction and returns the SKUs that were skipped
+     * because they already exist. Rows are assumed valid; the importer checks them first.
+     */
+    @Override
+    public Set<String> importProducts(List<ProductRequestDTO> products, UUID ownerId) {
+        logger.info("Importing {} products for user: {}", products.size(), ownerId);
+
+        User owner = userRepository.getReferenceById(ownerId);
+
+        Set<String> existing = productRepository.findExistingSkus(
+                products.stream().map(ProductRequestDTO::getSku).collect(Collectors.toList()));
+
+        List<Product> created = new ArrayList<>(products.size());
+        for (ProductRequestDTO productRequestDTO : products) {
+            if (existing.contains(productRequestDTO.getSku())) {
+                continue;
+            }
+            Product product = new Product();
+            product.setName(productRequestDTO.getName());
+            product.setDescription(productRequestDTO.getDescription());
+            product.setSku(productRequestDTO.getSku());
+            product.setManufacturer(productRequestDTO.getManufacturer());
+            product.setQuantity(productRequestDTO.getQuantity());
+            product.setOwner(owner);
+            entityManager.persist(product);
+            created.add(product);
+        }
+
+        // One flush for the chunk, so hibernate.jdbc.batch_size sends the INSERTs as JDBC batches
+        entityManager.flush();
+
+        for (Product product : created) {
+            recordChange(ProductEventType.CREATED, convertToResponseDTO(product));
+        }
+
+        // Nothing from this chunk stays in the persistence context
+        entityManager.flush();
+        entityManager.clear();
+
+        logger.info("Imported {} products, skipped {} existing SKUs", created.size(), existing.size());
+
+        return existing;
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ProductResponseDTO getProductById(UUID id) {
         logger.info("Fetching product with ID: {}", id);
 
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.error("Product not found with ID: {}", id);
-                    return new ProductNotFoundException("Product not found with ID: " + id);
-                });
+        // Inside a caller's transaction the load must see that transaction's own writes
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loadProduct(id);
+        }
+
+        // Concurrent reads of the same product share one load; waiting callers hold no connection
+        return productLoads.execute(id, () -> productBatches != null
+                ? found(id, Optional.ofNullable(productBatches.load(id)))
+                : readOnlyTransaction.execute(status -> loadProduct(id)));
+    }
+
+    private ProductResponseDTO loadProduct(UUID id) {
+        return found(id, productRepository.findById(id));
+    }
+
+    // One SELECT ... WHERE id IN (...) for every id in the batch
+    private Map<UUID, Product> loadProducts(Collection<UUID> ids) {
+        logger.debug("Loading a batch of {} products", ids.size());
+        return readOnlyTransaction.execute(status -> productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity())));
+    }
+
+    private ProductResponseDTO found(UUID id, Optional<Product> loaded) {
+        Product product = loaded.orElseThrow(() -> {
+            logger.error("Product not found with ID: {}", id);
+            return new ProductNotFoundException("Product not found with ID: " + id);
+        });
 
         logger.info("Product found: {}", product.getName());
 
@@ -90,6 +252,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductResponseDTO> getAllProducts() {
         logger.info("Fetching all products");
 
@@ -103,12 +266,13 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public List<ProductResponseDTO> getProductsByOwner(String ownerEmail) {
-        logger.info("Fetching products for owner: {}", ownerEmail);
+    @Transactional(readOnly = true)
+    public List<ProductResponseDTO> getProductsByOwner(UUID ownerId) {
+        logger.info("Fetching products for owner: {}", ownerId);
 
-        List<Product> products = productRepository.findByOwnerEmail(ownerEmail);
+        List<Product> products = productRepository.findByOwnerId(ownerId);
 
-        logger.info("Found {} products for owner {}", products.size(), ownerEmail);
+        logger.info("Found {} products for owner {}", products.size(), ownerId);
 
         return products.stream()
                 .map(this::convertToResponseDTO)
@@ -116,9 +280,203 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public ProductResponseDTO updateProduct(UUID id, ProductUpdateDTO productUpdateDTO, String authenticatedEmail) {
-        logger.info("Updating product ID: {} by user: {}", id, authenticatedEmail);
+    @Transactional(readOnly = true)
+    public ProductChangesDTO getChangesSince(String syncToken, int limit) {
+        SyncToken from = SyncToken.parse(syncToken);
+        LocalDateTime now = LocalDateTime.now();
+
+        logger.info("Fetching product changes after {} (limit {})", from.at(), limit);
+
+        // Tombstones older than the retention window are gone, so this client may have missed deletes
+        if (!from.equals(SyncToken.START) && from.at().isBefore(now.minusHours(tombstoneRetentionHours))) {
+            logger.error("Sync token from {} is past the {}h tombstone retention", from.at(), tombstoneRetentionHours);
+            throw new SyncTokenExpiredException("Sync token has expired, reload the full product list");
+        }
+
+        // Timestamps are taken before commit, so a row stamped just now may still be invisible.
+        // Stopping short of the settle window means the cursor never skips past it.
+        LocalDateTime upTo = now.minus(syncSettleMillis, ChronoUnit.MILLIS).truncatedTo(ChronoUnit.MICROS);
+
+        List<Product> products = productRepository.findChangedAfter(
+                from.at(), from.id(), upTo, PageRequest.of(0, limit + 1));
+        List<ProductTombstone> tombstones = tombstoneRepository.findDeletedAfter(
+                from.at(), from.id(), upTo, PageRequest.of(0, limit + 1));
+
+        // Merge both keyset pages into one feed ordered by (timestamp, id)
+        List<ProductResponseDTO> changed = new ArrayList<>();
+        List<ProductTombstoneDTO> deleted = new ArrayList<>();
+        SyncToken last = from;
+        int nextProduct = 0;
+        int nextTombstone = 0;
+        while (changed.size() + deleted.size() < limit
+                && (nextProduct < products.size() || nextTombstone < tombstones.size())) {
+            SyncToken productPosition = nextProduct < products.size()
+                    ? new SyncToken(products.get(nextProduct).getDateLastUpdated(), products.get(nextProduct).getId())
+                    : null;
+            SyncToken tombstonePosition = nextTombstone < tombstones.size()
+                    ? new SyncToken(tombstones.get(nextTombstone).getDeletedAt(), tombstones.get(nextTombstone).getProductId())
+                    : null;
+
+            if (tombstonePosition == null || (productPosition != null && productPosition.compareTo(tombstonePosition) < 0)) {
+                changed.add(convertToResponseDTO(products.get(nextProduct++)));
+                last = productPosition;
+            } else {
+                ProductTombstone tombstone = tombstones.get(nextTombstone++);
+                deleted.add(new ProductTombstoneDTO(tombstone.getProductId(), tombstone.getDeletedAt()));
+                last = tombstonePosition;
+            }
+        }
+
+        boolean hasMore = nextProduct < products.size() || nextTombstone < tombstones.size();
+
+        // Caught up: everything up to the settle horizon has been seen, so the token moves there
+        // even if nothing changed. Idle clients therefore never age into a 410.
+        SyncToken next = last;
+        if (!hasMore) {
+            SyncToken horizon = new SyncToken(upTo, SyncToken.MAX_ID);
+            if (horizon.compareTo(last) > 0) {
+                next = horizon;
+            }
+        }
+
+        logger.info("Returning {} changed and {} deleted products (more: {})", changed.size(), deleted.size(), hasMore);
+
+        return new ProductChangesDTO(changed, deleted, next.encode(), hasMore);
+    }
+
+    /**
+     * Drops tombstones past the retention window. Tokens that old are refused with 410, so no
+     * client can still need them.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${webapp.sync.tombstone-purge-interval-ms:3600000}",
+            initialDelayString = "${webapp.sync.tombstone-purge-initial-delay-ms:60000}")
+    public int purgeExpiredTombstones() {
+        int purged = tombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minusHours(tombstoneRetentionHours));
+
+        if (purged > 0) {
+            logger.info("Purged {} product tombstones older than {}h", purged, tombstoneRetentionHours);
+        }
+        return purged;
+    }
+
+    @Override
+    public ProductResponseDTO updateProduct(UUID id, ProductUpdateDTO productUpdateDTO, UUID userId,
+                                            Long expectedVersion) {
+        logger.info("Updating product ID: {} by user: {}", id, userId);
+
+        // Hot SKUs turn the absolute quantity into a delta against live stock, which needs the loaded product
+        if (stockBuffer.isHot(id)) {
+            Product product = loadOwnProductForUpdate(id, userId, expectedVersion);
+            return applyUpdate(product, productUpdateDTO);
+        }
+
+        String description = productUpdateDTO.getDescription();
+
+        int updated;
+        try {
+            updated = productRepository.updateOwnedProduct(
+                    id, userId, expectedVersion == null ? -1 : expectedVersion,
+                    productUpdateDTO.getName(), description, description == null ? "" : description, description == null,
+                    productUpdateDTO.getSku(), productUpdateDTO.getManufacturer(), productUpdateDTO.getQuantity(),
+                    LocalDateTime.now());
+        } catch (DataIntegrityViolationException ex) {
+            // Too long, NOT NULL or foreign key failures are not the caller's SKU clashing
+            if (!isSkuConflict(ex)) {
+                throw ex;
+            }
+            logger.error("Cannot update: SKU {} already exists", productUpdateDTO.getSku());
+            throw new ProductAlreadyExistsException("Product with SKU " + productUpdateDTO.getSku() + " already exists");
+        }
 
+        if (updated == 0) {
+            return explainUnmatchedUpdate(id, userId, productUpdateDTO, expectedVersion);
+        }
+
+        Product updatedProduct = productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + id));
+
+        logger.info("Product updated successfully: {}", id);
+
+        ProductResponseDTO updatedDto = convertToResponseDTO(updatedProduct);
+        recordChange(ProductEventType.UPDATED, updatedDto);
+
+        return updatedDto;
+    }
+
+    private static boolean isSkuConflict(DataIntegrityViolationException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(SKU_CONSTRAINT);
+    }
+
+    // The conditional UPDATE matched nothing. Only now is the row read, to tell the caller why.
+    private ProductResponseDTO explainUnmatchedUpdate(UUID id, UUID userId, ProductUpdateDTO target,
+                                                      Long expectedVersion) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.error("Product not found with ID: {}", id);
+                    return new ProductNotFoundException("Product not found with ID: " + id);
+                });
+
+        if (!isOwner(product, userId)) {
+            logger.error("User {} attempted to update product {} owned by {}",
+                    userId, id, product.getOwner().getId());
+            throw new UnauthorizedAccessException("You are not authorized to update this product");
+        }
+
+        checkVersion(product, expectedVersion);
+
+        if (target.getQuantity() < product.getReservedQuantity()) {
+            logger.error("Cannot set quantity of product {} below its {} reserved units", id, product.getReservedQuantity());
+            throw new InsufficientStockException("Quantity cannot be lower than the "
+                    + product.getReservedQuantity() + " units currently reserved");
+        }
+
+        logger.info("Product {} unchanged, nothing written", id);
+        return convertToResponseDTO(product);
+    }
+
+    @Override
+    public ProductResponseDTO patchProduct(UUID id, JsonNode mergePatch, UUID userId,
+                                           Long expectedVersion) {
+        logger.info("Patching product ID: {} by user: {}", id, userId);
+
+        if (mergePatch == null || !mergePatch.isObject()) {
+            throw new InvalidRequestException("Merge patch body must be a JSON object");
+        }
+
+        Product product = loadOwnProductForUpdate(id, userId, expectedVersion);
+
+        // RFC 7386: start from the current state, overwrite what the patch names, null clears
+        ProductUpdateDTO merged = new ProductUpdateDTO(
+                product.getName(),
+                product.getDescription(),
+                product.getSku(),
+                product.getManufacturer(),
+                currentQuantity(product));
+        try {
+            objectMapper.readerForUpdating(merged).readValue(mergePatch);
+        } catch (JsonProcessingException ex) {
+            logger.error("Invalid merge patch for product {}: {}", id, ex.getMessage());
+            throw new InvalidRequestException("Invalid merge patch: " + ex.getOriginalMessage());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        Set<ConstraintViolation<ProductUpdateDTO>> violations = validator.validate(merged);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            logger.error("Merge patch for product {} leaves it invalid: {}", id, message);
+            throw new InvalidRequestException(message);
+        }
+
+        return applyUpdate(product, merged);
+    }
+
+    private Product loadOwnProductForUpdate(UUID id, UUID userId, Long expectedVersion) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> {
                     logger.error("Product not found with ID: {}", id);
@@ -127,16 +485,29 @@ public class ProductServiceImpl implements ProductService {
 
         logger.debug("Product found: {}", product.getName());
 
-        if (!isOwner(product, authenticatedEmail)) {
+        if (!isOwner(product, userId)) {
             logger.error("User {} attempted to update product {} owned by {}",
-                    authenticatedEmail, id, product.getOwner().getEmail());
+                    userId, id, product.getOwner().getId());
             throw new UnauthorizedAccessException("You are not authorized to update this product");
         }
 
         logger.debug("Ownership verified");
 
-        String newSku = productUpdateDTO.getSku();
+        checkVersion(product, expectedVersion);
+
+        return product;
+    }
+
+    // Only fields that actually differ are set, so with @DynamicUpdate the UPDATE lists just
+    // those columns, and an unchanged product is not written at all
+    private ProductResponseDTO applyUpdate(Product product, ProductUpdateDTO target) {
+        UUID id = product.getId();
         String currentSku = product.getSku();
+        String newSku = target.getSku();
+        // Decided on the stored SKU, before a rename below can change the answer
+        boolean hotStock = stockBuffer.isHotSku(currentSku);
+        int liveQuantity = currentQuantity(product);
+        boolean changed = false;
 
         if (!newSku.equals(currentSku)) {
             logger.debug("SKU is changing from {} to {}", currentSku, newSku);
@@ -145,72 +516,217 @@ public class ProductServiceImpl implements ProductService {
                 logger.error("Cannot update: SKU {} already exists", newSku);
                 throw new ProductAlreadyExistsException("Product with SKU " + newSku + " already exists");
             }
+            product.setSku(newSku);
+            changed = true;
+        }
+
+        if (!Objects.equals(product.getName(), target.getName())) {
+            product.setName(target.getName());
+            changed = true;
+        }
+        if (!Objects.equals(product.getDescription(), target.getDescription())) {
+            product.setDescription(target.getDescription());
+            changed = true;
+        }
+        if (!Objects.equals(product.getManufacturer(), target.getManufacturer())) {
+            product.setManufacturer(target.getManufacturer());
+            changed = true;
+        }
+
+        // Hot SKUs keep their live stock in memory; the absolute value becomes a delta
+        // so sales accepted since the client read the product are not overwritten
+        int stockDelta = 0;
+        if (hotStock) {
+            stockDelta = target.getQuantity() - liveQuantity;
+        } else if (!target.getQuantity().equals(product.getQuantity())) {
+            if (target.getQuantity() < product.getReservedQuantity()) {
+                logger.error("Cannot set quantity of product {} below its {} reserved units", id, product.getReservedQuantity());
+                throw new InsufficientStockException("Quantity cannot be lower than the "
+                        + product.getReservedQuantity() + " units currently reserved");
+            }
+            product.setQuantity(target.getQuantity());
+            changed = true;
         }
 
-        product.setName(productUpdateDTO.getName());
-        product.setDescription(productUpdateDTO.getDescription());
-        product.setSku(productUpdateDTO.getSku());
-        product.setManufacturer(productUpdateDTO.getManufacturer());
-        product.setQuantity(productUpdateDTO.getQuantity());
+        if (!changed && stockDelta == 0) {
+            logger.info("Product {} unchanged, nothing written", id);
+            return convertToResponseDTO(product);
+        }
 
         logger.debug("Product fields updated");
 
         Product updatedProduct = productRepository.save(product);
         entityManager.flush();
-        entityManager.refresh(updatedProduct);
+
+        // Only after the versioned UPDATE went through, so a 412 leaves the stock untouched
+        if (hotStock && stockDelta != 0) {
+            stockBuffer.adjust(id, stockDelta);
+        }
+
+        if (changed) {
+            entityManager.refresh(updatedProduct);
+        }
 
         logger.info("Product updated successfully: {}", updatedProduct.getId());
 
-        return convertToResponseDTO(updatedProduct);
+        ProductResponseDTO updatedDto = convertToResponseDTO(updatedProduct);
+        recordChange(ProductEventType.UPDATED, updatedDto);
+
+        return updatedDto;
+    }
+
+    // Outbox row for the journal, plus an application event that stream listeners receive after commit
+    private void recordChange(ProductEventType eventType, ProductResponseDTO product) {
+        productOutbox.recordChange(eventType, product);
+        eventPublisher.publishEvent(new ProductChangeEvent(
+                eventType, product.getId(), product.getOwnerUserId(), product.getSku(), product));
+    }
+
+    private int currentQuantity(Product product) {
+        if (stockBuffer.isHotSku(product.getSku())) {
+            return product.getQuantity() + (int) stockBuffer.pendingDelta(product.getId(), product.getVersion());
+        }
+        return product.getQuantity();
     }
 
     @Override
-    public void deleteProduct(UUID id, String authenticatedEmail) {
-        logger.info("Deleting product ID: {} by user: {}", id, authenticatedEmail);
+    public void deleteProduct(UUID id, UUID userId, Long expectedVersion) {
+        logger.info("Deleting product ID: {} by user: {}", id, userId);
+
+        // Owner-scoped, so a stranger's request reads nothing; the DELETE repeats both conditions
+        ProductRepository.OwnedProductKey key = productRepository.findOwnedProductKey(id, userId).orElse(null);
+        if (key == null
+                || (expectedVersion != null && !expectedVersion.equals(key.getVersion()))
+                || productRepository.deleteOwnedProduct(id, userId, key.getVersion()) == 0) {
+            explainUnmatchedDelete(id, userId, expectedVersion);
+        }
+
+        // persist, not save: the id is assigned, and save() would SELECT it first to decide insert vs merge
+        entityManager.persist(new ProductTombstone(id, userId,
+                LocalDateTime.now().truncatedTo(ChronoUnit.MICROS)));
+        productOutbox.recordDeletion(id, key.getVersion());
+        eventPublisher.publishEvent(new ProductChangeEvent(
+                ProductEventType.DELETED, id, userId, key.getSku(), null));
+
+        if (stockBuffer.isHotSku(key.getSku())) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stockBuffer.evict(id);
+                }
+            });
+        }
 
+        logger.info("Product deleted successfully: {}", id);
+    }
+
+    // Always throws: 404, 403 or 412, whichever kept the DELETE from matching
+    private void explainUnmatchedDelete(UUID id, UUID userId, Long expectedVersion) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> {
                     logger.error("Product not found with ID: {}", id);
                     return new ProductNotFoundException("Product not found with ID: " + id);
                 });
 
-        logger.debug("Product found: {}", product.getName());
-
-        if (!isOwner(product, authenticatedEmail)) {
+        if (!isOwner(product, userId)) {
             logger.error("User {} attempted to delete product {} owned by {}",
-                    authenticatedEmail, id, product.getOwner().getEmail());
+                    userId, id, product.getOwner().getId());
             throw new UnauthorizedAccessException("You are not authorized to delete this product");
         }
 
-        logger.debug("Ownership verified");
+        checkVersion(product, expectedVersion);
+
+        // Same owner and version, yet nothing deleted: it changed in between
+        throw new PreconditionFailedException("Product " + id + " has been modified by another request");
+    }
 
-        productRepository.delete(product);
+    // Runs outside a transaction so the write-behind path never checks out a connection;
+    // the cold path opens one for its conditional UPDATE and outbox row.
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StockLevelDTO adjustStock(UUID id, int delta, UUID userId) {
+        logger.info("Adjusting stock of product ID: {} by {} for user: {}", id, delta, userId);
 
-        logger.info("Product deleted successfully: {}", id);
+        if (delta == 0) {
+            throw new InvalidRequestException("Stock delta must not be zero");
+        }
+
+        // Anyone signed in may consume stock; only the owner may restock
+        if (delta > 0 && !productRepository.existsByIdAndOwnerId(id, userId)) {
+            if (!productRepository.existsById(id)) {
+                logger.error("Product not found with ID: {}", id);
+                throw new ProductNotFoundException("Product not found with ID: " + id);
+            }
+            logger.error("User {} attempted to restock product {}", userId, id);
+            throw new UnauthorizedAccessException("You are not authorized to restock this product");
+        }
+
+        if (stockBuffer.isHot(id)) {
+            long available = stockBuffer.adjust(id, delta);
+            logger.debug("Hot product {} stock now {}", id, available);
+            return new StockLevelDTO(id, (int) available);
+        }
+
+        Integer available = writeTransaction.execute(status -> {
+            if (productRepository.adjustQuantity(id, delta, LocalDateTime.now()) == 0) {
+                if (!productRepository.existsById(id)) {
+                    logger.error("Product not found with ID: {}", id);
+                    throw new ProductNotFoundException("Product not found with ID: " + id);
+                }
+                logger.error("Insufficient stock for product {} (delta {})", id, delta);
+                throw new InsufficientStockException("Not enough stock for product " + id);
+            }
+            return productOutbox.recordStockChange(id, 0)
+                    .map(ProductResponseDTO::getAvailableQuantity)
+                    .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + id));
+        });
+
+        logger.info("Available stock of product {} is now {}", id, available);
+
+        return new StockLevelDTO(id, available);
     }
 
     @Override
-    public boolean isOwner(Product product, String userEmail) {
-        String ownerEmail = product.getOwner().getEmail();
-        boolean isOwner = ownerEmail.equals(userEmail);
+    public boolean isOwner(Product product, UUID userId) {
+        // Reading the id of a lazy owner proxy does not load the user
+        UUID ownerId = product.getOwner().getId();
+        boolean isOwner = ownerId.equals(userId);
 
         logger.debug("Ownership check: product owner={}, user={}, isOwner={}",
-                ownerEmail, userEmail, isOwner);
+                ownerId, userId, isOwner);
 
         return isOwner;
     }
 
+    // The early check gives a clean 412 for stale clients; a concurrent writer that slips in between
+    // the read and the flush is still caught by Hibernate's "where version = ?" on the UPDATE/DELETE.
+    private void checkVersion(Product product, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            logger.error("Version mismatch for product {}: expected {}, current {}",
+                    product.getId(), expectedVersion, product.getVersion());
+            throw new PreconditionFailedException("Product " + product.getId() + " has been modified by another request");
+        }
+    }
+
     private ProductResponseDTO convertToResponseDTO(Product product) {
+        return toResponseDTO(product, stockBuffer.pendingDelta(product.getId(), product.getVersion()));
+    }
+
+    // pendingDelta: stock accepted by the write-behind buffer that the row does not show yet
+    static ProductResponseDTO toResponseDTO(Product product, long pendingDelta) {
         ProductResponseDTO dto = new ProductResponseDTO();
         dto.setId(product.getId());
         dto.setName(product.getName());
         dto.setDescription(product.getDescription());
         dto.setSku(product.getSku());
         dto.setManufacturer(product.getManufacturer());
-        dto.setQuantity(product.getQuantity());
+        int quantity = product.getQuantity() + (int) pendingDelta;
+        dto.setQuantity(quantity);
+        dto.setAvailableQuantity(Math.max(0, quantity - product.getReservedQuantity()));
         dto.setDateAdded(product.getDateAdded());
         dto.setDateLastUpdated(product.getDateLastUpdated());
         dto.setOwnerUserId(product.getOwner().getId());
+        dto.setVersion(product.getVersion());
 
         logger.debug("Converted product {} to DTO", product.getId());
 
@@ -226,18 +742,32 @@ public class ProductServiceImpl implements ProductService {
 **1. createProduct()** - Creates new product
 ```
 - Check if SKU exists (must be unique)
-- Find owner user by email
+- Owner is a reference built from the authenticated user's id (no SELECT on users)
 - Create product entity
 - Set all fields including owner
 - Save to database with timestamps
+- Record a CREATED event in the outbox (same transaction)
 - Return response DTO
 ```
 
+**1b. importProducts()** - One chunk of a CSV import
+```
+- One transaction per chunk: a bad chunk never rolls back the chunks before it
+- SKUs already taken are looked up in one query and skipped
+- Inserts are flushed together (JDBC batching), outbox rows recorded as for createProduct
+- Persistence context cleared afterwards, so memory does not grow with the file
+```
+
 **2. getProductById()** - Get single product
 ```
 - Find product by ID
 - If not found → throw exception (404)
 - Convert to DTO and return
+- Concurrent requests for the same ID share one in-flight load (SingleFlight): one findById,
+  every caller gets its DTO or its 404; joiners wait up to coalescing.max-wait-ms, then 503
+- The load runs in its own short read-only transaction, so waiting callers hold no connection
+- webapp.product.batching.enabled: loads of different IDs within window-ms (up to max-batch-size)
+  are merged into one findAllById (BatchLoader); missing IDs still 404 individually
 ```
 
 **3. getAllProducts()** - Get all products
@@ -249,31 +779,58 @@ public class ProductServiceImpl implements ProductService {
 
 **4. getProductsByOwner()** - Get user's products
 ```
-- Find all products by owner email
+- Find all products by owner id (products.owner_user_id, no join to users)
 - Convert to DTOs
 - Return list
 ```
 
+**4b. getChangesSince()** - Delta sync (GET /v1/product/changes)
+```
+- Token = (timestamp, id) of the last change the client saw; none = from the start
+- Products with date_last_updated past it + tombstones deleted past it, merged in order
+- One bounded page per call, both reads on an index
+- Stops settle-ms short of "now" so rows still committing are not skipped
+- Token older than the tombstone retention → 410, client reloads everything
+```
+
 **5. updateProduct()** - Update product
 ```
-- Find product by ID
-- Check if user is owner (IMPORTANT!)
-- If not owner → throw UnauthorizedAccessException (403)
-- If SKU changed, check it's unique
-- Update all fields
-- Save and return
+- One conditional UPDATE: WHERE id = ? AND owner_user_id = ? AND (If-Match version)
+  AND quantity not below reserved AND some field differs
+- 1 row → re-read the product, record an UPDATED event in the outbox (same transaction), return
+- 0 rows → only now load the product to find out why:
+  missing → 404, other owner → 403, stale If-Match → 412, below reserved → 409,
+  otherwise nothing differed → return it unchanged (version and dateLastUpdated stay)
+- SKU taken by another product → the unique constraint fails the UPDATE → 400
+- Hot SKUs take the old load-then-write path (quantity becomes a delta on live stock)
+```
+
+**5b. patchProduct()** - JSON Merge Patch (RFC 7386)
+```
+- Start from the current product, apply only the fields in the patch body
+- "description": null clears it; required fields set to null → 400
+- Validate the result, then write only the fields that differ (the product is loaded anyway)
 ```
 
 **6. deleteProduct()** - Delete product
 ```
-- Find product by ID
-- Check if user is owner (IMPORTANT!)
-- If not owner → throw UnauthorizedAccessException (403)
-- Delete product
+- Read just SKU and version, WHERE id = ? AND owner_user_id = ? (no entity, no owner load)
+- DELETE WHERE id = ? AND owner_user_id = ? AND version = ?
+- Either matched nothing → load the product to answer 404, 403 or 412
+- Record a DELETED event in the outbox (same transaction)
+- Insert a tombstone so delta sync can report the delete (purged after retention)
+```
+
+**7. adjustStock()** - Change stock by a delta
+```
+- Negative delta = sale (any signed-in user), positive = restock (owner only)
+- Normal products: one conditional UPDATE, 409 if it would go below 0
+- The UPDATE bumps the version, so it records an UPDATED outbox event like any other update
+- Hot SKUs (webapp.stock.write-behind.*): in-memory striped counter, flushed in batches
 ```
 
-**7. isOwner()** - Check ownership
+**8. isOwner()** - Check ownership
 ```
-- Compare product owner's email with user's email
+- Compare the product's owner id with the user's id (the lazy owner is not loaded)
 - Return true/false
 - Used by update and delete methods*/
\ No newline at end of file
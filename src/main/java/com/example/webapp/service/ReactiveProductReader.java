@@ -0,0 +1,135 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.ProductResponseDTO;
+import com.example.webapp.exception.ProductNotFoundException;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Product reads over R2DBC. Nothing here blocks: a request waiting on the database holds
+ * neither a servlet thread nor a JDBC connection. The results are the same DTOs that
+ * ProductServiceImpl returns, including stock that write-behind has not flushed yet.
+ */
+@Service
+public class ReactiveProductReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveProductReader.class);
+
+    private static final String SELECT_PRODUCT = "SELECT id, name, description, sku, manufacturer, quantity, "
+            + "reserved_quantity, date_added, date_last_updated, owner_user_id, version FROM products";
+
+    private final WriteBehindStockBuffer stockBuffer;
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveProductReader(
+            WriteBehindStockBuffer stockBuffer,
+            @Value("${webapp.reactive.url}") String url,
+            @Value("${webapp.reactive.username:}") String username,
+            @Value("${webapp.reactive.password:}") String password,
+            @Value("${webapp.reactive.maximum-pool-size:20}") int maximumPoolSize
+    ) {
+        this.stockBuffer = stockBuffer;
+
+        // Not a ConnectionFactory bean: Boot drops the JDBC DataSource when it sees one
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(0)
+                .maxSize(Math.max(1, maximumPoolSize))
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        connectionPool.dispose();
+    }
+
+    public Mono<ProductResponseDTO> getProductById(UUID id) {
+        logger.info("Fetching product with ID: {} (reactive)", id);
+
+        return databaseClient.sql(SELECT_PRODUCT + " WHERE id = :id")
+                .bind("id", toBytes(id))
+                .map(this::toResponseDTO)
+                .one()
+                .switchIfEmpty(Mono.error(() -> {
+                    logger.error("Product not found with ID: {}", id);
+                    return new ProductNotFoundException("Product not found with ID: " + id);
+                }));
+    }
+
+    /**
+     * Every product in id (creation) order, emitted row by row as the driver reads them.
+     */
+    public Flux<ProductResponseDTO> getAllProducts() {
+        logger.info("Fetching all products (reactive)");
+
+        return databaseClient.sql(SELECT_PRODUCT + " ORDER BY id")
+                .map(this::toResponseDTO)
+                .all();
+    }
+
+    private ProductResponseDTO toResponseDTO(Readable row) {
+        UUID id = toUuid(row.get("id", byte[].class));
+
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(id);
+        dto.setName(row.get("name", String.class));
+        dto.setDescription(row.get("description", String.class));
+        dto.setSku(row.get("sku", String.class));
+        dto.setManufacturer(row.get("manufacturer", String.class));
+        int quantity = row.get("quantity", Integer.class) + (int) stockBuffer.pendingDelta(id, row.get("version", Long.class));
+        dto.setQuantity(quantity);
+        dto.setAvailableQuantity(Math.max(0, quantity - row.get("reserved_quantity", Integer.class)));
+        dto.setDateAdded(row.get("date_added", LocalDateTime.class));
+        dto.setDateLastUpdated(row.get("date_last_updated", LocalDateTime.class));
+        dto.setOwnerUserId(toUuid(row.get("owner_user_id", byte[].class)));
+        dto.setVersion(row.get("version", Long.class));
+        return dto;
+    }
+
+    // Same layout Hibernate uses for @JdbcTypeCode(SqlTypes.BINARY) UUIDs: most significant bits first
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static UUID toUuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
+
+/*
+Explanation of ReactiveProductReader:
+
+Backs /v1/reactive/product. Spring Data JPA and JDBC block the calling thread until MySQL
+answers; here the R2DBC driver (r2dbc-mysql) returns a Mono/Flux immediately and completes
+it when the rows arrive, so thousands of slow reads can be in flight on a handful of threads.
+
+Reads only. Writes stay on ProductServiceImpl and JPA, so there is one transaction manager,
+one place that records change events, and one write path to reason about.
+
+The R2DBC pool (webapp.reactive.*) is separate from the JDBC pool; point it at the read
+replica to keep catalog traffic off the primary.
+*/
@@ -0,0 +1,70 @@
+package com.example.webapp.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timer wheel for reservation deadlines. Scheduling is a lock-free queue append;
+ * each tick only looks at the slots that elapsed since the previous one, so the cost of
+ * expiry is proportional to what is due, not to how many holds are open.
+ *
+ * Deadlines further out than one revolution stay in their slot and are skipped until the
+ * wheel comes round to the right lap. The wheel is memory only; after a restart the
+ * database sweep in {@link ReservationServiceImpl} picks up whatever was scheduled here.
+ */
+final class ReservationExpiryWheel {
+
+    private final long tickMillis;
+    private final int mask;
+    private final ConcurrentLinkedQueue<Entry>[] slots;
+    private volatile long lastTick;
+
+    @SuppressWarnings("unchecked")
+    ReservationExpiryWheel(long tickMillis, int size, long nowMillis) {
+        int capacity = Integer.highestOneBit(Math.max(2, size - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = capacity - 1;
+        this.slots = new ConcurrentLinkedQueue[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.lastTick = nowMillis / tickMillis;
+    }
+
+    void schedule(UUID reservationId, long deadlineMillis) {
+        // Never drop into a slot the cursor has already passed, or it would wait a full lap
+        long tick = Math.max(deadlineMillis / tickMillis, lastTick + 1);
+        slots[(int) (tick & mask)].add(new Entry(reservationId, deadlineMillis));
+    }
+
+    /**
+     * Moves the cursor to now and returns the reservations whose deadline has passed.
+     */
+    synchronized List<UUID> advance(long nowMillis) {
+        List<UUID> due = new ArrayList<>();
+        long nowTick = nowMillis / tickMillis;
+        long steps = Math.min(nowTick - lastTick, slots.length);
+
+        for (long tick = nowTick - steps + 1; tick <= nowTick; tick++) {
+            Iterator<Entry> it = slots[(int) (tick & mask)].iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (entry.deadlineMillis <= nowMillis) {
+                    due.add(entry.reservationId);
+                    it.remove();
+                }
+            }
+        }
+
+        if (nowTick > lastTick) {
+            lastTick = nowTick;
+        }
+        return due;
+    }
+
+    private record Entry(UUID reservationId, long deadlineMillis) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.ReservationRequestDTO;
+import com.example.webapp.dto.ReservationResponseDTO;
+
+import java.util.UUID;
+
+public interface ReservationService {
+
+    ReservationResponseDTO createReservation(ReservationRequestDTO reservationRequestDTO, String holderEmail);
+
+    ReservationResponseDTO getReservation(UUID id, String holderEmail);
+
+    ReservationResponseDTO confirmReservation(UUID id, String holderEmail);
+
+    ReservationResponseDTO releaseReservation(UUID id, String holderEmail);
+
+    int expireDueReservations();
+
+    int sweepExpiredReservations();
+}
@@ -0,0 +1,322 @@
+package com.example.webapp.service;
+
+import com.example.webapp.dto.ReservationRequestDTO;
+import com.example.webapp.dto.ReservationResponseDTO;
+import com.example.webapp.exception.InsufficientStockException;
+import com.example.webapp.exception.InvalidRequestException;
+import com.example.webapp.exception.ProductNotFoundException;
+import com.example.webapp.exception.ReservationNotFoundException;
+import com.example.webapp.exception.ReservationStateException;
+import com.example.webapp.exception.UnauthorizedAccessException;
+import com.example.webapp.model.ReservationStatus;
+import com.example.webapp.model.StockReservation;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.StockReservationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Transactional
+public class ReservationServiceImpl implements ReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationServiceImpl.class);
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WriteBehindStockBuffer stockBuffer;
+
+    @Autowired
+    private ProductOutbox productOutbox;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${webapp.reservation.default-ttl-seconds:300}")
+    private int defaultTtlSeconds;
+
+    @Value("${webapp.reservation.max-ttl-seconds:3600}")
+    private int maxTtlSeconds;
+
+    @Value("${webapp.reservation.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${webapp.reservation.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${webapp.reservation.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    private ReservationExpiryWheel expiryWheel;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        expiryWheel = new ReservationExpiryWheel(tickMillis, wheelSize, System.currentTimeMillis());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public ReservationResponseDTO createReservation(ReservationRequestDTO reservationRequestDTO, String holderEmail) {
+        UUID productId = reservationRequestDTO.getProductId();
+        int units = reservationRequestDTO.getQuantity();
+        int ttlSeconds = reservationRequestDTO.getTtlSeconds() != null
+                ? reservationRequestDTO.getTtlSeconds()
+                : defaultTtlSeconds;
+
+        logger.info("Reserving {} units of product {} for {} ({}s)", units, productId, holderEmail, ttlSeconds);
+
+        if (ttlSeconds > maxTtlSeconds) {
+            throw new InvalidRequestException("Reservation TTL cannot exceed " + maxTtlSeconds + " seconds");
+        }
+
+        if (stockBuffer.isHot(productId)) {
+            // The in-memory counter is the source of truth for hot SKUs, so take the units there
+            // first; reserved_quantity then only records the hold
+            stockBuffer.reserve(productId, units);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        stockBuffer.release(productId, units);
+                    }
+                }
+            });
+            if (productRepository.addReservedQuantity(productId, units) == 0) {
+                throw new ProductNotFoundException("Product not found with ID: " + productId);
+            }
+        } else if (productRepository.reserveQuantity(productId, units) == 0) {
+            if (!productRepository.existsById(productId)) {
+                logger.error("Product not found with ID: {}", productId);
+                throw new ProductNotFoundException("Product not found with ID: " + productId);
+            }
+            logger.error("Not enough unreserved stock of product {} for {} units", productId, units);
+            throw new InsufficientStockException("Not enough stock for product " + productId);
+        }
+
+        StockReservation reservation = new StockReservation();
+        reservation.setProductId(productId);
+        reservation.setHolderEmail(holderEmail);
+        reservation.setQuantity(units);
+        reservation.setStatus(ReservationStatus.ACTIVE);
+        reservation.setExpiresAt(LocalDateTime.now().plusSeconds(ttlSeconds));
+
+        StockReservation savedReservation = reservationRepository.save(reservation);
+
+        expiryWheel.schedule(savedReservation.getId(), toEpochMillis(savedReservation.getExpiresAt()));
+
+        logger.info("Reservation {} created, expires at {}", savedReservation.getId(), savedReservation.getExpiresAt());
+
+        return convertToResponseDTO(savedReservation);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationResponseDTO getReservation(UUID id, String holderEmail) {
+        return convertToResponseDTO(loadOwnReservation(id, holderEmail));
+    }
+
+    // A hold found expired here is expired on the spot (lazy expiry) and that must survive the 409
+    @Override
+    @Transactional(noRollbackFor = ReservationStateException.class)
+    public ReservationResponseDTO confirmReservation(UUID id, String holderEmail) {
+        logger.info("Confirming reservation {} for {}", id, holderEmail);
+
+        StockReservation reservation = loadOwnReservation(id, holderEmail);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (reservationRepository.confirmIfActive(id, now) == 0) {
+            if (reservation.getStatus() == ReservationStatus.ACTIVE && !reservation.getExpiresAt().isAfter(now)) {
+                expire(reservation, now);
+                throw new ReservationStateException("Reservation " + id + " has expired");
+            }
+            throw new ReservationStateException("Reservation " + id + " is no longer active");
+        }
+
+        productRepository.commitReservedQuantity(reservation.getProductId(), reservation.getQuantity(), now);
+        productOutbox.recordStockChange(reservation.getProductId(), stockBuffer.pendingDelta(reservation.getProductId()));
+
+        logger.info("Reservation {} confirmed", id);
+
+        // The status moved with a bulk UPDATE; leave the managed entity alone so Hibernate does not write it again
+        ReservationResponseDTO dto = convertToResponseDTO(reservation);
+        dto.setStatus(ReservationStatus.CONFIRMED);
+        return dto;
+    }
+
+    @Override
+    public ReservationResponseDTO releaseReservation(UUID id, String holderEmail) {
+        logger.info("Releasing reservation {} for {}", id, holderEmail);
+
+        StockReservation reservation = loadOwnReservation(id, holderEmail);
+
+        if (reservationRepository.releaseIfActive(id) == 0) {
+            throw new ReservationStateException("Reservation " + id + " is no longer active");
+        }
+
+        returnHeldUnits(reservation);
+
+        logger.info("Reservation {} released", id);
+
+        ReservationResponseDTO dto = convertToResponseDTO(reservation);
+        dto.setStatus(ReservationStatus.RELEASED);
+        return dto;
+    }
+
+    /**
+     * Wheel tick: expires whatever came due since the last tick, one short transaction each.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${webapp.reservation.tick-ms:1000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int expireDueReservations() {
+        List<UUID> due = expiryWheel.advance(System.currentTimeMillis());
+        return expireAll(due);
+    }
+
+    /**
+     * Backstop for holds the wheel does not know about (created before a restart, or on
+     * another instance). Uses the (status, expires_at) index and a bounded page per run.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${webapp.reservation.sweep-interval-ms:60000}",
+            initialDelayString = "${webapp.reservation.sweep-initial-delay-ms:5000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int sweepExpiredReservations() {
+        List<UUID> due = reservationRepository.findIdsByStatusAndExpiresAtBefore(
+                ReservationStatus.ACTIVE, LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+        return expireAll(due);
+    }
+
+    private int expireAll(List<UUID> reservationIds) {
+        int expired = 0;
+        for (UUID reservationId : reservationIds) {
+            try {
+                Boolean done = transactionTemplate.execute(status ->
+                        reservationRepository.findById(reservationId)
+                                .map(reservation -> expire(reservation, LocalDateTime.now()))
+                                .orElse(false));
+                if (Boolean.TRUE.equals(done)) {
+                    expired++;
+                }
+            } catch (RuntimeException ex) {
+                logger.error("Could not expire reservation {}: {}", reservationId, ex.getMessage());
+            }
+        }
+
+        if (expired > 0) {
+            logger.info("Expired {} reservations", expired);
+        }
+        return expired;
+    }
+
+    private boolean expire(StockReservation reservation, LocalDateTime now) {
+        if (reservationRepository.expireIfDue(reservation.getId(), now) == 0) {
+            return false;
+        }
+        returnHeldUnits(reservation);
+        logger.debug("Reservation {} expired", reservation.getId());
+        return true;
+    }
+
+    private void returnHeldUnits(StockReservation reservation) {
+        UUID productId = reservation.getProductId();
+        int units = reservation.getQuantity();
+
+        productRepository.addReservedQuantity(productId, -units);
+        // A hot counter only gets the units back once reserved_quantity has let go of them too;
+        // returning them before a rollback would let the product oversell
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stockBuffer.release(productId, units);
+            }
+        });
+    }
+
+    private StockReservation loadOwnReservation(UUID id, String holderEmail) {
+        StockReservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.error("Reservation not found with ID: {}", id);
+                    return new ReservationNotFoundException("Reservation not found with ID: " + id);
+                });
+
+        if (!reservation.getHolderEmail().equals(holderEmail)) {
+            logger.error("User {} attempted to access reservation {} held by {}", holderEmail, id, reservation.getHolderEmail());
+            throw new UnauthorizedAccessException("You are not authorized to access this reservation");
+        }
+
+        return reservation;
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private ReservationResponseDTO convertToResponseDTO(StockReservation reservation) {
+        ReservationResponseDTO dto = new ReservationResponseDTO();
+        dto.setId(reservation.getId());
+        dto.setProductId(reservation.getProductId());
+        dto.setQuantity(reservation.getQuantity());
+        dto.setStatus(reservation.getStatus());
+        dto.setExpiresAt(reservation.getExpiresAt());
+        dto.setCreatedAt(reservation.getCreatedAt());
+        return dto;
+    }
+}
+
+/*
+* ### Explanation of ReservationService:
+
+**Available stock = quantity - reserved_quantity**
+
+**1. createReservation()**
+```
+- One conditional UPDATE: reserved_quantity += n WHERE quantity - reserved_quantity >= n
+- 0 rows → 404 (no product) or 409 (not enough stock)
+- Insert the reservation and put its deadline on the expiry wheel
+- Hot SKUs take the units from the in-memory counter instead (see WriteBehindStockBuffer)
+```
+
+**2. confirmReservation()**
+```
+- ACTIVE → CONFIRMED only if not past expires_at
+- quantity -= n, reserved_quantity -= n (stock leaves for good)
+- That bumps the product's version, so an UPDATED outbox event is recorded with it
+- Too late → the hold is expired right there and 409 is returned
+```
+
+**3. releaseReservation()**
+```
+- ACTIVE → RELEASED, reserved_quantity -= n
+- Hot SKUs get the units back in memory only after the commit
+```
+
+**4. Expiry**
+```
+- Timer wheel ticks every webapp.reservation.tick-ms and only touches due holds
+- Database sweep every webapp.reservation.sweep-interval-ms as a backstop
+- Never a full table scan and never a table lock, only single-row UPDATEs
+```
+*/
@@ -0,0 +1,73 @@
+package com.example.webapp.service;
+
+import com.example.webapp.exception.InFlightLoadTimeoutException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader, callers that
+ * arrive while it is running wait for its result (or its exception) instead of loading again.
+ * Nothing is cached; once the load finishes the next caller starts a new one.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitMillis;
+
+    SingleFlight(long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Runs loader for key, or joins the load already running for it. A joining caller waits
+     * at most maxWaitMillis and then gets an InFlightLoadTimeoutException; the load itself
+     * carries on for whoever started it.
+     */
+    V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> ours = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, ours);
+        if (running != null) {
+            return await(key, running, maxWaitMillis);
+        }
+
+        try {
+            V value = loader.get();
+            inFlight.remove(key, ours);
+            ours.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, ours);
+            ours.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Waits at most maxWaitMillis for a load someone else is running, rethrowing its exception.
+     */
+    static <V> V await(Object key, CompletableFuture<V> running, long maxWaitMillis) {
+        try {
+            return running.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            // The same exception the loading caller got, e.g. ProductNotFoundException
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException ex) {
+            throw new InFlightLoadTimeoutException("Timed out after " + maxWaitMillis + " ms waiting for " + key);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InFlightLoadTimeoutException("Interrupted while waiting for " + key);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.webapp.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory stock for one hot product, split across stripes so concurrent decrements
+ * mostly CAS different cache lines instead of fighting over one row lock.
+ *
+ * budget  - units still available to sell, summed over all stripes. A stripe never goes
+ *           below zero, so the sum can never oversell.
+ * pending - net delta accepted since the last flush, per stripe. Only written while the
+ *           owning stripe lock in {@link WriteBehindStockBuffer} is held.
+ */
+final class StripedStockCounter {
+
+    // 8 longs = 64 bytes, keeps neighbouring stripes off the same cache line
+    private static final int PAD = 8;
+
+    private final int stripes;
+    private final AtomicLongArray budget;
+    private final AtomicLongArray pending;
+
+    StripedStockCounter(int stripes, long available) {
+        this.stripes = stripes;
+        this.budget = new AtomicLongArray(stripes * PAD);
+        this.pending = new AtomicLongArray(stripes * PAD);
+
+        long share = Math.max(available, 0) / stripes;
+        long remainder = Math.max(available, 0) % stripes;
+        for (int i = 0; i < stripes; i++) {
+            budget.set(i * PAD, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    /**
+     * Takes {@code units} out of the budget, preferring the caller's home stripe and
+     * borrowing from the others only when it runs dry. Returns false (and takes nothing)
+     * if the whole counter does not hold enough.
+     */
+    boolean tryTake(int home, long units) {
+        int homeSlot = home * PAD;
+        for (;;) {
+            long current = budget.get(homeSlot);
+            if (current < units) {
+                break;
+            }
+            if (budget.compareAndSet(homeSlot, current, current - units)) {
+                return true;
+            }
+        }
+
+        long taken = 0;
+        for (int k = 0; k < stripes && taken < units; k++) {
+            int slot = ((home + k) % stripes) * PAD;
+            for (;;) {
+                long current = budget.get(slot);
+                long grab = Math.min(current, units - taken);
+                if (grab <= 0) {
+                    break;
+                }
+                if (budget.compareAndSet(slot, current, current - grab)) {
+                    taken += grab;
+                    break;
+                }
+            }
+        }
+
+        if (taken < units) {
+            budget.addAndGet(homeSlot, taken);
+            return false;
+        }
+        return true;
+    }
+
+    void give(int home, long units) {
+        budget.addAndGet(home * PAD, units);
+    }
+
+    void addPending(int stripe, long delta) {
+        pending.addAndGet(stripe * PAD, delta);
+    }
+
+    long drainPending(int stripe) {
+        return pending.getAndSet(stripe * PAD, 0);
+    }
+
+    long pendingDelta() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += pending.get(i * PAD);
+        }
+        return sum;
+    }
+
+    long available() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += budget.get(i * PAD);
+        }
+        return sum;
+    }
+}
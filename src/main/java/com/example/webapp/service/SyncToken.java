@@ -0,0 +1,57 @@
+package com.example.webapp.service;
+
+import com.example.webapp.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Position in the product change feed: the (timestamp, id) of the last change a client has
+ * seen. Opaque to clients (base64url), so the format can change without breaking them.
+ */
+record SyncToken(LocalDateTime at, UUID id) implements Comparable<SyncToken> {
+
+    /** Before every change; what a client without a token starts from. */
+    static final SyncToken START = new SyncToken(LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0L, 0L));
+
+    static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    // Unsigned, byte by byte: the order H2's UUID and MySQL's BINARY(16) sort in, which
+    // UUID.compareTo (signed longs) does not match
+    static final Comparator<UUID> DATABASE_ORDER = (left, right) -> {
+        int high = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    };
+
+    static SyncToken parse(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("no separator");
+            }
+            return new SyncToken(LocalDateTime.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidRequestException("Malformed sync token: " + token);
+        }
+    }
+
+    String encode() {
+        String raw = at + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int compareTo(SyncToken other) {
+        int byTime = at.compareTo(other.at);
+        return byTime != 0 ? byTime : DATABASE_ORDER.compare(id, other.id);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.webapp.service;
 
+import com.example.webapp.dto.UserPatchDTO;
 import com.example.webapp.dto.UserRequestDTO;
 import com.example.webapp.dto.UserResponseDTO;
 import com.example.webapp.dto.UserUpdateDTO;
@@ -15,6 +16,8 @@ public interface UserService {
 
     UserResponseDTO updateUser(String email, UserUpdateDTO userUpdateDTO);
 
+    UserResponseDTO patchUser(String email, UserPatchDTO userPatchDTO);
+
     User loadUserByEmail(String email);
 
     boolean emailExists(String email);
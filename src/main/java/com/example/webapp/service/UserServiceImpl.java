@@ -1,5 +1,6 @@
 package com.example.webapp.service;
 
+import com.example.webapp.dto.UserPatchDTO;
 import com.example.webapp.dto.UserRequestDTO;
 import com.example.webapp.dto.UserResponseDTO;
 import com.example.webapp.dto.UserUpdateDTO;
@@ -12,12 +13,18 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 
+/**
+ * No class-level @Transactional: the write paths hash passwords first and only then open a
+ * short transaction, so the ~100 ms of BCrypt never holds a pooled connection.
+ */
 @Service
-@Transactional
 public class UserServiceImpl implements UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
@@ -31,34 +38,53 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     @Override
     public UserResponseDTO createUser(UserRequestDTO userRequestDTO) {
         logger.info("Creating user with email: {}", userRequestDTO.getEmail());
 
+        // Cheap rejection before spending BCrypt time on a duplicate
         if (userRepository.existsByEmail(userRequestDTO.getEmail())) {
             logger.error("Email already exists: {}", userRequestDTO.getEmail());
             throw new UserAlreadyExistsException("Email already exists");
         }
 
-        User user = new User();
-        user.setEmail(userRequestDTO.getEmail());
-
         String hashedPassword = passwordEncoder.encode(userRequestDTO.getPassword());
-        user.setPassword(hashedPassword);
 
-        user.setFirstName(userRequestDTO.getFirstName());
-        user.setLastName(userRequestDTO.getLastName());
+        return transactionTemplate.execute(status -> {
+            // Checked again on the primary: another signup may have won in the meantime
+            if (userRepository.existsByEmail(userRequestDTO.getEmail())) {
+                logger.error("Email already exists: {}", userRequestDTO.getEmail());
+                throw new UserAlreadyExistsException("Email already exists");
+            }
 
-        User savedUser = userRepository.save(user);
+            User user = new User();
+            user.setEmail(userRequestDTO.getEmail());
+            user.setPassword(hashedPassword);
+            user.setFirstName(userRequestDTO.getFirstName());
+            user.setLastName(userRequestDTO.getLastName());
 
-        entityManager.flush();
-        entityManager.refresh(savedUser);
-        logger.info("User created successfully with ID: {}", savedUser.getId());
+            User savedUser = userRepository.save(user);
 
-        return convertToResponseDTO(savedUser);
+            entityManager.flush();
+            entityManager.refresh(savedUser);
+            logger.info("User created successfully with ID: {}", savedUser.getId());
+
+            return convertToResponseDTO(savedUser);
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserResponseDTO getUserByEmail(String email) {
         logger.info("Fetching user with email: {}", email);
 
@@ -75,28 +101,59 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserResponseDTO updateUser(String email, UserUpdateDTO userUpdateDTO) {
-        logger.info("Updating user with email: {}", email);
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    logger.error("User not found with email: {}", email);
-                    return new UserNotFoundException("User not found");
-                });
-
-        user.setFirstName(userUpdateDTO.getFirstName());
-        user.setLastName(userUpdateDTO.getLastName());
-
-        String hashedPassword = passwordEncoder.encode(userUpdateDTO.getPassword());
-        user.setPassword(hashedPassword);
-
-        User updatedUser = userRepository.save(user);
+        return patchUser(email, new UserPatchDTO(
+                userUpdateDTO.getFirstName(),
+                userUpdateDTO.getLastName(),
+                userUpdateDTO.getPassword()));
+    }
 
-        logger.info("User updated successfully: {}", updatedUser.getId());
+    @Override
+    public UserResponseDTO patchUser(String email, UserPatchDTO userPatchDTO) {
+        logger.info("Updating user with email: {}", email);
 
-        return convertToResponseDTO(updatedUser);
+        // BCrypt is the expensive part of an update, so it only runs for an actual new password,
+        // and before the transaction takes a connection
+        String hashedPassword = userPatchDTO.getPassword() != null
+                ? passwordEncoder.encode(userPatchDTO.getPassword())
+                : null;
+
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> {
+                        logger.error("User not found with email: {}", email);
+                        return new UserNotFoundException("User not found");
+                    });
+
+            boolean changed = false;
+
+            if (userPatchDTO.getFirstName() != null && !userPatchDTO.getFirstName().equals(user.getFirstName())) {
+                user.setFirstName(userPatchDTO.getFirstName());
+                changed = true;
+            }
+            if (userPatchDTO.getLastName() != null && !userPatchDTO.getLastName().equals(user.getLastName())) {
+                user.setLastName(userPatchDTO.getLastName());
+                changed = true;
+            }
+            if (hashedPassword != null) {
+                user.setPassword(hashedPassword);
+                changed = true;
+            }
+
+            if (!changed) {
+                logger.info("User {} unchanged, nothing written", user.getId());
+                return convertToResponseDTO(user);
+            }
+
+            User updatedUser = userRepository.save(user);
+
+            logger.info("User updated successfully: {}", updatedUser.getId());
+
+            return convertToResponseDTO(updatedUser);
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User loadUserByEmail(String email) {
         logger.debug("Loading user by email: {}", email);
 
@@ -108,6 +165,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean emailExists(String email) {
         boolean exists = userRepository.existsByEmail(email);
         logger.debug("Email {} exists: {}", email, exists);
@@ -147,11 +205,10 @@ public class UserServiceImpl implements UserService {
 **1. createUser()**
 ```
 Step 1: Check if email exists → if yes, throw exception
-Step 2: Create User object
-Step 3: Hash password with BCrypt
-Step 4: Save to database
-Step 5: Convert User to UserResponseDTO
-Step 6: Return response
+Step 2: Hash password with BCrypt (no transaction open yet)
+Step 3: In a short transaction: check the email again, create and save the User
+Step 4: Convert User to UserResponseDTO
+Step 5: Return response
 ```
 
 **2. getUserByEmail()**
@@ -161,13 +218,14 @@ Step 2: If not found → throw exception
 Step 3: Convert to DTO and return
 ```
 
-**3. updateUser()**
+**3. updateUser() / patchUser()**
 ```
-Step 1: Find user by email
-Step 2: Update firstName, lastName
-Step 3: Hash new password
-Step 4: Save updated user
-Step 5: Convert to DTO and return
+Step 1: Hash the password only if one was sent (the controller drops it when it
+        equals the password the request logged in with), before the transaction
+Step 2: In a short transaction: find user by email
+Step 3: Set firstName, lastName only if they differ
+Step 4: Nothing changed → return without writing
+Step 5: Save (@DynamicUpdate: only the changed columns) and return the DTO
 ```
 
 **4. convertToResponseDTO()**
@@ -179,7 +237,9 @@ Helper method:
 Important annotations:
 
 @Service - Marks this as a service component
-@Transactional - All methods run in database transactions
+TransactionTemplate - Write paths open their transaction only after BCrypt is done
+@Transactional(readOnly = true) - Lookups: no dirty checking, and they may be served
+  by the read replica (see ReadReplicaConfig)
 @Autowired - Spring injects dependencies automatically
 
 Logger:
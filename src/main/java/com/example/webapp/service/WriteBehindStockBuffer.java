@@ -0,0 +1,448 @@
+package com.example.webapp.service;
+
+import com.example.webapp.exception.InsufficientStockException;
+import com.example.webapp.exception.ProductNotFoundException;
+import com.example.webapp.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Opt-in write-behind mode for hot SKUs. Stock deltas for the configured SKUs are taken from
+ * a {@link StripedStockCounter} in memory, journaled per stripe, and flushed to the products
+ * table as one UPDATE per product every flush interval instead of one row-lock per request.
+ *
+ * Reads add the not-yet-flushed delta on top of the stored quantity, so the API never shows
+ * a value older than what it has already accepted. What counts as not yet flushed depends on
+ * the row the reader holds: a batch being written is part of a row whose version is at least
+ * the one its UPDATE produced, and pending for any older row. Draining the counters and
+ * publishing the batch happen under one write lock that readers validate against, so no read
+ * sees the delta in both places or in neither.
+ *
+ * Every flush records the names of its journal files in stock_journal_applied in the same
+ * transaction as its UPDATEs. A file that outlives a crash is replayed only if that row is
+ * missing, so a batch is applied exactly once however the process dies.
+ */
+@Component
+public class WriteBehindStockBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindStockBuffer.class);
+
+    private final ProductRepository productRepository;
+    private final ProductOutbox productOutbox;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Set<String> hotSkus;
+    private final int stripes;
+    private final Path journalDirectory;
+
+    private final ConcurrentHashMap<UUID, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripeLocks;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final StampedLock drainLock = new StampedLock();
+    private StockJournal[] journals;
+
+    // Deltas already drained from the counters but not yet committed; retried until they are
+    private volatile Batch inFlight;
+
+    // Per product, the delta of the latest drained batch and the row version that contains it
+    private final ConcurrentHashMap<UUID, Flushed> flushed = new ConcurrentHashMap<>();
+
+    public WriteBehindStockBuffer(
+            ProductRepository productRepository,
+            ProductOutbox productOutbox,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${webapp.stock.write-behind.enabled:false}") boolean enabled,
+            @Value("${webapp.stock.write-behind.hot-skus:}") Set<String> hotSkus,
+            @Value("${webapp.stock.write-behind.stripes:8}") int stripes,
+            @Value("${webapp.stock.write-behind.journal-dir:${java.io.tmpdir}/webapp-stock-journal}") Path journalDirectory
+    ) {
+        this.productRepository = productRepository;
+        this.productOutbox = productOutbox;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.hotSkus = new HashSet<>(hotSkus);
+        this.hotSkus.remove("");
+        this.stripes = Math.max(1, stripes);
+        this.journalDirectory = journalDirectory;
+        this.stripeLocks = new ReentrantLock[this.stripes];
+        for (int i = 0; i < this.stripes; i++) {
+            stripeLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        // Replay even when disabled, so turning the feature off after a crash does not lose stock
+        recover();
+
+        if (!enabled) {
+            return;
+        }
+
+        Files.createDirectories(journalDirectory);
+        journals = new StockJournal[stripes];
+        for (int i = 0; i < stripes; i++) {
+            journals[i] = new StockJournal(journalDirectory, i);
+        }
+
+        logger.info("Write-behind stock enabled for SKUs {} ({} stripes, journal at {})",
+                hotSkus, stripes, journalDirectory);
+    }
+
+    public boolean isHotSku(String sku) {
+        return enabled && hotSkus.contains(sku);
+    }
+
+    /**
+     * True if stock changes for this product go through the in-memory counter. Costs one
+     * SKU lookup for products that have not been touched yet, and nothing when disabled.
+     */
+    public boolean isHot(UUID productId) {
+        if (!enabled || hotSkus.isEmpty()) {
+            return false;
+        }
+        if (counters.containsKey(productId)) {
+            return true;
+        }
+        return productRepository.findSkuById(productId).map(hotSkus::contains).orElse(false);
+    }
+
+    /**
+     * Applies a delta to a hot product and returns the stock now available.
+     * Throws {@link InsufficientStockException} instead of letting the counter go negative.
+     */
+    public long adjust(UUID productId, int delta) {
+        StripedStockCounter counter = counterFor(productId);
+        int stripe = stripeIndex();
+
+        if (delta < 0 && !counter.tryTake(stripe, -(long) delta)) {
+            throw new InsufficientStockException("Not enough stock for product " + productId);
+        }
+
+        ReentrantLock lock = stripeLocks[stripe];
+        lock.lock();
+        try {
+            journals[stripe].append(productId, delta);
+            counter.addPending(stripe, delta);
+        } catch (IOException ex) {
+            if (delta < 0) {
+                counter.give(stripe, -(long) delta);
+            }
+            throw new UncheckedIOException("Could not journal stock change for product " + productId, ex);
+        } finally {
+            lock.unlock();
+        }
+
+        // Positive deltas only become sellable once they are journaled
+        if (delta > 0) {
+            counter.give(stripe, delta);
+        }
+
+        return counter.available();
+    }
+
+    /**
+     * Takes units out of the sellable budget for a reservation. Nothing is journaled: the
+     * hold itself is persisted in reserved_quantity, and the stock only leaves when the
+     * reservation is confirmed.
+     */
+    public void reserve(UUID productId, int units) {
+        if (!counterFor(productId).tryTake(stripeIndex(), units)) {
+            throw new InsufficientStockException("Not enough stock for product " + productId);
+        }
+    }
+
+    /**
+     * Returns units of a released or expired reservation. If the counter is not loaded it
+     * will read the already-lowered reserved_quantity when it is, so there is nothing to do.
+     */
+    public void release(UUID productId, int units) {
+        StripedStockCounter counter = counters.get(productId);
+        if (counter != null) {
+            counter.give(stripeIndex(), units);
+        }
+    }
+
+    /**
+     * Delta accepted in memory that the latest products row does not show yet. Only for rows
+     * read under the row lock (after an UPDATE of the same transaction), which no flush can
+     * be halfway through.
+     */
+    public long pendingDelta(UUID productId) {
+        return pendingDelta(productId, Long.MAX_VALUE);
+    }
+
+    /**
+     * Delta accepted in memory that the products row read at rowVersion does not show.
+     */
+    public long pendingDelta(UUID productId, long rowVersion) {
+        long stamp = drainLock.tryOptimisticRead();
+        long pending = unflushed(productId, rowVersion);
+        if (!drainLock.validate(stamp)) {
+            stamp = drainLock.readLock();
+            try {
+                pending = unflushed(productId, rowVersion);
+            } finally {
+                drainLock.unlockRead(stamp);
+            }
+        }
+        return pending;
+    }
+
+    private long unflushed(UUID productId, long rowVersion) {
+        StripedStockCounter counter = counters.get(productId);
+        long pending = counter == null ? 0 : counter.pendingDelta();
+
+        Flushed batch = flushed.get(productId);
+        if (batch != null && (batch.version == Flushed.UNAPPLIED || rowVersion < batch.version)) {
+            pending += batch.delta;
+        }
+        return pending;
+    }
+
+    public void evict(UUID productId) {
+        counters.remove(productId);
+        flushed.remove(productId);
+    }
+
+    @Scheduled(fixedDelayString = "${webapp.stock.write-behind.flush-interval-ms:250}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            Batch batch = inFlight;
+            if (batch == null) {
+                batch = drain();
+                if (batch == null) {
+                    return;
+                }
+                inFlight = batch;
+            }
+
+            try {
+                apply(batch.deltas, batch.files);
+            } catch (RuntimeException ex) {
+                // Rolled back, so no row holds the batch; a retry marks it again
+                batch.deltas.keySet().forEach(productId -> markApplied(productId, Flushed.UNAPPLIED));
+                logger.error("Stock flush failed for {} products, will retry: {}", batch.deltas.size(), ex.getMessage());
+                return;
+            }
+
+            inFlight = null;
+            deleteQuietly(batch.files);
+            forget(batch.files);
+
+            logger.debug("Flushed stock deltas for {} products", batch.deltas.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        flush();
+        // A second pass picks up anything drained while a failed batch was being retried
+        flush();
+
+        for (StockJournal journal : journals) {
+            journal.close();
+        }
+    }
+
+    private Batch drain() {
+        Map<UUID, Long> deltas = new HashMap<>();
+        List<Path> files = new ArrayList<>();
+
+        long stamp = drainLock.writeLock();
+        try {
+            drainStripes(deltas, files);
+            deltas.values().removeIf(delta -> delta == 0);
+            deltas.forEach((productId, delta) -> flushed.put(productId, new Flushed(delta, Flushed.UNAPPLIED)));
+        } finally {
+            drainLock.unlockWrite(stamp);
+        }
+
+        if (deltas.isEmpty() && files.isEmpty()) {
+            return null;
+        }
+        return new Batch(Collections.unmodifiableMap(deltas), files);
+    }
+
+    private void drainStripes(Map<UUID, Long> deltas, List<Path> files) {
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            ReentrantLock lock = stripeLocks[stripe];
+            lock.lock();
+            try {
+                for (Map.Entry<UUID, StripedStockCounter> entry : counters.entrySet()) {
+                    long delta = entry.getValue().drainPending(stripe);
+                    if (delta != 0) {
+                        deltas.merge(entry.getKey(), delta, Long::sum);
+                    }
+                }
+                Path sealed = journals[stripe].rotate();
+                if (sealed != null) {
+                    files.add(sealed);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not rotate stock journal " + stripe, ex);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Applies the deltas, records an UPDATED outbox event per product (each UPDATE bumps the
+     * version) and checkpoints the journal files they came from, in one transaction.
+     * A batch whose files are already checkpointed (a retry after a commit whose outcome was
+     * lost) is skipped. Each product's new version is published before the commit: until
+     * then no reader can see a row with that version.
+     */
+    private void apply(Map<UUID, Long> deltas, List<Path> files) {
+        if (files.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!appliedFiles(files.subList(0, 1)).isEmpty()) {
+                // The rows already hold the batch, at their current version at the latest
+                deltas.keySet().forEach(productId -> productRepository.findById(productId)
+                        .ifPresent(product -> markApplied(productId, product.getVersion())));
+                return;
+            }
+            deltas.forEach((productId, delta) -> {
+                productRepository.applyQuantityDelta(productId, Math.toIntExact(delta), now);
+                // The batch is in the row now; only what was accepted since the drain is pending
+                StripedStockCounter counter = counters.get(productId);
+                productOutbox.recordStockChange(productId, counter == null ? 0 : counter.pendingDelta())
+                        .ifPresent(product -> markApplied(productId, product.getVersion()));
+            });
+            jdbcTemplate.batchUpdate("INSERT INTO stock_journal_applied (file_name, applied_at) VALUES (?, ?)",
+                    files.stream().map(file -> new Object[]{file.getFileName().toString(), now}).toList());
+        });
+    }
+
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path file : StockJournal.existingFiles(journalDirectory)) {
+            // A live file's name is reused; only a sealed one can be checkpointed
+            files.add(StockJournal.isLive(file) ? StockJournal.seal(file) : file);
+        }
+        if (files.isEmpty()) {
+            return;
+        }
+
+        // Committed before the crash, only the delete was lost
+        Set<String> applied = appliedFiles(files);
+        List<Path> pending = files.stream()
+                .filter(file -> !applied.contains(file.getFileName().toString()))
+                .toList();
+
+        Map<UUID, Long> deltas = StockJournal.replay(pending);
+        deltas.values().removeIf(delta -> delta == 0);
+
+        logger.warn("Replaying {} unflushed stock journal files covering {} products ({} already applied)",
+                pending.size(), deltas.size(), applied.size());
+
+        apply(deltas, pending);
+        deleteQuietly(files);
+        forget(files);
+    }
+
+    private void markApplied(UUID productId, long version) {
+        flushed.computeIfPresent(productId, (id, batch) -> new Flushed(batch.delta, version));
+    }
+
+    private Set<String> appliedFiles(List<Path> files) {
+        Set<String> applied = new HashSet<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            Integer count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM stock_journal_applied WHERE file_name = ?", Integer.class, name);
+            if (count != null && count > 0) {
+                applied.add(name);
+            }
+        }
+        return applied;
+    }
+
+    // Once its file is gone a checkpoint row protects nothing. A crash before this leaves a
+    // few stray rows, which are harmless: no file will have that name again.
+    private void forget(List<Path> files) {
+        try {
+            jdbcTemplate.batchUpdate("DELETE FROM stock_journal_applied WHERE file_name = ?",
+                    files.stream().map(file -> new Object[]{file.getFileName().toString()}).toList());
+        } catch (RuntimeException ex) {
+            logger.warn("Could not clear stock journal checkpoints: {}", ex.getMessage());
+        }
+    }
+
+    private StripedStockCounter counterFor(UUID productId) {
+        return counters.computeIfAbsent(productId, id -> {
+            // Units held by reservations are not part of the sellable budget
+            Integer available = productRepository.findAvailableQuantityById(id)
+                    .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + id));
+            logger.info("Loading write-behind stock counter for product {} with {} available", id, available);
+            return new StripedStockCounter(stripes, available);
+        });
+    }
+
+    private int stripeIndex() {
+        return (int) (Thread.currentThread().threadId() % stripes);
+    }
+
+    private void deleteQuietly(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                logger.error("Could not delete flushed stock journal {}: {}", file, ex.getMessage());
+            }
+        }
+    }
+
+    private record Batch(Map<UUID, Long> deltas, List<Path> files) {
+    }
+
+    // A row read before the previous flush committed is not corrected for it; reads are
+    // never that far behind a flush interval
+    private record Flushed(long delta, long version) {
+        static final long UNAPPLIED = -1;
+    }
+}
@@ -0,0 +1,35 @@
+-- ==========================================
+-- V1: schema as it stood when migrations were introduced
+-- ==========================================
+-- Portable between MySQL 8 and H2 (MODE=MySQL), which the tests run on.
+-- Exactly what ddl-auto=update created before this series: Hibernate 6 already
+-- mapped UUID ids to BINARY(16) on MySQL. Existing databases are baselined at
+-- version 1 (spring.flyway.baseline-on-migrate) and skip this file, so anything
+-- added since belongs in V2 and later, never here.
+
+CREATE TABLE users (
+    id              BINARY(16)   NOT NULL,
+    email           VARCHAR(255) NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    first_name      VARCHAR(255) NOT NULL,
+    last_name       VARCHAR(255) NOT NULL,
+    account_created DATETIME(6)  NOT NULL,
+    account_updated DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE products (
+    id                BINARY(16)    NOT NULL,
+    name              VARCHAR(255)  NOT NULL,
+    description       VARCHAR(1000),
+    sku               VARCHAR(255)  NOT NULL,
+    manufacturer      VARCHAR(255)  NOT NULL,
+    quantity          INT           NOT NULL,
+    date_added        DATETIME(6)   NOT NULL,
+    date_last_updated DATETIME(6)   NOT NULL,
+    owner_user_id     BINARY(16)    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_products_sku UNIQUE (sku),
+    CONSTRAINT fk_products_owner FOREIGN KEY (owner_user_id) REFERENCES users (id)
+);
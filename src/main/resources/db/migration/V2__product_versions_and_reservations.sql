@@ -0,0 +1,21 @@
+-- ==========================================
+-- V2: optimistic locking and stock reservations
+-- ==========================================
+-- version          @Version of Product; existing rows start at 0
+-- reserved_quantity units held by pending reservations, not sellable
+ALTER TABLE products ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE products ADD COLUMN reserved_quantity INT DEFAULT 0 NOT NULL;
+
+CREATE TABLE stock_reservations (
+    id           BINARY(16)   NOT NULL,
+    product_id   BINARY(16)   NOT NULL,
+    holder_email VARCHAR(255) NOT NULL,
+    quantity     INT          NOT NULL,
+    status       VARCHAR(16)  NOT NULL,
+    expires_at   DATETIME(6)  NOT NULL,
+    created_at   DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_reservation_status_expires ON stock_reservations (status, expires_at);
+CREATE INDEX idx_reservation_product ON stock_reservations (product_id);
@@ -0,0 +1,25 @@
+-- ==========================================
+-- V3: product change outbox and delta sync
+-- ==========================================
+-- product_outbox      changes written with the product, relayed to the journal
+-- product_tombstones  deleted ids for /v1/product/changes
+-- idx_products_last_updated  keyset paging of changed products
+CREATE TABLE product_outbox (
+    id              BIGINT        NOT NULL AUTO_INCREMENT,
+    product_id      BINARY(16)    NOT NULL,
+    event_type      VARCHAR(16)   NOT NULL,
+    product_version BIGINT,
+    payload         VARCHAR(4000),
+    created_at      DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE product_tombstones (
+    product_id    BINARY(16)  NOT NULL,
+    owner_user_id BINARY(16)  NOT NULL,
+    deleted_at    DATETIME(6) NOT NULL,
+    PRIMARY KEY (product_id)
+);
+
+CREATE INDEX idx_tombstone_deleted_at ON product_tombstones (deleted_at, product_id);
+CREATE INDEX idx_products_last_updated ON products (date_last_updated, id);
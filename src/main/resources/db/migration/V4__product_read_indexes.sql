@@ -0,0 +1,11 @@
+-- ==========================================
+-- V4: indexes for the product read paths
+-- ==========================================
+-- idx_products_owner_added  GET /v1/product/my-products (owner, newest first);
+--                           also covers the owner_user_id foreign key
+-- idx_products_date_added   listing / sorting by creation date
+-- idx_products_manufacturer filtering by manufacturer
+CREATE INDEX idx_products_owner_added ON products (owner_user_id, date_added);
+CREATE INDEX idx_products_date_added ON products (date_added);
+CREATE INDEX idx_products_manufacturer ON products (manufacturer);
+
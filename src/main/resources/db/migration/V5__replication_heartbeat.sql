@@ -0,0 +1,12 @@
+-- ==========================================
+-- V5: replication heartbeat
+-- ==========================================
+-- One row, rewritten on the primary by ReplicaLagMonitor and read back from the
+-- read replica. The difference is how far the replica is behind.
+CREATE TABLE replication_heartbeat (
+    id          INT    NOT NULL,
+    beat_millis BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, 0);
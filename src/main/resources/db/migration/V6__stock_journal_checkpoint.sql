@@ -0,0 +1,11 @@
+-- ==========================================
+-- V6: write-behind stock journal checkpoint
+-- ==========================================
+-- Names of flushed stock journal files, inserted in the same transaction as
+-- their UPDATEs. Recovery skips files listed here, so a crash between the
+-- commit and the file delete cannot apply a batch twice.
+CREATE TABLE stock_journal_applied (
+    file_name  VARCHAR(255) NOT NULL,
+    applied_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (file_name)
+);
@@ -0,0 +1,48 @@
+-- ==========================================
+-- users.id / products.id: CHAR(36) text → BINARY(16)
+-- ==========================================
+-- Only for databases whose tables were created by hand with VARCHAR/CHAR(36) ids.
+-- Hibernate-created schemas already use BINARY(16) and need nothing.
+--
+-- MySQL 8.0+. Stop the application and take a backup first; every statement below
+-- rewrites the table.
+--
+-- Existing ids keep their value (UUID_TO_BIN without the swap flag), so product and user
+-- URLs do not change. Old rows stay where their random v4 ids put them; new UUIDv7 ids all
+-- sort after the current time and are appended at the end of the index.
+
+-- Drop the products → users foreign key (name was chosen by whoever created the table)
+SET @fk := (SELECT CONSTRAINT_NAME FROM information_schema.KEY_COLUMN_USAGE
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'products'
+              AND COLUMN_NAME = 'owner_user_id' AND REFERENCED_TABLE_NAME = 'users'
+            LIMIT 1);
+SET @sql := IF(@fk IS NULL, 'SELECT 1', CONCAT('ALTER TABLE products DROP FOREIGN KEY `', @fk, '`'));
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- users.id
+ALTER TABLE users ADD COLUMN id_bin BINARY(16) NULL;
+UPDATE users SET id_bin = UUID_TO_BIN(id);
+ALTER TABLE users DROP PRIMARY KEY, DROP COLUMN id;
+ALTER TABLE users RENAME COLUMN id_bin TO id;
+ALTER TABLE users MODIFY id BINARY(16) NOT NULL, ADD PRIMARY KEY (id);
+
+-- products.id and products.owner_user_id
+ALTER TABLE products ADD COLUMN id_bin BINARY(16) NULL, ADD COLUMN owner_bin BINARY(16) NULL;
+UPDATE products SET id_bin = UUID_TO_BIN(id), owner_bin = UUID_TO_BIN(owner_user_id);
+ALTER TABLE products DROP PRIMARY KEY, DROP COLUMN id, DROP COLUMN owner_user_id;
+ALTER TABLE products RENAME COLUMN id_bin TO id, RENAME COLUMN owner_bin TO owner_user_id;
+ALTER TABLE products MODIFY id BINARY(16) NOT NULL, MODIFY owner_user_id BINARY(16) NOT NULL,
+    ADD PRIMARY KEY (id),
+    ADD CONSTRAINT fk_products_owner FOREIGN KEY (owner_user_id) REFERENCES users (id);
+
+-- Dropping the old id column also stripped it from the delta-sync index; rebuild it
+SET @idx := (SELECT COUNT(*) FROM information_schema.STATISTICS
+             WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'products'
+               AND INDEX_NAME = 'idx_products_last_updated');
+SET @sql := IF(@idx = 0, 'SELECT 1', 'ALTER TABLE products DROP INDEX idx_products_last_updated');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+CREATE INDEX idx_products_last_updated ON products (date_last_updated, id);
@@ -0,0 +1,109 @@
+package com.example.webapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.availability.ApplicationAvailabilityBean;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the rate limiter per request: RateLimiter.tryAcquire on one contended bucket and
+ * spread over many clients, and the whole RateLimitFilter against an empty filter chain
+ * (filter minus baseline is the overhead a request pays). Limits are set so nothing is refused.
+ *
+ * Not part of the regular build (surefire only picks up *Test classes). Run with
+ * mvn test -Dtest=RateLimiterBenchmark
+ * and tune with -Dbench.threads, -Dbench.iterations, -Dbench.forks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class Limiter {
+
+        RateLimiter rateLimiter;
+        RateLimitFilter filter;
+
+        @Setup
+        public void setup() {
+            rateLimiter = new RateLimiter(
+                    Map.of(BulkheadFilter.PUBLIC_READ, RateLimiter.Rule.of(Integer.MAX_VALUE / 2, 1e9)), 1_000_000);
+            Counter rejected = new SimpleMeterRegistry().counter("http.rate-limit.rejected");
+            ApplicationAvailabilityBean availability = new ApplicationAvailabilityBean();
+            availability.onApplicationEvent(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+            LifecycleManager lifecycleManager = new LifecycleManager(event -> { }, availability, 0, 0);
+            filter = new RateLimitFilter(rateLimiter, Map.of(BulkheadFilter.PUBLIC_READ, rejected), new ObjectMapper(),
+                    lifecycleManager);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        MockHttpServletRequest request;
+        int next;
+
+        @Setup
+        public void setup() {
+            request = new MockHttpServletRequest("GET", "/v1/product");
+            request.setRemoteAddr("10.0.0.1");
+            SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                    "bench@example.com", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        }
+    }
+
+    @Benchmark
+    public RateLimiter.Decision tryAcquireOneClient(Limiter limiter) {
+        return limiter.rateLimiter.tryAcquire(BulkheadFilter.PUBLIC_READ, "user:bench@example.com", System.nanoTime());
+    }
+
+    @Benchmark
+    public RateLimiter.Decision tryAcquireManyClients(Limiter limiter, Client client) {
+        client.next = (client.next + 1) % CLIENTS;
+        return limiter.rateLimiter.tryAcquire(BulkheadFilter.PUBLIC_READ, "ip:" + client.next, System.nanoTime());
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterBaseline(Client client) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain().doFilter(client.request, response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filter(Limiter limiter, Client client) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        limiter.filter.doFilter(client.request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    public void benchmarkRateLimiter() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getName())
+                .threads(Integer.getInteger("bench.threads", 4))
+                .measurementIterations(Integer.getInteger("bench.iterations", 5))
+                .forks(Integer.getInteger("bench.forks", 1))
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.UserRepository;
+import com.example.webapp.service.ProductService;
+import com.example.webapp.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Simulates MySQL slowing down under a steady read load: ProductRepository.findById is made
+ * slow, then fast again, and the public-read limit has to follow.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:adaptivedb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "webapp.adaptive-concurrency.enabled=true",
+        "webapp.adaptive-concurrency.initial-limit=20",
+        "webapp.adaptive-concurrency.min-limit=2",
+        "webapp.adaptive-concurrency.max-limit=40",
+        "webapp.adaptive-concurrency.tolerance=1.5",
+        "webapp.adaptive-concurrency.smoothing=0.5"
+})
+public class AdaptiveConcurrencyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoSpyBean
+    private ProductRepository productRepository;
+
+    private volatile long repositoryDelayMillis;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    private UUID productId;
+
+    @BeforeEach
+    public void setup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+
+        UUID owner = userService.createUser(
+                new UserRequestDTO("adaptive@example.com", "SecurePass123!", "Adaptive", "Limit")).getId();
+        productId = productService.createProduct(
+                new ProductRequestDTO("Slow", "Read through a slow repository", "ADAPTIVE-1", "Maker", 10), owner).getId();
+
+        // The spy wraps a Spring Data proxy: its default answer delegates to the real repository
+        Answer<?> realRepository = mockingDetails(productRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(repositoryDelayMillis);
+                return realRepository.answer(invocation);
+            } finally {
+                running.decrementAndGet();
+            }
+        }).when(productRepository).findById(any());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        repositoryDelayMillis = 0;
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("The read limit drops and sheds load when the repository slows, then recovers")
+    public void testLimitFollowsRepositoryLatency() throws Exception {
+        // Healthy: light load well under the starting limit, nothing is shed
+        repositoryDelayMillis = 5;
+        Outcome healthy = load(8, 25);
+        assertEquals(0, healthy.shed());
+        assertEquals(200, healthy.ok());
+        assertEquals(20, limit());
+
+        // MySQL slows down sixtyfold while clients keep coming
+        maxRunning.set(0);
+        repositoryDelayMillis = 300;
+        Outcome slow = load(32, 10);
+        int slowLimit = limit();
+        assertTrue(slow.shed() > 0, "expected requests to be shed, got " + slow);
+        assertTrue(slowLimit < 20, "limit should have dropped, is " + slowLimit);
+        // Never more in the repository than the limit ever allowed
+        assertTrue(maxRunning.get() <= 20, "ran " + maxRunning.get() + " at once");
+        assertTrue(meterRegistry.get("http.adaptive.rejected").tag("group", "public-read").counter().count() > 0);
+
+        // Fast again: the limit climbs back
+        repositoryDelayMillis = 5;
+        Outcome recovered = load(16, 30);
+        assertTrue(limit() > slowLimit, "limit stuck at " + limit() + " after recovery");
+        assertTrue(recovered.ok() > 0);
+    }
+
+    private Outcome load(int threads, int requestsPerThread) throws InterruptedException {
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < requestsPerThread; i++) {
+                    try {
+                        int status = mockMvc.perform(get("/v1/product/" + productId))
+                                .andReturn().getResponse().getStatus();
+                        if (status == 200) {
+                            ok.incrementAndGet();
+                        } else if (status == 503) {
+                            shed.incrementAndGet();
+                            // Honour Retry-After in spirit without slowing the test down
+                            Thread.sleep(10);
+                        }
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return null;
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(120, TimeUnit.SECONDS));
+        return new Outcome(ok.get(), shed.get());
+    }
+
+    private int limit() {
+        return (int) meterRegistry.get("http.adaptive.limit").tag("group", "public-read").gauge().value();
+    }
+
+    private record Outcome(int ok, int shed) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.model.User;
+import com.example.webapp.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkheaddb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "webapp.bulkhead.auth.max-concurrent=1",
+        "webapp.bulkhead.auth.max-queue=1",
+        "webapp.bulkhead.auth.max-wait-ms=10000"
+})
+public class BulkheadIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoSpyBean
+    private BCryptPasswordEncoder passwordEncoder;
+
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setup() {
+        userRepository.deleteAll();
+        AtomicBoolean first = new AtomicBoolean(true);
+        // The first signup stalls inside BCrypt until the test lets it go
+        doAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                hashing.countDown();
+                release.await(30, TimeUnit.SECONDS);
+            }
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).encode(any());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        release.countDown();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("A saturated auth bulkhead sheds signups with 503 while health and reads keep working")
+    public void testAuthBulkhead_ShedsOnlyItsOwnGroup() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> running = pool.submit(() -> signup("running@example.com"));
+            assertTrue(hashing.await(10, TimeUnit.SECONDS));
+
+            Future<Integer> queued = pool.submit(() -> signup("queued@example.com"));
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (gauge("http.bulkhead.queued") < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, gauge("http.bulkhead.active"));
+            assertEquals(1, gauge("http.bulkhead.queued"));
+
+            // One running, one queued: the next signup is turned away without waiting
+            long start = System.nanoTime();
+            mockMvc.perform(post("/v1/user")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new UserRequestDTO("rejected@example.com", "SecurePass123!", "Shed", "User"))))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.message").value("Server is busy, retry later"))
+                    .andExpect(jsonPath("$.path").value("/v1/user"));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+
+            // Other groups are untouched
+            mockMvc.perform(get("/v1/product/health")).andExpect(status().isOk());
+            mockMvc.perform(get("/v1/product")).andExpect(status().isOk());
+
+            assertEquals(1.0, meterRegistry.get("http.bulkhead.rejected").tag("bulkhead", "auth").counter().count());
+
+            release.countDown();
+            assertEquals(201, running.get(10, TimeUnit.SECONDS));
+            assertEquals(201, queued.get(10, TimeUnit.SECONDS));
+            assertEquals(0, gauge("http.bulkhead.active"));
+            assertTrue(meterRegistry.get("http.bulkhead.queue.wait").tag("bulkhead", "auth").timer().count() >= 1);
+            assertFalse(userRepository.existsByEmail("rejected@example.com"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("A read with credentials waits in authenticated-write, not public-read: it runs a BCrypt verify")
+    public void testAuthenticatedRead_UsesAuthenticatedWriteBulkhead() throws Exception {
+        User user = new User();
+        user.setEmail("reader@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("SecurePass123!"));
+        user.setFirstName("Bulk");
+        user.setLastName("Reader");
+        userRepository.save(user);
+        String authHeader = "Basic " + Base64.getEncoder().encodeToString("reader@example.com:SecurePass123!".getBytes());
+
+        // Only the verify stalls here; the first authentication also encodes a dummy password
+        doCallRealMethod().when(passwordEncoder).encode(any());
+        CountDownLatch verifying = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            verifying.countDown();
+            release.await(30, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).matches(any(), any());
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> read = pool.submit(() -> mockMvc.perform(get("/v1/product")
+                            .header("Authorization", authHeader))
+                    .andReturn().getResponse().getStatus());
+            assertTrue(verifying.await(10, TimeUnit.SECONDS));
+
+            assertEquals(1, gauge("http.bulkhead.active", "authenticated-write"));
+            assertEquals(0, gauge("http.bulkhead.active", "public-read"));
+
+            release.countDown();
+            assertEquals(200, read.get(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int signup(String email) throws Exception {
+        return mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO(email, "SecurePass123!", "Bulk", "Head"))))
+                .andReturn().getResponse().getStatus();
+    }
+
+    private double gauge(String name) {
+        return gauge(name, "auth");
+    }
+
+    private double gauge(String name, String bulkhead) {
+        return meterRegistry.get(name).tag("bulkhead", bulkhead).gauge().value();
+    }
+}
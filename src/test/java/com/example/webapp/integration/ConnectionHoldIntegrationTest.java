@@ -0,0 +1,146 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:connectionholddb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "webapp.security.admin-emails=ops@example.com"
+})
+public class ConnectionHoldIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoSpyBean
+    private BCryptPasswordEncoder passwordEncoder;
+
+    private final List<Boolean> transactionActiveDuringHash = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        userRepository.deleteAll();
+        transactionActiveDuringHash.clear();
+        doAnswer(invocation -> {
+            transactionActiveDuringHash.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).encode(any());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("POST /v1/user and PATCH /v1/user/self - Passwords are hashed before the transaction opens")
+    public void testPasswordHashing_OutsideTransaction() throws Exception {
+        String email = "hold" + System.currentTimeMillis() + "@example.com";
+        String authHeader = "Basic " + Base64.getEncoder().encodeToString((email + ":SecurePass123!").getBytes());
+
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO(email, "SecurePass123!", "Hold", "Time"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(patch("/v1/user/self")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\":\"Changed123!\"}"))
+                .andExpect(status().isOk());
+
+        // Spring Security also hashes a dummy password once for its user-not-found timing protection
+        assertTrue(transactionActiveDuringHash.size() >= 2);
+        assertFalse(transactionActiveDuringHash.contains(true));
+    }
+
+    @Test
+    @DisplayName("Connection hold time is recorded per endpoint")
+    public void testConnectionHold_RecordedPerEndpoint() throws Exception {
+        String email = "metrics" + System.currentTimeMillis() + "@example.com";
+        String authHeader = "Basic " + Base64.getEncoder().encodeToString((email + ":SecurePass123!").getBytes());
+
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO(email, "SecurePass123!", "Metric", "User"))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/v1/user/self")
+                        .header("Authorization", authHeader))
+                .andExpect(status().isOk());
+
+        Timer create = meterRegistry.find("db.connection.hold")
+                .tag("method", "POST").tag("uri", "/v1/user").timer();
+        Timer self = meterRegistry.find("db.connection.hold")
+                .tag("method", "GET").tag("uri", "/v1/user/self").timer();
+
+        assertNotNull(create);
+        assertNotNull(self);
+        assertTrue(create.count() > 0);
+        assertTrue(self.count() > 0);
+    }
+
+    @Test
+    @DisplayName("GET /actuator/metrics - Only admin accounts, not any signed-up user")
+    public void testMetrics_AdminOnly() throws Exception {
+        String user = signUp("viewer" + System.currentTimeMillis() + "@example.com");
+        String admin = signUp("ops@example.com");
+
+        mockMvc.perform(get("/actuator/metrics/db.connection.hold"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics/db.connection.hold").header("Authorization", user))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", user))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/metrics/db.connection.hold").header("Authorization", admin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("db.connection.hold"));
+    }
+
+    private String signUp(String email) throws Exception {
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO(email, "SecurePass123!", "Metric", "Reader"))))
+                .andExpect(status().isCreated());
+        return "Basic " + Base64.getEncoder().encodeToString((email + ":SecurePass123!").getBytes());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.webapp.integration;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load for the *Benchmark classes: a fixed number of clients, each on its
+ * own virtual thread and connection, send the next GET as soon as the previous one returns.
+ */
+final class HttpLoad {
+
+    private HttpLoad() {
+    }
+
+    /**
+     * Successful requests per second, p99 latency over all requests, and the share that failed
+     * (anything but 200, including timeouts and refused connections).
+     */
+    record Result(double throughput, long p99Millis, double errorRate) {
+
+        boolean sustainable(long p99TargetMillis) {
+            return p99Millis <= p99TargetMillis && errorRate <= 0.01;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%8.0f req/s  p99 %5d ms  errors %5.2f %%", throughput, p99Millis, errorRate * 100);
+        }
+    }
+
+    static Result run(URI uri, int concurrency, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(10)).GET().build();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        List<Future<long[]>> clients = new ArrayList<>();
+        try (ExecutorService loadGenerator = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(loadGenerator.submit(() -> {
+                    // Latencies in nanos, negative for a failed request
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                        } catch (Exception ex) {
+                            ok = false;
+                        }
+                        long elapsed = System.nanoTime() - start;
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, samples.length * 2);
+                        }
+                        samples[count++] = ok ? elapsed : -elapsed;
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+        }
+
+        List<long[]> perClient = new ArrayList<>();
+        for (Future<long[]> future : clients) {
+            perClient.add(future.get());
+        }
+        long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).toArray();
+        long failures = Arrays.stream(latencies).filter(latency -> latency < 0).count();
+        if (latencies.length == 0) {
+            return new Result(0, Long.MAX_VALUE, 1);
+        }
+
+        long[] sorted = Arrays.stream(latencies).map(Math::abs).sorted().toArray();
+        long p99 = sorted[Math.min(sorted.length - 1, sorted.length * 99 / 100)] / 1_000_000;
+        return new Result((latencies.length - failures) / (double) seconds, p99, failures / (double) latencies.length);
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.config.LifecycleManager;
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.UserRepository;
+import com.example.webapp.service.ProductService;
+import com.example.webapp.service.UserService;
+import org.junit.jupiter.api.*;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Probes and shutdown draining. LifecycleManager.stop() is called directly, as the context
+ * would on SIGTERM, while a GET is held inside findById.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lifecycledb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "webapp.lifecycle.readiness-propagation-ms=0",
+        "webapp.lifecycle.drain-timeout-ms=1500"
+})
+public class LifecycleIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private LifecycleManager lifecycleManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProductService productService;
+
+    @MockitoSpyBean
+    private ProductRepository productRepository;
+
+    private final CountDownLatch loadStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseLoad = new CountDownLatch(1);
+    private ExecutorService background;
+
+    private UUID productId;
+
+    @BeforeEach
+    public void setup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+
+        UUID owner = userService.createUser(
+                new UserRequestDTO("lifecycle@example.com", "SecurePass123!", "Rolling", "Restart")).getId();
+        productId = productService.createProduct(
+                new ProductRequestDTO("Drained", "Served during shutdown", "DRAIN-1", "Maker", 10), owner).getId();
+
+        background = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        releaseLoad.countDown();
+        background.shutdownNow();
+
+        // The context is shared with later tests: back to serving
+        lifecycleManager.start();
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.ACCEPTING_TRAFFIC);
+        AvailabilityChangeEvent.publish(applicationContext, LivenessState.CORRECT);
+
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Live and ready probes answer 200 without authentication once started")
+    public void testProbes_UpAfterStartup() throws Exception {
+        for (String api : new String[]{"/v1/user", "/v1/product"}) {
+            mockMvc.perform(get(api + "/health/live")).andExpect(status().isOk());
+            mockMvc.perform(get(api + "/health/ready")).andExpect(status().isOk());
+            mockMvc.perform(get(api + "/health")).andExpect(status().isOk());
+        }
+        assertTrue(lifecycleManager.isRunning());
+    }
+
+    @Test
+    @DisplayName("Readiness and liveness are reported separately")
+    public void testProbes_ReportedSeparately() throws Exception {
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+        mockMvc.perform(get("/v1/user/health/ready"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string("User API is not accepting traffic"));
+        mockMvc.perform(get("/v1/product/health/ready")).andExpect(status().isServiceUnavailable());
+        mockMvc.perform(get("/v1/user/health/live")).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/product/health")).andExpect(status().isOk());
+
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.ACCEPTING_TRAFFIC);
+        AvailabilityChangeEvent.publish(applicationContext, LivenessState.BROKEN);
+        mockMvc.perform(get("/v1/product/health/live")).andExpect(status().isServiceUnavailable());
+        mockMvc.perform(get("/v1/product/health/ready")).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Shutdown refuses readiness first, then waits for the in-flight request to finish")
+    public void testShutdown_DrainsInFlightRequests() throws Exception {
+        Future<MockHttpServletResponse> inFlight = holdRead();
+
+        Future<?> stopping = background.submit(() -> lifecycleManager.stop());
+
+        awaitNotReady();
+        assertEquals(1, lifecycleManager.inFlight());
+        // Still draining: new requests are served too, the load balancer just stops sending them
+        assertThrows(TimeoutException.class, () -> stopping.get(300, TimeUnit.MILLISECONDS));
+        mockMvc.perform(get("/v1/product")).andExpect(status().isOk());
+
+        releaseLoad.countDown();
+        stopping.get(10, TimeUnit.SECONDS);
+        assertEquals(200, inFlight.get(10, TimeUnit.SECONDS).getStatus());
+        assertFalse(lifecycleManager.isRunning());
+        assertEquals(0, lifecycleManager.inFlight());
+    }
+
+    @Test
+    @DisplayName("Shutdown stops waiting at the drain deadline")
+    public void testShutdown_GivesUpAtDeadline() throws Exception {
+        Future<MockHttpServletResponse> inFlight = holdRead();
+
+        long start = System.nanoTime();
+        lifecycleManager.stop();
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(waitedMillis >= 1500, "stop returned after " + waitedMillis + " ms");
+        assertTrue(waitedMillis < 10_000, "stop returned after " + waitedMillis + " ms");
+        assertEquals(1, lifecycleManager.inFlight());
+
+        releaseLoad.countDown();
+        assertEquals(200, inFlight.get(10, TimeUnit.SECONDS).getStatus());
+    }
+
+    // A product GET that stays inside findById until releaseLoad
+    private Future<MockHttpServletResponse> holdRead() throws InterruptedException {
+        Answer<?> realRepository = mockingDetails(productRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            loadStarted.countDown();
+            assertTrue(releaseLoad.await(30, TimeUnit.SECONDS));
+            return realRepository.answer(invocation);
+        }).when(productRepository).findById(any());
+
+        Future<MockHttpServletResponse> response = background.submit(() ->
+                mockMvc.perform(get("/v1/product/" + productId)).andReturn().getResponse());
+        assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+        return response;
+    }
+
+    private void awaitNotReady() throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (mockMvc.perform(get("/v1/user/health/ready")).andReturn().getResponse().getStatus() == 503) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("readiness did not turn to 503");
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:importdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        // Several chunks from a small file
+        "webapp.import.chunk-size=10"
+})
+public class ProductImportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private String authHeader;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        authHeader = createUser("importer" + System.currentTimeMillis() + "@example.com");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("POST /v1/product/import - Good rows are imported, bad rows reported without stopping the file")
+    public void testImport_PartialFailures() throws Exception {
+        String prefix = "IMP-" + System.currentTimeMillis() + "-";
+
+        // Already in the catalog before the import
+        mockMvc.perform(post("/v1/product")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductRequestDTO("Existing", null, prefix + "EXISTING", "Maker", 1))))
+                .andExpect(status().isCreated());
+
+        List<String> lines = new ArrayList<>();
+        lines.add("sku,name,manufacturer,quantity,description");
+        for (int i = 1; i <= 25; i++) {
+            lines.add(prefix + i + ",Item " + i + ",Maker," + i + ",");
+        }
+        lines.add(prefix + "Q,\"Desk, oak\",\"Maker \"\"Wood\"\"\",3,\"two\nlines\"");  // row 27
+        lines.add(prefix + "BAD-QTY,Broken,Maker,lots,");                             // row 28
+        lines.add(prefix + "NEG,Negative,Maker,-1,");                                 // row 29
+        lines.add(prefix + "NONAME,,Maker,1,");                                       // row 30
+        lines.add(prefix + "EXISTING,Clash,Maker,1,");                                // row 31
+        lines.add(prefix + "Q,Again,Maker,1,");                                       // row 32
+
+        MvcResult accepted = mockMvc.perform(multipart("/v1/product/import")
+                        .file(csv(String.join("\r\n", lines) + "\r\n"))
+                        .header("Authorization", authHeader))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.status").exists())
+                .andReturn();
+
+        JsonNode job = awaitFinished(accepted.getResponse().getHeader("Location"));
+
+        assertEquals("COMPLETED", job.get("status").asText());
+        assertEquals(31, job.get("rowsProcessed").asLong());
+        assertEquals(26, job.get("rowsImported").asLong());
+        assertEquals(5, job.get("rowsFailed").asLong());
+
+        List<Long> failedRows = new ArrayList<>();
+        job.get("errors").forEach(error -> failedRows.add(error.get("row").asLong()));
+        assertEquals(List.of(28L, 29L, 30L, 31L, 32L), failedRows.stream().sorted().toList());
+
+        var quoted = productRepository.findBySku(prefix + "Q").orElseThrow();
+        assertEquals("Desk, oak", quoted.getName());
+        assertEquals("Maker \"Wood\"", quoted.getManufacturer());
+        assertEquals("two\nlines", quoted.getDescription());
+
+        assertEquals(27, productRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /v1/product/import - Missing columns are rejected up front, jobs are private")
+    public void testImport_HeaderAndOwnership() throws Exception {
+        mockMvc.perform(multipart("/v1/product/import")
+                        .file(csv("sku,name\nX,Y\n"))
+                        .header("Authorization", authHeader))
+                .andExpect(status().isBadRequest());
+
+        MvcResult accepted = mockMvc.perform(multipart("/v1/product/import")
+                        .file(csv("name,sku,manufacturer,quantity\nOne,PRIV-" + System.currentTimeMillis() + ",Maker,1\n"))
+                        .header("Authorization", authHeader))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        String location = accepted.getResponse().getHeader("Location");
+        awaitFinished(location);
+
+        String otherUser = createUser("other" + System.currentTimeMillis() + "@example.com");
+        mockMvc.perform(get(location).header("Authorization", otherUser))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get(location))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "products.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private JsonNode awaitFinished(String location) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        JsonNode job;
+        do {
+            Thread.sleep(50);
+            MvcResult result = mockMvc.perform(get(location).header("Authorization", authHeader))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            job = objectMapper.readTree(result.getResponse().getContentAsString());
+        } while (job.get("finishedAt").isNull() && System.currentTimeMillis() < deadline);
+        return job;
+    }
+
+    private String createUser(String email) throws Exception {
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO(email, "SecurePass123!", "Bulk", "Import"))))
+                .andExpect(status().isCreated());
+        return "Basic " + Base64.getEncoder().encodeToString((email + ":SecurePass123!").getBytes());
+    }
+}
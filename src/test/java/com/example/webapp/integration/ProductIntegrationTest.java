@@ -20,6 +20,8 @@ import java.util.Base64;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -295,6 +297,29 @@ public class ProductIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @Order(7)
+    @DisplayName("PUT /v1/product/{id} - Update with current If-Match - Should return 200 and new ETag")
+    public void testUpdateProduct_IfMatchCurrent() throws Exception {
+        String productId = createProductAs(user1AuthHeader, "ETAG-" + System.currentTimeMillis());
+
+        String etag = mockMvc.perform(get("/v1/product/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        ProductUpdateDTO updateRequest = new ProductUpdateDTO(
+                "Versioned", "Description", "ETAG-U-" + System.currentTimeMillis(), "Manufacturer", 5);
+
+        mockMvc.perform(put("/v1/product/" + productId)
+                        .header("Authorization", user1AuthHeader)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
     // ========================================
     // NEGATIVE TEST CASES
     // ========================================
@@ -412,6 +437,40 @@ public class ProductIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("PUT /v1/product/{id} - Update to another product's SKU - Should return 400")
+    public void testUpdateProduct_DuplicateSKU() throws Exception {
+        String takenSku = "TAKEN-" + System.currentTimeMillis();
+        createProductAs(user1AuthHeader, takenSku);
+        String productId = createProductAs(user1AuthHeader, "OTHER-" + System.currentTimeMillis());
+
+        ProductUpdateDTO updateRequest = new ProductUpdateDTO("Updated", "Description", takenSku, "Manufacturer", 10);
+
+        mockMvc.perform(put("/v1/product/" + productId)
+                        .header("Authorization", user1AuthHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("already exists")));
+    }
+
+    @Test
+    @DisplayName("PUT /v1/product/{id} - Other constraint failures are not reported as a duplicate SKU")
+    public void testUpdateProduct_OtherConstraintFailure() throws Exception {
+        String productId = createProductAs(user1AuthHeader, "LONG-" + System.currentTimeMillis());
+
+        // description is VARCHAR(1000)
+        ProductUpdateDTO updateRequest = new ProductUpdateDTO(
+                "Updated", "x".repeat(1001), "LONG-" + System.currentTimeMillis(), "Manufacturer", 10);
+
+        mockMvc.perform(put("/v1/product/" + productId)
+                        .header("Authorization", user1AuthHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value(not(containsString("already exists"))));
+    }
+
     @Test
     @DisplayName("PUT /v1/product/{id} - Update product owned by another user - Should return 403")
     public void testUpdateProduct_Forbidden() throws Exception {
@@ -478,6 +537,166 @@ public class ProductIntegrationTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @DisplayName("PUT/DELETE /v1/product/{id} - Stale If-Match - Should return 412")
+    public void testUpdateProduct_StaleIfMatch() throws Exception {
+        String sku = "STALE-" + System.currentTimeMillis();
+        String productId = createProductAs(user1AuthHeader, sku);
+
+        ProductUpdateDTO updateRequest = new ProductUpdateDTO("First", "Description", sku, "Manufacturer", 5);
+
+        mockMvc.perform(put("/v1/product/" + productId)
+                        .header("Authorization", user1AuthHeader)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk());
+
+        // Second writer still holds version 0
+        updateRequest.setName("Second");
+        mockMvc.perform(put("/v1/product/" + productId)
+                        .header("Authorization", user1AuthHeader)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete("/v1/product/" + productId)
+                        .header("Authorization", user1AuthHeader)
+                        .header("If-Match", "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/v1/product/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("First"));
+    }
+
+    @Test
+    @DisplayName("PATCH /v1/product/{id} - Merge patch changes only sent fields, no-op skips the write")
+    public void testPatchProduct_MergePatch() throws Exception {
+        String productId = createProductAs(user1AuthHeader, "MERGE-" + System.currentTimeMillis());
+
+        MvcResult patched = mockMvc.perform(patch("/v1/product/" + productId)
+                        .header("Authorization", user1AuthHeader)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"quantity\":7,\"description\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.name").value(startsWith("Product MERGE-")))
+                .andExpect(jsonPath("$.description").value(nullValue()))
+                .andExpect(jsonPath("$.quantity").value(7))
+                .andReturn();
+        String lastUpdated = objectMapper.readTree(patched.getResponse().getContentAsString())
+                .get("dateLastUpdated").asText();
+
+        // Same values again: nothing is written, so neither the version nor the timestamp move
+        mockMvc.perform(patch("/v1/product/" + productId)
+                        .header("Authorization", user1AuthHeader)
+                        .header("If-Match", "\"1\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"quantity\":7}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.dateLastUpdated").value(lastUpdated));
+
+        mockMvc.perform(patch("/v1/product/" + productId)
+                        .header("Authorization", user1AuthHeader)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"name\":null}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/v1/product/" + productId)
+                        .header("Authorization", user1AuthHeader)
+                        .contentType("application/merge-patch+json")
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /v1/product/{id}/stock - Sell more than in stock - Should return 409")
+    public void testAdjustStock_Oversell() throws Exception {
+        String productId = createProductAs(user1AuthHeader, "STOCK-" + System.currentTimeMillis());
+
+        mockMvc.perform(post("/v1/product/" + productId + "/stock")
+                        .header("Authorization", user2AuthHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\":-4}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableQuantity").value(6));
+
+        mockMvc.perform(post("/v1/product/" + productId + "/stock")
+                        .header("Authorization", user2AuthHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\":-7}"))
+                .andExpect(status().isConflict());
+
+        // Only the owner may restock
+        mockMvc.perform(post("/v1/product/" + productId + "/stock")
+                        .header("Authorization", user2AuthHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\":5}"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/v1/product/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(6));
+    }
+
+    @Test
+    @DisplayName("POST /v1/product - Retry with same Idempotency-Key - Should replay, not create again")
+    public void testCreateProduct_IdempotencyKey() throws Exception {
+        String key = "create-" + System.currentTimeMillis();
+        ProductRequestDTO productRequest = new ProductRequestDTO(
+                "Retried Product", "Sent twice", "IDEM-" + System.currentTimeMillis(), "Manufacturer", 3);
+
+        MvcResult first = mockMvc.perform(post("/v1/product")
+                        .header("Authorization", user1AuthHeader)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn();
+        String productId = objectMapper.readTree(first.getResponse().getContentAsString()).get("id").asText();
+
+        // A duplicate SKU would be 400 if the create ran again
+        mockMvc.perform(post("/v1/product")
+                        .header("Authorization", user1AuthHeader)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.id").value(productId));
+
+        productRequest.setQuantity(4);
+        mockMvc.perform(post("/v1/product")
+                        .header("Authorization", user1AuthHeader)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productRequest)))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(1, productRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /v1/product - Ids are UUIDv7 and increase with creation order")
+    public void testCreateProduct_TimeOrderedIds() throws Exception {
+        UUID first = UUID.fromString(createProductAs(user1AuthHeader, "V7-A-" + System.currentTimeMillis()));
+        UUID second = UUID.fromString(createProductAs(user1AuthHeader, "V7-B-" + System.currentTimeMillis()));
+
+        assertEquals(7, first.version());
+        assertEquals(7, second.version());
+        // Canonical hex strings sort like the stored BINARY(16) bytes
+        assertTrue(second.toString().compareTo(first.toString()) > 0);
+
+        mockMvc.perform(get("/v1/product/" + second))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(second.toString()));
+    }
+
     // ========================================
     // EDGE CASE TESTS
     // ========================================
@@ -547,6 +766,13 @@ public class ProductIntegrationTest {
                 .andExpect(jsonPath("$", hasSize(2)));
     }
 
+    @Test
+    @DisplayName("GET /v1/product/my-products - Without authentication - Should return 401")
+    public void testGetMyProducts_Unauthorized() throws Exception {
+        mockMvc.perform(get("/v1/product/my-products"))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     @DisplayName("GET /v1/product/health - Health check - Should return 200")
     public void testHealthCheck() throws Exception {
@@ -554,4 +780,24 @@ public class ProductIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string(containsString("running")));
     }
-}
\ No newline at end of file
+
+    private String createProductAs(String authHeader, String sku) throws Exception {
+        ProductRequestDTO productRequest = new ProductRequestDTO(
+                "Product " + sku,
+                "Description",
+                sku,
+                "Manufacturer",
+                10
+        );
+
+        MvcResult createResult = mockMvc.perform(post("/v1/product")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readTree(createResult.getResponse().getContentAsString())
+                .get("id").asText();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.ProductResponseDTO;
+import com.example.webapp.dto.ProductUpdateDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.UserRepository;
+import com.example.webapp.service.ProductOutbox;
+import com.example.webapp.service.ProductService;
+import com.example.webapp.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+/**
+ * Write-path cost of the product outbox: create + update + delete through ProductService with
+ * the outbox insert on and off, alternating rounds so JIT and pool warm-up hit both equally.
+ * The relay keeps running in the background as it would in production.
+ *
+ * Not part of the regular build (surefire only picks up *Test classes). Run with
+ * mvn test -Dtest=ProductOutboxBenchmark
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxbenchdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "webapp.outbox.journal-dir=${java.io.tmpdir}/webapp-product-journal-bench",
+        "logging.level.com.example.webapp=WARN"
+})
+public class ProductOutboxBenchmark {
+
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 6;
+    private static final int OPERATIONS_PER_ROUND = 500;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProductOutbox productOutbox;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void benchmarkWritePath() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        String email = "bench" + System.currentTimeMillis() + "@example.com";
+        UUID owner = userService.createUser(new UserRequestDTO(email, "SecurePass123!", "Bench", "Mark")).getId();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runRound(owner, false);
+            runRound(owner, true);
+        }
+
+        long withoutOutbox = 0;
+        long withOutbox = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            withoutOutbox += runRound(owner, false);
+            withOutbox += runRound(owner, true);
+        }
+        ReflectionTestUtils.setField(productOutbox, "enabled", true);
+
+        long operations = (long) ROUNDS * OPERATIONS_PER_ROUND;
+        double baseMicros = withoutOutbox / 1_000.0 / operations;
+        double outboxMicros = withOutbox / 1_000.0 / operations;
+
+        System.out.printf("create+update+delete without outbox: %8.1f us/op%n", baseMicros);
+        System.out.printf("create+update+delete with outbox:    %8.1f us/op%n", outboxMicros);
+        System.out.printf("overhead:                            %8.1f %%%n", (outboxMicros / baseMicros - 1) * 100);
+    }
+
+    private long runRound(UUID owner, boolean outboxEnabled) {
+        ReflectionTestUtils.setField(productOutbox, "enabled", outboxEnabled);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS_PER_ROUND; i++) {
+            String sku = "BENCH-" + System.nanoTime();
+            ProductResponseDTO created = productService.createProduct(
+                    new ProductRequestDTO("Bench", "Benchmark item", sku, "Maker", 10), owner);
+            ProductResponseDTO updated = productService.updateProduct(created.getId(),
+                    new ProductUpdateDTO("Bench", "Benchmark item", sku, "Maker", 9), owner, null);
+            productService.deleteProduct(created.getId(), owner, updated.getVersion());
+        }
+        return System.nanoTime() - start;
+    }
+}
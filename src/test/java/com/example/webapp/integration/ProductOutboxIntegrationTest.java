@@ -0,0 +1,229 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.ReservationRequestDTO;
+import com.example.webapp.dto.StockAdjustmentDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.ProductOutboxRepository;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.UserRepository;
+import com.example.webapp.service.ProductOutboxRelay;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "webapp.outbox.journal-dir=${java.io.tmpdir}/webapp-product-journal-outbox-it",
+        // Small segments so rolling and compaction happen within a test
+        "webapp.outbox.segment-bytes=4096",
+        "webapp.outbox.compact-after-segments=2",
+        // Relayed explicitly by the tests
+        "webapp.outbox.relay-interval-ms=3600000"
+})
+public class ProductOutboxIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductOutboxRepository outboxRepository;
+
+    @Autowired
+    private ProductOutboxRelay outboxRelay;
+
+    @Value("${webapp.outbox.journal-dir}")
+    private Path journalDirectory;
+
+    private String authHeader;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        outboxRelay.relay();
+        outboxRelay.sync();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+
+        String email = "outbox" + System.currentTimeMillis() + "@example.com";
+        authHeader = "Basic " + Base64.getEncoder().encodeToString((email + ":SecurePass123!").getBytes());
+
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO(email, "SecurePass123!", "Out", "Box"))))
+                .andExpect(status().isCreated());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Create, update and delete land in the journal in order and leave the outbox empty")
+    public void testProductChanges_Journaled() throws Exception {
+        String productId = createProduct("OUTBOX-" + System.currentTimeMillis());
+
+        patchQuantity(productId, 4);
+        // Same value again: nothing written, so no event either
+        patchQuantity(productId, 4);
+
+        mockMvc.perform(delete("/v1/product/" + productId)
+                        .header("Authorization", authHeader))
+                .andExpect(status().isNoContent());
+
+        assertEquals(3, outboxRepository.count());
+
+        outboxRelay.relay();
+        outboxRelay.sync();
+
+        assertEquals(0, outboxRepository.count());
+
+        List<JsonNode> events = journalEvents(productId);
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"),
+                events.stream().map(event -> event.get("type").asText()).toList());
+        assertEquals(4, events.get(1).get("product").get("quantity").asInt());
+        assertTrue(events.get(0).get("eventId").asLong() < events.get(1).get("eventId").asLong());
+    }
+
+    @Test
+    @DisplayName("Compaction keeps only the newest event per product")
+    public void testJournal_Compacts() throws Exception {
+        String productId = createProduct("COMPACT-" + System.currentTimeMillis());
+
+        for (int quantity = 1; quantity <= 40; quantity++) {
+            patchQuantity(productId, quantity);
+        }
+
+        outboxRelay.relay();
+        outboxRelay.sync();
+
+        List<JsonNode> events = journalEvents(productId);
+        assertTrue(events.size() < 41, "expected superseded events to be compacted away, got " + events.size());
+        assertEquals(40, events.get(events.size() - 1).get("product").get("quantity").asInt());
+    }
+
+    @Test
+    @DisplayName("Stock adjustments and confirmed reservations are journaled with every version")
+    public void testStockChanges_Journaled() throws Exception {
+        String productId = createProduct("STOCK-" + System.currentTimeMillis());
+
+        adjustStock(productId, -3);
+        adjustStock(productId, 5);
+
+        MvcResult held = mockMvc.perform(post("/v1/reservation")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ReservationRequestDTO(UUID.fromString(productId), 2, null))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String reservationId = objectMapper.readTree(held.getResponse().getContentAsString()).get("id").asText();
+
+        mockMvc.perform(post("/v1/reservation/" + reservationId + "/confirm")
+                        .header("Authorization", authHeader))
+                .andExpect(status().isOk());
+
+        outboxRelay.relay();
+        outboxRelay.sync();
+
+        List<JsonNode> events = journalEvents(productId);
+        assertEquals(List.of("CREATED", "UPDATED", "UPDATED", "UPDATED"),
+                events.stream().map(event -> event.get("type").asText()).toList());
+        // No gaps: consumers can tell they have seen every change
+        assertEquals(List.of(0L, 1L, 2L, 3L),
+                events.stream().map(event -> event.get("version").asLong()).toList());
+        assertEquals(List.of(7, 12, 10),
+                events.subList(1, 4).stream().map(event -> event.get("product").get("quantity").asInt()).toList());
+    }
+
+    private void adjustStock(String productId, int delta) throws Exception {
+        mockMvc.perform(post("/v1/product/" + productId + "/stock")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StockAdjustmentDTO(delta))))
+                .andExpect(status().isOk());
+    }
+
+    private String createProduct(String sku) throws Exception {
+        MvcResult result = mockMvc.perform(post("/v1/product")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductRequestDTO("Journaled", "Outbox item", sku, "Maker", 10))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+    }
+
+    private void patchQuantity(String productId, int quantity) throws Exception {
+        mockMvc.perform(patch("/v1/product/" + productId)
+                        .header("Authorization", authHeader)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"quantity\":" + quantity + "}"))
+                .andExpect(status().isOk());
+    }
+
+    // Record layout: int length, int crc32, body; zero length ends a segment
+    private List<JsonNode> journalEvents(String productId) throws Exception {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(journalDirectory, "segment-*.log")) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(null);
+
+        List<JsonNode> events = new ArrayList<>();
+        for (Path segment : segments) {
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+            while (data.remaining() >= 8) {
+                int length = data.getInt();
+                data.getInt();
+                if (length <= 0) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                data.get(body);
+                JsonNode event = objectMapper.readTree(body);
+                if (event.get("productId").asText().equals(productId)) {
+                    events.add(event);
+                }
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.UserRepository;
+import com.example.webapp.service.ProductService;
+import com.example.webapp.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Concurrent GET /v1/product/{id} for different products with batching on. The window is long
+ * enough that every request of a test lands in it; max-batch-size decides where batches split.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batchingdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "webapp.product.batching.enabled=true",
+        "webapp.product.batching.window-ms=2000",
+        "webapp.product.batching.max-batch-size=10",
+        "webapp.product.coalescing.max-wait-ms=10000",
+        // No background statements while counting
+        "webapp.outbox.enabled=false",
+        "webapp.reservation.sweep-initial-delay-ms=3600000"
+})
+public class ProductReadBatchingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoSpyBean
+    private ProductRepository productRepository;
+
+    private final List<UUID> productIds = new ArrayList<>();
+    private ExecutorService clients;
+
+    @BeforeEach
+    public void setup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+
+        UUID owner = userService.createUser(
+                new UserRequestDTO("batch@example.com", "SecurePass123!", "Batch", "Loader")).getId();
+        for (int i = 0; i < 15; i++) {
+            productIds.add(productService.createProduct(
+                    new ProductRequestDTO("Item " + i, "Batched read", "BATCH-" + i, "Maker", 10), owner).getId());
+        }
+
+        clients = Executors.newFixedThreadPool(15);
+        clearInvocations(productRepository);
+        statistics().clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        clients.shutdownNow();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Ten concurrent reads of different products are one IN query; a missing id still 404s")
+    public void testConcurrentReads_OneBatch() throws Exception {
+        List<UUID> requested = new ArrayList<>(productIds.subList(0, 9));
+        UUID missing = UUID.randomUUID();
+        requested.add(missing);
+
+        List<Future<MockHttpServletResponse>> responses = getConcurrently(requested);
+
+        for (int i = 0; i < requested.size(); i++) {
+            MockHttpServletResponse response = responses.get(i).get(10, TimeUnit.SECONDS);
+            if (requested.get(i).equals(missing)) {
+                assertEquals(404, response.getStatus());
+            } else {
+                assertEquals(200, response.getStatus());
+                assertTrue(response.getContentAsString().contains(requested.get(i).toString()));
+                assertTrue(response.getContentAsString().contains("\"sku\":\"BATCH-" + i + "\""));
+            }
+        }
+
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, times(1)).findAllById(any());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Reads past max-batch-size go out as a second batch once the window closes")
+    public void testConcurrentReads_SplitAtMaxBatchSize() throws Exception {
+        List<Future<MockHttpServletResponse>> responses = getConcurrently(productIds);
+        for (Future<MockHttpServletResponse> response : responses) {
+            assertEquals(200, response.get(10, TimeUnit.SECONDS).getStatus());
+        }
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<UUID>> batches = ArgumentCaptor.forClass(Iterable.class);
+        verify(productRepository, times(2)).findAllById(batches.capture());
+        List<Long> sizes = batches.getAllValues().stream()
+                .map(batch -> StreamSupport.stream(batch.spliterator(), false).count())
+                .sorted()
+                .toList();
+        assertEquals(List.of(5L, 10L), sizes);
+    }
+
+    private List<Future<MockHttpServletResponse>> getConcurrently(List<UUID> ids) {
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        for (UUID id : ids) {
+            responses.add(clients.submit(() -> mockMvc.perform(get("/v1/product/" + id)).andReturn().getResponse()));
+        }
+        return responses;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
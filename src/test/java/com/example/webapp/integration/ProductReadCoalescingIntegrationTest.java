@@ -0,0 +1,197 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.UserRepository;
+import com.example.webapp.service.ProductService;
+import com.example.webapp.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Concurrent GET /v1/product/{id} for one product. The first findById is held back until every
+ * request is parked, so all of them overlap the same load.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coalescingdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "webapp.product.coalescing.max-wait-ms=3000",
+        // No background statements while counting
+        "webapp.outbox.enabled=false",
+        "webapp.reservation.sweep-initial-delay-ms=3600000"
+})
+public class ProductReadCoalescingIntegrationTest {
+
+    private static final int REQUESTS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoSpyBean
+    private ProductRepository productRepository;
+
+    private final CountDownLatch loadStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseLoad = new CountDownLatch(1);
+    private final List<Thread> clientThreads = new CopyOnWriteArrayList<>();
+    private ExecutorService clients;
+
+    private UUID productId;
+
+    @BeforeEach
+    public void setup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+
+        UUID owner = userService.createUser(
+                new UserRequestDTO("coalesce@example.com", "SecurePass123!", "Single", "Flight")).getId();
+        productId = productService.createProduct(
+                new ProductRequestDTO("Campaign", "Linked from everywhere", "COALESCE-1", "Maker", 10), owner).getId();
+
+        // The spy wraps a Spring Data proxy: its default answer delegates to the real repository
+        Answer<?> realRepository = mockingDetails(productRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            loadStarted.countDown();
+            assertTrue(releaseLoad.await(30, TimeUnit.SECONDS));
+            return realRepository.answer(invocation);
+        }).when(productRepository).findById(any());
+
+        clients = Executors.newFixedThreadPool(REQUESTS, runnable -> {
+            Thread thread = new Thread(runnable);
+            clientThreads.add(thread);
+            return thread;
+        });
+        statistics().clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        releaseLoad.countDown();
+        clients.shutdownNow();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Concurrent reads of one product share a single findById and SELECT")
+    public void testConcurrentReads_OneQuery() throws Exception {
+        List<Future<MockHttpServletResponse>> responses = getConcurrently("/v1/product/" + productId, REQUESTS);
+        awaitAllParked();
+        releaseLoad.countDown();
+
+        for (Future<MockHttpServletResponse> future : responses) {
+            MockHttpServletResponse response = future.get(10, TimeUnit.SECONDS);
+            assertEquals(200, response.getStatus());
+            assertEquals("\"0\"", response.getHeader("ETag"));
+            assertTrue(response.getContentAsString().contains(productId.toString()));
+        }
+
+        verify(productRepository, times(1)).findById(productId);
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("A not-found load fails every waiting request with 404")
+    public void testConcurrentReads_ErrorShared() throws Exception {
+        UUID missing = UUID.randomUUID();
+        List<Future<MockHttpServletResponse>> responses = getConcurrently("/v1/product/" + missing, REQUESTS);
+        awaitAllParked();
+        releaseLoad.countDown();
+
+        for (Future<MockHttpServletResponse> future : responses) {
+            MockHttpServletResponse response = future.get(10, TimeUnit.SECONDS);
+            assertEquals(404, response.getStatus());
+            assertTrue(response.getContentAsString().contains("Product not found with ID: " + missing));
+        }
+
+        verify(productRepository, times(1)).findById(missing);
+    }
+
+    @Test
+    @DisplayName("Requests joining a slow load give up after max-wait-ms with 503; the load still completes")
+    public void testConcurrentReads_BoundedWait() throws Exception {
+        Future<MockHttpServletResponse> first = getConcurrently("/v1/product/" + productId, 1).get(0);
+        assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+
+        List<Future<MockHttpServletResponse>> joined = getConcurrently("/v1/product/" + productId, 5);
+        for (Future<MockHttpServletResponse> future : joined) {
+            MockHttpServletResponse response = future.get(10, TimeUnit.SECONDS);
+            assertEquals(503, response.getStatus());
+            assertEquals("1", response.getHeader("Retry-After"));
+        }
+
+        releaseLoad.countDown();
+        assertEquals(200, first.get(10, TimeUnit.SECONDS).getStatus());
+
+        // Nothing is cached: the next read loads again
+        assertEquals(200, mockMvc.perform(get("/v1/product/" + productId)).andReturn().getResponse().getStatus());
+        verify(productRepository, times(2)).findById(productId);
+    }
+
+    private List<Future<MockHttpServletResponse>> getConcurrently(String uri, int count) {
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            responses.add(clients.submit(() -> mockMvc.perform(get(uri)).andReturn().getResponse()));
+        }
+        return responses;
+    }
+
+    // One thread waits in findById, the others on its result
+    private void awaitAllParked() throws InterruptedException {
+        assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (clientThreads.size() == REQUESTS && clientThreads.stream().allMatch(thread ->
+                    thread.getState() == Thread.State.WAITING || thread.getState() == Thread.State.TIMED_WAITING)) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("requests did not all reach the in-flight load");
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.UserRepository;
+import com.example.webapp.service.ProductChangeStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Base64;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+// No result printing: it reads the response headers while the sender thread is still writing events
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:streamdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class ProductStreamIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductChangeStream changeStream;
+
+    private String authHeader;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+
+        String email = "stream" + System.currentTimeMillis() + "@example.com";
+        authHeader = "Basic " + Base64.getEncoder().encodeToString((email + ":SecurePass123!").getBytes());
+
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO(email, "SecurePass123!", "Stream", "User"))))
+                .andExpect(status().isCreated());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("GET /v1/product/stream?sku= - Pushes committed changes for that SKU only")
+    public void testStream_FilteredBySku() throws Exception {
+        String sku = "SSE-" + System.currentTimeMillis();
+
+        MvcResult stream = mockMvc.perform(get("/v1/product/stream").param("sku", sku))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        createProduct("OTHER-" + System.currentTimeMillis());
+        String productId = createProduct(sku);
+        mockMvc.perform(delete("/v1/product/" + productId)
+                        .header("Authorization", authHeader))
+                .andExpect(status().isNoContent());
+
+        String events = awaitContent(stream, "event:deleted");
+        assertTrue(events.contains("event:created"));
+        assertTrue(events.contains(productId));
+        assertFalse(events.contains("OTHER-"));
+    }
+
+    @Test
+    @DisplayName("GET /v1/product/stream - Last-Event-ID replays what the client missed")
+    public void testStream_ResumeFromLastEventId() throws Exception {
+        String sku = "RESUME-" + System.currentTimeMillis();
+
+        MvcResult first = mockMvc.perform(get("/v1/product/stream").param("sku", sku))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String productId = createProduct(sku);
+        long createdEventId = lastEventId(awaitContent(first, "event:created"));
+
+        // Client disconnected here; the update happens while it is away
+        mockMvc.perform(patch("/v1/product/" + productId)
+                        .header("Authorization", authHeader)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"quantity\":1}"))
+                .andExpect(status().isOk());
+
+        MvcResult resumed = mockMvc.perform(get("/v1/product/stream")
+                        .param("sku", sku)
+                        .header("Last-Event-ID", Long.toString(createdEventId)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String replayed = awaitContent(resumed, "event:updated");
+        assertFalse(replayed.contains("event:created"));
+        assertTrue(lastEventId(replayed) > createdEventId);
+    }
+
+    @Test
+    @DisplayName("GET /v1/product/stream - A Last-Event-ID from before a restart gets a reset, not a gap")
+    public void testStream_ResetAfterRestart() throws Exception {
+        String sku = "RESTART-" + System.currentTimeMillis();
+
+        MvcResult live = mockMvc.perform(get("/v1/product/stream").param("sku", sku))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        createProduct(sku);
+        long currentId = lastEventId(awaitContent(live, "event:created"));
+
+        // The previous process numbered its events from a lower start; a client may also
+        // present an id this process has not reached, e.g. one from another instance
+        for (long staleId : new long[]{42, currentId + 1000}) {
+            MvcResult resumed = mockMvc.perform(get("/v1/product/stream")
+                            .param("sku", sku)
+                            .header("Last-Event-ID", Long.toString(staleId)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String replayed = awaitContent(resumed, "event:reset");
+            assertEquals(currentId, lastEventId(replayed));
+        }
+    }
+
+    @Test
+    @DisplayName("Stopping the stream ends open connections, so they don't hold up graceful shutdown")
+    public void testStream_StopCompletesSubscribers() throws Exception {
+        // Streams of the other tests may still be open too
+        int openBefore = changeStream.subscriberCount();
+        MvcResult stream = mockMvc.perform(get("/v1/product/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(openBefore + 1, changeStream.subscriberCount());
+
+        try {
+            // What the context does on shutdown, ahead of the web server's graceful shutdown
+            changeStream.stop();
+
+            assertEquals(0, changeStream.subscriberCount());
+            // Only returns once the emitter has completed the async request
+            mockMvc.perform(asyncDispatch(stream))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get("/v1/product/stream"))
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            changeStream.start();
+        }
+    }
+
+    private String createProduct(String sku) throws Exception {
+        MvcResult result = mockMvc.perform(post("/v1/product")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductRequestDTO("Streamed", "SSE item", sku, "Maker", 5))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+    }
+
+    private String awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), "expected " + expected + " in stream, got: " + content);
+        return content;
+    }
+
+    private long lastEventId(String content) {
+        Matcher matcher = Pattern.compile("id:(\\d+)").matcher(content);
+        long last = -1;
+        while (matcher.find()) {
+            last = Long.parseLong(matcher.group(1));
+        }
+        return last;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.ProductTombstoneRepository;
+import com.example.webapp.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:syncdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        // Single-threaded test, nothing is still committing when we read
+        "webapp.sync.settle-ms=0"
+})
+public class ProductSyncIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductTombstoneRepository tombstoneRepository;
+
+    private String authHeader;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        tombstoneRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+
+        String email = "sync" + System.currentTimeMillis() + "@example.com";
+        authHeader = "Basic " + Base64.getEncoder().encodeToString((email + ":SecurePass123!").getBytes());
+
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO(email, "SecurePass123!", "Delta", "Sync"))))
+                .andExpect(status().isCreated());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        tombstoneRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("GET /v1/product/changes - Pages through changes and tombstones, then only what changed since")
+    public void testChanges_PagedWithTombstones() throws Exception {
+        String kept1 = createProduct("SYNC-A-" + System.nanoTime());
+        String kept2 = createProduct("SYNC-B-" + System.nanoTime());
+        String removed = createProduct("SYNC-C-" + System.nanoTime());
+        mockMvc.perform(delete("/v1/product/" + removed)
+                        .header("Authorization", authHeader))
+                .andExpect(status().isNoContent());
+
+        // Initial sync in pages of two
+        List<String> changed = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        String token = null;
+        JsonNode page;
+        do {
+            page = changes(token, 2);
+            assertTrue(page.get("changed").size() + page.get("deleted").size() <= 2);
+            page.get("changed").forEach(product -> changed.add(product.get("id").asText()));
+            page.get("deleted").forEach(tombstone -> deleted.add(tombstone.get("id").asText()));
+            token = page.get("nextToken").asText();
+        } while (page.get("hasMore").asBoolean());
+
+        assertEquals(List.of(kept1, kept2), changed);
+        assertEquals(List.of(removed), deleted);
+
+        // Nothing new
+        JsonNode idle = changes(token, 100);
+        assertEquals(0, idle.get("changed").size());
+        assertEquals(0, idle.get("deleted").size());
+
+        mockMvc.perform(patch("/v1/product/" + kept1)
+                        .header("Authorization", authHeader)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"quantity\":3}"))
+                .andExpect(status().isOk());
+
+        JsonNode delta = changes(idle.get("nextToken").asText(), 100);
+        assertEquals(1, delta.get("changed").size());
+        assertEquals(kept1, delta.get("changed").get(0).get("id").asText());
+        assertEquals(3, delta.get("changed").get(0).get("quantity").asInt());
+        assertEquals(0, delta.get("deleted").size());
+        assertFalse(delta.get("hasMore").asBoolean());
+    }
+
+    @Test
+    @DisplayName("GET /v1/product/changes - Token past tombstone retention is 410, garbage is 400")
+    public void testChanges_ExpiredAndMalformedToken() throws Exception {
+        String ancient = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("2000-01-01T00:00|" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(get("/v1/product/changes").param("since", ancient))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.status").value(410));
+
+        mockMvc.perform(get("/v1/product/changes").param("since", "not-a-token"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/v1/product/changes").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/v1/product/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed", hasSize(0)))
+                .andExpect(jsonPath("$.nextToken").isNotEmpty());
+    }
+
+    private JsonNode changes(String token, int limit) throws Exception {
+        var request = get("/v1/product/changes").param("limit", Integer.toString(limit));
+        if (token != null) {
+            request.param("since", token);
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private String createProduct(String sku) throws Exception {
+        MvcResult result = mockMvc.perform(post("/v1/product")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductRequestDTO("Synced", "Delta item", sku, "Maker", 5))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.ProductUpdateDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Counts the SQL statements behind product writes and the owner's listing, so a change that
+ * brings back load-then-check round trips or repeated user lookups shows up as a failure.
+ * Every count includes the one SELECT that HTTP Basic authentication runs per request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statementcountdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // No background statements while counting
+        "webapp.outbox.enabled=false",
+        "webapp.reservation.sweep-initial-delay-ms=3600000"
+})
+public class ProductWriteStatementCountIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String ownerAuthHeader;
+    private String otherAuthHeader;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ownerAuthHeader = createUser("owner" + System.currentTimeMillis() + "@example.com");
+        otherAuthHeader = createUser("other" + System.currentTimeMillis() + "@example.com");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("PUT /v1/product/{id} - Owner update is one conditional UPDATE plus the re-read")
+    public void testUpdate_StatementCount() throws Exception {
+        String sku = "COUNT-PUT-" + System.currentTimeMillis();
+        String productId = createProduct(sku);
+        ProductUpdateDTO update = new ProductUpdateDTO("Renamed", "Description", sku, "Maker", 8);
+
+        // auth + UPDATE + SELECT of the new state
+        long statements = countStatements(() -> mockMvc.perform(put("/v1/product/" + productId)
+                        .header("Authorization", ownerAuthHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed"))
+                .andExpect(header().string("ETag", "\"1\"")));
+        assertEquals(3, statements);
+
+        // Nothing left to change: the UPDATE matches nothing and one read explains why
+        statements = countStatements(() -> mockMvc.perform(put("/v1/product/" + productId)
+                        .header("Authorization", ownerAuthHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\"")));
+        assertEquals(3, statements);
+
+        statements = countStatements(() -> mockMvc.perform(put("/v1/product/" + productId)
+                        .header("Authorization", otherAuthHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isForbidden()));
+        assertEquals(3, statements);
+    }
+
+    @Test
+    @DisplayName("DELETE /v1/product/{id} - Owner delete reads only the SKU and version, then one conditional DELETE")
+    public void testDelete_StatementCount() throws Exception {
+        String productId = createProduct("COUNT-DEL-" + System.currentTimeMillis());
+
+        // Not the owner: the owner-scoped read finds nothing, then one read tells 403 from 404
+        long statements = countStatements(() -> mockMvc.perform(delete("/v1/product/" + productId)
+                        .header("Authorization", otherAuthHeader))
+                .andExpect(status().isForbidden()));
+        assertEquals(3, statements);
+
+        // auth + SKU/version + DELETE + tombstone INSERT
+        statements = countStatements(() -> mockMvc.perform(delete("/v1/product/" + productId)
+                        .header("Authorization", ownerAuthHeader))
+                .andExpect(status().isNoContent()));
+        assertEquals(4, statements);
+        assertFalse(productRepository.existsById(UUID.fromString(productId)));
+    }
+
+    @Test
+    @DisplayName("POST /v1/product and GET /v1/product/my-products - The owner comes from the principal, users is not queried again")
+    public void testCreateAndMyProducts_StatementCount() throws Exception {
+        String sku = "COUNT-POST-" + System.currentTimeMillis();
+
+        // auth + SKU check + INSERT + refresh
+        long statements = countStatements(() -> createProduct(sku));
+        assertEquals(4, statements);
+
+        // auth + products by owner_user_id
+        statements = countStatements(() -> mockMvc.perform(get("/v1/product/my-products")
+                        .header("Authorization", ownerAuthHeader))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sku").value(sku)));
+        assertEquals(2, statements);
+    }
+
+    private long countStatements(ThrowingRunnable request) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        request.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private String createUser(String email) throws Exception {
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO(email, "SecurePass123!", "Count", "User"))))
+                .andExpect(status().isCreated());
+        return "Basic " + Base64.getEncoder().encodeToString((email + ":SecurePass123!").getBytes());
+    }
+
+    private String createProduct(String sku) throws Exception {
+        MvcResult result = mockMvc.perform(post("/v1/product")
+                        .header("Authorization", ownerAuthHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductRequestDTO("Counted", "Description", sku, "Maker", 5))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.config.RateLimiter;
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.UserRepository;
+import com.example.webapp.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Buckets refill at one token per 1000 s here, so within a test a client only has its burst.
+ * Every test uses its own IP addresses and emails, since buckets outlive a test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ratelimitdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "webapp.rate-limit.enabled=true",
+        "webapp.rate-limit.auth.capacity=3",
+        "webapp.rate-limit.auth.refill-per-second=0.001",
+        "webapp.rate-limit.public-read.capacity=5",
+        "webapp.rate-limit.public-read.refill-per-second=0.001",
+        "webapp.rate-limit.authenticated-write.capacity=4",
+        "webapp.rate-limit.authenticated-write.refill-per-second=0.001",
+        "webapp.rate-limit.login.capacity=3",
+        "webapp.rate-limit.login.refill-per-second=0.001"
+})
+public class RateLimitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Anonymous GETs are limited per IP address, with RateLimit-* headers; health is not limited")
+    public void testAnonymousReads_LimitedPerIp() throws Exception {
+        for (int remaining = 4; remaining >= 0; remaining--) {
+            mockMvc.perform(get("/v1/product").with(from("10.0.0.1")))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("RateLimit-Limit", "5"))
+                    .andExpect(header().string("RateLimit-Remaining", String.valueOf(remaining)))
+                    .andExpect(header().exists("RateLimit-Reset"));
+        }
+
+        mockMvc.perform(get("/v1/product").with(from("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("RateLimit-Remaining", "0"))
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.message").value("Rate limit exceeded, retry later"));
+
+        // Another address has its own bucket
+        mockMvc.perform(get("/v1/product").with(from("10.0.0.2")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("RateLimit-Remaining", "4"));
+
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(get("/v1/product/health").with(from("10.0.0.1")))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("RateLimit-Limit"));
+        }
+
+        assertTrue(meterRegistry.get("http.rate-limit.rejected").tag("route", "public-read").counter().count() >= 1);
+    }
+
+    @Test
+    @DisplayName("Authenticated writes are limited per email, wherever the requests come from")
+    public void testAuthenticatedWrites_LimitedPerEmail() throws Exception {
+        String alice = user("alice-ratelimit@example.com");
+        String bob = user("bob-ratelimit@example.com");
+
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(createProduct(alice, "RL-A-" + i).with(from("10.0.1." + i)))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string("RateLimit-Remaining", String.valueOf(3 - i)));
+        }
+        mockMvc.perform(createProduct(alice, "RL-A-4").with(from("10.0.1.9")))
+                .andExpect(status().isTooManyRequests());
+        assertFalse(productRepository.existsBySku("RL-A-4"));
+
+        // Same address as alice's last request, different user
+        mockMvc.perform(createProduct(bob, "RL-B-0").with(from("10.0.1.3")))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("RateLimit-Remaining", "3"));
+    }
+
+    @Test
+    @DisplayName("Anonymous signups are limited per IP address")
+    public void testSignups_LimitedPerIp() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(signup("signup" + i + "-ratelimit@example.com").with(from("10.0.2.1")))
+                    .andExpect(status().isCreated());
+        }
+        mockMvc.perform(signup("signup3-ratelimit@example.com").with(from("10.0.2.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        assertFalse(userRepository.existsByEmail("signup3-ratelimit@example.com"));
+    }
+
+    @Test
+    @DisplayName("Failed sign-ins are limited per IP address before Spring Security checks the password")
+    public void testFailedSignIns_LimitedPerIp() throws Exception {
+        String carol = user("carol-ratelimit@example.com");
+        String wrongPassword = "Basic " + Base64.getEncoder()
+                .encodeToString("carol-ratelimit@example.com:WrongPass123!".getBytes());
+
+        // Successful sign-ins take nothing from the login bucket
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/v1/product").header("Authorization", carol).with(from("10.0.4.1")))
+                    .andExpect(status().isOk());
+        }
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/v1/product").header("Authorization", wrongPassword).with(from("10.0.4.1")))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // Refused before authentication, even with the right password
+        mockMvc.perform(get("/v1/product").header("Authorization", carol).with(from("10.0.4.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.message").value("Too many failed sign-ins, retry later"));
+
+        // Anonymous requests from that address and sign-ins from others are unaffected
+        mockMvc.perform(get("/v1/product").with(from("10.0.4.1")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/product").header("Authorization", wrongPassword).with(from("10.0.4.2")))
+                .andExpect(status().isUnauthorized());
+
+        assertTrue(meterRegistry.get("http.rate-limit.rejected").tag("route", "login").counter().count() >= 1);
+    }
+
+    @Test
+    @DisplayName("Parallel wrong passwords from one address get one password check per token")
+    public void testFailedSignIns_ConcurrentGuesses() throws Exception {
+        user("dave-ratelimit@example.com");
+        String wrongPassword = "Basic " + Base64.getEncoder()
+                .encodeToString("dave-ratelimit@example.com:WrongPass123!".getBytes());
+
+        int guesses = 12;
+        AtomicInteger unauthorized = new AtomicInteger();
+        AtomicInteger tooMany = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(guesses);
+
+        for (int i = 0; i < guesses; i++) {
+            pool.submit(() -> {
+                start.await();
+                int status = mockMvc.perform(get("/v1/product")
+                                .header("Authorization", wrongPassword).with(from("10.0.4.3")))
+                        .andReturn().getResponse().getStatus();
+                if (status == 401) {
+                    unauthorized.incrementAndGet();
+                } else if (status == 429) {
+                    tooMany.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(3, unauthorized.get());
+        assertEquals(guesses - 3, tooMany.get());
+    }
+
+    @Test
+    @DisplayName("Buckets refill over time and full buckets are evicted")
+    public void testBuckets_RefillAndEviction() {
+        long interval = TimeUnit.SECONDS.toNanos(1000);
+        long now = System.nanoTime();
+        int before = rateLimiter.size();
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimiter.tryAcquire("public-read", "ip:10.0.3.1", now).allowed());
+        }
+        RateLimiter.Decision refused = rateLimiter.tryAcquire("public-read", "ip:10.0.3.1", now);
+        assertFalse(refused.allowed());
+        assertEquals(interval, refused.retryAfterNanos());
+
+        // One interval later exactly one token is back
+        RateLimiter.Decision refilled = rateLimiter.tryAcquire("public-read", "ip:10.0.3.1", now + interval);
+        assertTrue(refilled.allowed());
+        assertEquals(0, refilled.remaining());
+        assertFalse(rateLimiter.tryAcquire("public-read", "ip:10.0.3.1", now + interval).allowed());
+
+        // Routes without a rule (health) are not limited at all
+        assertNull(rateLimiter.tryAcquire("health", "ip:10.0.3.1", now));
+
+        // A bucket that has been full again for a while carries no state; the sweep drops it
+        assertTrue(rateLimiter.tryAcquire("public-read", "ip:10.0.3.2", now - 10 * interval).allowed());
+        assertEquals(before + 2, rateLimiter.size());
+        rateLimiter.evictIdle();
+        assertEquals(before + 1, rateLimiter.size());
+        assertFalse(rateLimiter.tryAcquire("public-read", "ip:10.0.3.1", now + interval).allowed());
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    private String user(String email) {
+        userService.createUser(new UserRequestDTO(email, "SecurePass123!", "Rate", "Limited"));
+        return "Basic " + Base64.getEncoder().encodeToString((email + ":SecurePass123!").getBytes());
+    }
+
+    private MockHttpServletRequestBuilder createProduct(String authHeader, String sku) throws Exception {
+        return post("/v1/product")
+                .header("Authorization", authHeader)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ProductRequestDTO("Limited", "Description", sku, "Maker", 5)));
+    }
+
+    private MockHttpServletRequestBuilder signup(String email) throws Exception {
+        return post("/v1/user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UserRequestDTO(email, "SecurePass123!", "Sign", "Up")));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactiveproductdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "webapp.reactive.url=r2dbc:h2:mem:///reactiveproductdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class ReactiveProductIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private String authHeader;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+
+        String email = "reactive" + System.currentTimeMillis() + "@example.com";
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO(email, "SecurePass123!", "Reactive", "Reader"))))
+                .andExpect(status().isCreated());
+        authHeader = "Basic " + Base64.getEncoder().encodeToString((email + ":SecurePass123!").getBytes());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("GET /v1/reactive/product/{id} - Same body and ETag as GET /v1/product/{id}, no auth needed")
+    public void testGetProductById_MatchesMvc() throws Exception {
+        String productId = createProduct("REACTIVE-001");
+
+        MvcResult blocking = mockMvc.perform(get("/v1/product/" + productId))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        MvcResult reactive = mockMvc.perform(async(get("/v1/reactive/product/" + productId)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.sku").value("REACTIVE-001"))
+                .andExpect(jsonPath("$.availableQuantity").value(5))
+                .andReturn();
+
+        assertEquals(objectMapper.readTree(blocking.getResponse().getContentAsString()),
+                objectMapper.readTree(reactive.getResponse().getContentAsString()));
+    }
+
+    @Test
+    @DisplayName("GET /v1/reactive/product/{id} - 404 through the same exception handler")
+    public void testGetProductById_NotFound() throws Exception {
+        UUID missing = UUID.randomUUID();
+
+        mockMvc.perform(async(get("/v1/reactive/product/" + missing)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Product not found with ID: " + missing));
+    }
+
+    @Test
+    @DisplayName("GET /v1/reactive/product - JSON array, or one product per line as NDJSON")
+    public void testGetAllProducts_JsonAndNdjson() throws Exception {
+        createProduct("REACTIVE-001");
+        createProduct("REACTIVE-002");
+
+        mockMvc.perform(async(get("/v1/reactive/product").accept(MediaType.APPLICATION_JSON)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].sku").value("REACTIVE-001"))
+                .andExpect(jsonPath("$[1].sku").value("REACTIVE-002"));
+
+        MvcResult stream = mockMvc.perform(async(get("/v1/reactive/product").accept(MediaType.APPLICATION_NDJSON)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String[] lines = stream.getResponse().getContentAsString().trim().split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("REACTIVE-001", first.get("sku").asText());
+        assertEquals("REACTIVE-002", objectMapper.readTree(lines[1]).get("sku").asText());
+    }
+
+    /**
+     * Runs the request and, once the handler's Mono/Flux completes, the async dispatch that
+     * writes the response.
+     */
+    private RequestBuilder async(RequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        started.getAsyncResult();
+        return asyncDispatch(started);
+    }
+
+    private String createProduct(String sku) throws Exception {
+        MvcResult result = mockMvc.perform(post("/v1/product")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductRequestDTO("Reactive", "Read without blocking", sku, "Maker", 5))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+    }
+}
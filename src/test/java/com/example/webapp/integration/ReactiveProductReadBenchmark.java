@@ -0,0 +1,110 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.WebappApplication;
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.service.ProductService;
+import com.example.webapp.service.ReactiveProductReader;
+import com.example.webapp.service.UserService;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * GET /v1/product/{id} (ProductController, JDBC) against GET /v1/reactive/product/{id}
+ * (ReactiveProductController, R2DBC) on the same application, at rising numbers of open
+ * client connections. Request handling is on Tomcat's platform threads for both. Every
+ * statement waits db-latency-ms to stand in for MySQL (see SimulatedLatency); the JDBC path
+ * blocks a thread for it, the reactive path does not.
+ *
+ * Not part of the regular build (surefire only picks up *Test classes). Run with
+ * mvn test -Dtest=ReactiveProductReadBenchmark
+ * and tune with -Dbench.tomcat-threads, -Dbench.pool-size, -Dbench.db-latency-ms,
+ * -Dbench.step-seconds, -Dbench.p99-target-ms.
+ */
+public class ReactiveProductReadBenchmark {
+
+    private static final int TOMCAT_THREADS = Integer.getInteger("bench.tomcat-threads", 200);
+    private static final int POOL_SIZE = Integer.getInteger("bench.pool-size", 50);
+    private static final long DB_LATENCY_MILLIS = Long.getLong("bench.db-latency-ms", 5);
+    private static final int STEP_SECONDS = Integer.getInteger("bench.step-seconds", 10);
+    private static final long P99_TARGET_MILLIS = Long.getLong("bench.p99-target-ms", 250);
+    private static final int[] CONNECTION_STEPS = {100, 400, 1000, 2000, 4000};
+
+    @Test
+    public void benchmarkHighConnectionCounts() throws Exception {
+        try (ConfigurableApplicationContext context = start()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            UUID productId = seedProduct(context);
+            URI blocking = URI.create("http://localhost:" + port + "/v1/product/" + productId);
+            URI reactive = URI.create("http://localhost:" + port + "/v1/reactive/product/" + productId);
+
+            ReactiveProductReader reader = context.getBean(ReactiveProductReader.class);
+            ConnectionFactory pool = (ConnectionFactory) ReflectionTestUtils.getField(reader, "connectionPool");
+            ReflectionTestUtils.setField(reader, "databaseClient",
+                    DatabaseClient.create(SimulatedLatency.r2dbc(pool, DB_LATENCY_MILLIS)));
+
+            // Warm-up at a moderate load, not reported
+            HttpLoad.run(blocking, 50, Math.max(2, STEP_SECONDS / 2));
+            HttpLoad.run(reactive, 50, Math.max(2, STEP_SECONDS / 2));
+
+            double bestBlocking = 0;
+            double bestReactive = 0;
+            for (int connections : CONNECTION_STEPS) {
+                HttpLoad.Result mvc = HttpLoad.run(blocking, connections, STEP_SECONDS);
+                HttpLoad.Result flux = HttpLoad.run(reactive, connections, STEP_SECONDS);
+                System.out.printf("connections %-5d  mvc %s | reactive %s%n", connections, mvc, flux);
+
+                if (mvc.sustainable(P99_TARGET_MILLIS)) {
+                    bestBlocking = Math.max(bestBlocking, mvc.throughput());
+                }
+                if (flux.sustainable(P99_TARGET_MILLIS)) {
+                    bestReactive = Math.max(bestReactive, flux.throughput());
+                }
+            }
+
+            System.out.printf("tomcat threads %d, pools %d, db latency %d ms, p99 target %d ms%n",
+                    TOMCAT_THREADS, POOL_SIZE, DB_LATENCY_MILLIS, P99_TARGET_MILLIS);
+            System.out.printf("max sustainable, ProductController:         %8.0f req/s%n", bestBlocking);
+            System.out.printf("max sustainable, ReactiveProductController: %8.0f req/s%n", bestReactive);
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(WebappApplication.class)
+                .profiles("test")
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                                ? SimulatedLatency.jdbc(dataSource, DB_LATENCY_MILLIS) : bean;
+                    }
+                }))
+                // Command-line arguments, so they win over application-test.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:reactivebenchdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--webapp.reactive.url=r2dbc:h2:mem:///reactivebenchdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--webapp.reactive.maximum-pool-size=" + POOL_SIZE,
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--webapp.outbox.journal-dir=${java.io.tmpdir}/webapp-product-journal-reactivebench",
+                        "--webapp.bulkhead.enabled=false",
+                        "--logging.level.com.example.webapp=WARN");
+    }
+
+    private UUID seedProduct(ConfigurableApplicationContext context) {
+        UserService userService = context.getBean(UserService.class);
+        ProductService productService = context.getBean(ProductService.class);
+        UUID owner = userService.createUser(new UserRequestDTO(
+                "bench" + System.nanoTime() + "@example.com", "SecurePass123!", "Bench", "Mark")).getId();
+        return productService.createProduct(
+                new ProductRequestDTO("Bench", "Load test item", "REACTIVE-BENCH", "Maker", 10), owner).getId();
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.config.ReplicaLagMonitor;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Two H2 databases stand in for the primary and the replica. They don't replicate, so a row
+ * inserted only into the replica shows which database served a request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingprimarydb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "webapp.datasource.replica.url=" + ReadReplicaRoutingIntegrationTest.REPLICA_URL,
+        "webapp.datasource.replica.max-lag-ms=60000",
+        // Lag checks only run when the test calls them
+        "webapp.datasource.replica.lag-check-ms=3600000"
+})
+public class ReadReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routingreplicadb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @BeforeAll
+    public static void createReplica() {
+        DataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    public void setup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        replica.update("DELETE FROM products");
+        replica.update("DELETE FROM users");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        replica.update("DELETE FROM products");
+        replica.update("DELETE FROM users");
+    }
+
+    @Test
+    @DisplayName("Read-only service calls go to the replica while it keeps up")
+    public void testReadOnly_ServedByReplica() throws Exception {
+        UUID productId = insertReplicaOnlyProduct();
+
+        setHeartbeats(System.currentTimeMillis(), System.currentTimeMillis());
+        lagMonitor.checkLag();
+        assertTrue(lagMonitor.isReplicaUsable());
+
+        mockMvc.perform(get("/v1/product/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sku").value("REPLICA-ONLY"));
+    }
+
+    @Test
+    @DisplayName("A lagging replica is skipped and reads fall back to the primary")
+    public void testReadOnly_FallsBackWhenReplicaLags() throws Exception {
+        UUID productId = insertReplicaOnlyProduct();
+
+        // More than max-lag-ms behind the primary's beat
+        long now = System.currentTimeMillis();
+        setHeartbeats(now, now - 120_000);
+        lagMonitor.checkLag();
+        assertFalse(lagMonitor.isReplicaUsable());
+
+        mockMvc.perform(get("/v1/product/" + productId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Writes go to the primary even while the replica is in rotation")
+    public void testWrite_GoesToPrimary() throws Exception {
+        setHeartbeats(System.currentTimeMillis(), System.currentTimeMillis());
+        lagMonitor.checkLag();
+        assertTrue(lagMonitor.isReplicaUsable());
+
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO("writer@example.com", "SecurePass123!", "Write", "Path"))))
+                .andExpect(status().isCreated());
+
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM users WHERE email = 'writer@example.com'", Integer.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM users WHERE email = 'writer@example.com'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("With the default settings a replica that keeps up stays in rotation")
+    public void testLagCheck_DefaultSettings() throws Exception {
+        // The defaults: max-lag-ms=1000, lag-check-ms=1000
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(
+                primaryDataSource, new DriverManagerDataSource(REPLICA_URL, "sa", ""), 1000);
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        setReplicaHeartbeat(0);
+
+        // Replication keeps up: every beat reaches the replica before the next check
+        for (int check = 0; check < 3; check++) {
+            monitor.checkLag();
+            setReplicaHeartbeat(primary.queryForObject(
+                    "SELECT beat_millis FROM replication_heartbeat WHERE id = 1", Long.class));
+            Thread.sleep(1000);
+        }
+        monitor.checkLag();
+        assertTrue(monitor.isReplicaUsable(), "lag " + monitor.getLastLagMillis() + " ms");
+        assertTrue(monitor.getLastLagMillis() < 500, "lag " + monitor.getLastLagMillis() + " ms");
+
+        // Replication stops: out of rotation once the last beat is more than max-lag-ms overdue
+        for (int check = 0; check < 3; check++) {
+            Thread.sleep(1000);
+            monitor.checkLag();
+        }
+        assertFalse(monitor.isReplicaUsable(), "lag " + monitor.getLastLagMillis() + " ms");
+    }
+
+    @Test
+    @DisplayName("A check that runs late, behind other scheduled jobs, does not count the delay as lag")
+    public void testLagCheck_DelayedCheck() throws Exception {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(
+                primaryDataSource, new DriverManagerDataSource(REPLICA_URL, "sa", ""), 1000);
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+
+        monitor.checkLag();
+        setReplicaHeartbeat(primary.queryForObject(
+                "SELECT beat_millis FROM replication_heartbeat WHERE id = 1", Long.class));
+
+        // The replica has the last beat; the next check just comes more than max-lag-ms late
+        Thread.sleep(2500);
+        monitor.checkLag();
+        assertTrue(monitor.isReplicaUsable(), "lag " + monitor.getLastLagMillis() + " ms");
+        assertEquals(0, monitor.getLastLagMillis());
+    }
+
+    private UUID insertReplicaOnlyProduct() {
+        UUID ownerId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        replica.update("INSERT INTO users (id, email, password, first_name, last_name, account_created, account_updated) "
+                        + "VALUES (?, 'replica@example.com', 'x', 'Replica', 'Owner', ?, ?)",
+                toBytes(ownerId), now, now);
+        replica.update("INSERT INTO products (id, name, description, sku, manufacturer, quantity, reserved_quantity, "
+                        + "date_added, date_last_updated, owner_user_id, version) "
+                        + "VALUES (?, 'Replica item', 'Only on the replica', 'REPLICA-ONLY', 'Maker', 3, 0, ?, ?, ?, 0)",
+                toBytes(productId), now, now, toBytes(ownerId));
+        return productId;
+    }
+
+    private void setHeartbeats(long primaryBeatMillis, long replicaBeatMillis) {
+        new JdbcTemplate(primaryDataSource).update(
+                "UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1", primaryBeatMillis);
+        setReplicaHeartbeat(replicaBeatMillis);
+    }
+
+    private void setReplicaHeartbeat(long beatMillis) {
+        replica.update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1", beatMillis);
+    }
+
+    private byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.ReservationRequestDTO;
+import com.example.webapp.dto.ReservationResponseDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.exception.InsufficientStockException;
+import com.example.webapp.exception.ReservationStateException;
+import com.example.webapp.model.Product;
+import com.example.webapp.model.ReservationStatus;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.StockReservationRepository;
+import com.example.webapp.repository.UserRepository;
+import com.example.webapp.service.ReservationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservationdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "webapp.reservation.tick-ms=100"
+})
+public class ReservationIntegrationTest {
+
+    private static final String HOLDER = "holder@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    private String ownerAuthHeader;
+    private String otherAuthHeader;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        reservationRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ownerAuthHeader = createUser("resowner" + System.currentTimeMillis() + "@example.com");
+        otherAuthHeader = createUser("resother" + System.currentTimeMillis() + "@example.com");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        reservationRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Concurrent holds never exceed stock; concurrent confirm/release settle exactly once")
+    public void testConcurrentReservations_StressH2() throws Exception {
+        UUID productId = createProduct(50);
+
+        int threads = 24;
+        int attempts = 400;
+        ConcurrentLinkedQueue<UUID> held = new ConcurrentLinkedQueue<>();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(threads, attempts, i -> {
+            try {
+                held.add(reservationService.createReservation(
+                        new ReservationRequestDTO(productId, 1, 60), HOLDER).getId());
+            } catch (InsufficientStockException ex) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(50, held.size());
+        assertEquals(attempts - 50, rejected.get());
+        Product reserved = productRepository.findById(productId).orElseThrow();
+        assertEquals(50, reserved.getQuantity());
+        assertEquals(50, reserved.getReservedQuantity());
+
+        // Every hold gets a confirm and a release racing each other; exactly one may win
+        List<UUID> holds = List.copyOf(held);
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+        AtomicInteger lost = new AtomicInteger();
+
+        runConcurrently(threads, holds.size() * 2, i -> {
+            UUID reservationId = holds.get(i / 2);
+            try {
+                if (i % 2 == 0) {
+                    reservationService.confirmReservation(reservationId, HOLDER);
+                    confirmed.incrementAndGet();
+                } else {
+                    reservationService.releaseReservation(reservationId, HOLDER);
+                    released.incrementAndGet();
+                }
+            } catch (ReservationStateException ex) {
+                lost.incrementAndGet();
+            }
+        });
+
+        assertEquals(50, confirmed.get() + released.get());
+        assertEquals(50, lost.get());
+
+        Product settled = productRepository.findById(productId).orElseThrow();
+        assertEquals(50 - confirmed.get(), settled.getQuantity());
+        assertEquals(0, settled.getReservedQuantity());
+    }
+
+    @Test
+    @DisplayName("Expired holds return their stock and can no longer be confirmed")
+    public void testReservation_Expires() throws Exception {
+        UUID productId = createProduct(5);
+
+        ReservationResponseDTO reservation = reservationService.createReservation(
+                new ReservationRequestDTO(productId, 3, 1), HOLDER);
+
+        mockMvc.perform(get("/v1/product/" + productId))
+                .andExpect(jsonPath("$.quantity").value(5))
+                .andExpect(jsonPath("$.availableQuantity").value(2));
+
+        Thread.sleep(1300);
+        reservationService.expireDueReservations();
+        reservationService.sweepExpiredReservations();
+
+        assertEquals(ReservationStatus.EXPIRED,
+                reservationRepository.findById(reservation.getId()).orElseThrow().getStatus());
+        assertEquals(0, productRepository.findById(productId).orElseThrow().getReservedQuantity());
+        assertThrows(ReservationStateException.class,
+                () -> reservationService.confirmReservation(reservation.getId(), HOLDER));
+    }
+
+    @Test
+    @DisplayName("POST /v1/reservation - Create and confirm over HTTP; other users get 403")
+    public void testReservation_Http() throws Exception {
+        UUID productId = createProduct(4);
+
+        MvcResult result = mockMvc.perform(post("/v1/reservation")
+                        .header("Authorization", ownerAuthHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequestDTO(productId, 4, 30))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("ACTIVE"))
+                .andReturn();
+        String reservationId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+
+        mockMvc.perform(post("/v1/reservation")
+                        .header("Authorization", otherAuthHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequestDTO(productId, 1, 30))))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(post("/v1/reservation/" + reservationId + "/confirm")
+                        .header("Authorization", otherAuthHeader))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/v1/reservation/" + reservationId + "/confirm")
+                        .header("Authorization", ownerAuthHeader))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONFIRMED"));
+
+        mockMvc.perform(get("/v1/product/" + productId))
+                .andExpect(jsonPath("$.quantity").value(0))
+                .andExpect(jsonPath("$.availableQuantity").value(0));
+    }
+
+    private void runConcurrently(int threads, int tasks, TaskBody body) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < tasks; i++) {
+            int task = i;
+            pool.submit(() -> {
+                start.await();
+                body.run(task);
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+    }
+
+    private String createUser(String email) throws Exception {
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO(email, "SecurePass123!", "Res", "User"))))
+                .andExpect(status().isCreated());
+        return "Basic " + Base64.getEncoder().encodeToString((email + ":SecurePass123!").getBytes());
+    }
+
+    private UUID createProduct(int quantity) throws Exception {
+        ProductRequestDTO request = new ProductRequestDTO(
+                "Reservable", "Checkout item", "RES-" + System.nanoTime(), "Maker", quantity);
+
+        MvcResult result = mockMvc.perform(post("/v1/product")
+                        .header("Authorization", ownerAuthHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return UUID.fromString(objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText());
+    }
+
+    @FunctionalInterface
+    private interface TaskBody {
+        void run(int task);
+    }
+}
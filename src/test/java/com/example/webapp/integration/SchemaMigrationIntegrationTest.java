@@ -0,0 +1,53 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.config.RequiredIndexCheck;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:schemadb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class SchemaMigrationIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RequiredIndexCheck requiredIndexCheck;
+
+    @Test
+    @DisplayName("Flyway applies every migration and Hibernate validates the result")
+    public void testMigrationsApplied() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"version\" is not null and \"success\" = true order by \"installed_rank\"",
+                String.class);
+
+        assertEquals(List.of("1", "2", "3", "4", "5", "6"), versions);
+    }
+
+    @Test
+    @DisplayName("Startup index check fails when a required index is missing")
+    public void testIndexCheck_FailsOnMissingIndex() {
+        jdbcTemplate.execute("DROP INDEX idx_products_manufacturer");
+        try {
+            IllegalStateException failure = assertThrows(IllegalStateException.class,
+                    requiredIndexCheck::afterSingletonsInstantiated);
+            assertTrue(failure.getMessage().contains("products(manufacturer)"), failure.getMessage());
+        } finally {
+            jdbcTemplate.execute("CREATE INDEX idx_products_manufacturer ON products (manufacturer)");
+        }
+
+        assertDoesNotThrow(requiredIndexCheck::afterSingletonsInstantiated);
+    }
+}
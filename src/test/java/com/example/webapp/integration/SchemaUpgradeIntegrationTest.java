@@ -0,0 +1,78 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.ProductResponseDTO;
+import com.example.webapp.dto.StockLevelDTO;
+import com.example.webapp.service.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts against a database that already holds the pre-Flyway schema and data, the way
+ * production does: Flyway has to baseline it at V1 and bring it forward with V2 onwards,
+ * and Hibernate's validate must then accept the result.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class SchemaUpgradeIntegrationTest {
+
+    private static final String URL = "jdbc:h2:mem:upgradedb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static final UUID LEGACY_OWNER = UUID.fromString("0190a1b2-c3d4-7e5f-8a6b-7c8d9e0f1a2b");
+    private static final UUID LEGACY_PRODUCT = UUID.fromString("0190a1b2-c3d4-7e5f-8a6b-7c8d9e0f1a2c");
+
+    @DynamicPropertySource
+    static void legacyDatabase(DynamicPropertyRegistry registry) throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/pre-flyway-schema.sql"));
+        }
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    @DisplayName("An existing pre-Flyway database is baselined at V1 and migrated to the current schema")
+    public void testExistingDatabase_Upgraded() {
+        List<Map<String, Object>> history = jdbcTemplate.queryForList(
+                "select \"version\", \"type\" from \"flyway_schema_history\" where \"version\" is not null and \"success\" = true order by \"installed_rank\"");
+
+        assertEquals("1", history.get(0).get("version"));
+        assertEquals("BASELINE", history.get(0).get("type"));
+        assertEquals(List.of("2", "3", "4", "5", "6"),
+                history.subList(1, history.size()).stream().map(row -> (String) row.get("version")).toList());
+    }
+
+    @Test
+    @DisplayName("Rows created before the upgrade are readable and writable with the new columns")
+    public void testExistingRows_UsableAfterUpgrade() {
+        ProductResponseDTO product = productService.getProductById(LEGACY_PRODUCT);
+        assertEquals("LEGACY-1", product.getSku());
+        assertEquals(LEGACY_OWNER, product.getOwnerUserId());
+        assertEquals(0L, product.getVersion());
+        assertEquals(7, product.getAvailableQuantity());
+
+        StockLevelDTO stock = productService.adjustStock(LEGACY_PRODUCT, -2, LEGACY_OWNER);
+        assertEquals(5, stock.getAvailableQuantity());
+        assertEquals(1L, productService.getProductById(LEGACY_PRODUCT).getVersion());
+    }
+}
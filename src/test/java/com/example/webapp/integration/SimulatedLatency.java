@@ -0,0 +1,91 @@
+package com.example.webapp.integration;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import org.reactivestreams.Publisher;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * H2 answers in microseconds. For the *Benchmark classes every statement first waits a fixed
+ * time, the way a network round trip to MySQL would: JDBC blocks the calling thread while
+ * holding the connection, R2DBC delays the result without occupying a thread.
+ */
+final class SimulatedLatency {
+
+    private SimulatedLatency() {
+    }
+
+    static DataSource jdbc(DataSource target, long millis) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return proxy(Connection.class, super.getConnection(), (method, result) ->
+                        result instanceof PreparedStatement statement ? slow(statement, millis) : result);
+            }
+        };
+    }
+
+    private static PreparedStatement slow(PreparedStatement target, long millis) {
+        return proxy(PreparedStatement.class, target, (method, result) -> {
+            if (method.getName().startsWith("execute")) {
+                // Blocks the thread with the connection still checked out
+                Thread.sleep(millis);
+            }
+            return result;
+        });
+    }
+
+    static ConnectionFactory r2dbc(ConnectionFactory target, long millis) {
+        return new ConnectionFactory() {
+            @Override
+            public Publisher<? extends io.r2dbc.spi.Connection> create() {
+                return Mono.from(target.create()).map(connection ->
+                        proxy(io.r2dbc.spi.Connection.class, connection, (method, result) ->
+                                result instanceof io.r2dbc.spi.Statement statement ? slow(statement, millis) : result));
+            }
+
+            @Override
+            public ConnectionFactoryMetadata getMetadata() {
+                return target.getMetadata();
+            }
+        };
+    }
+
+    private static io.r2dbc.spi.Statement slow(io.r2dbc.spi.Statement target, long millis) {
+        io.r2dbc.spi.Statement[] self = new io.r2dbc.spi.Statement[1];
+        self[0] = proxy(io.r2dbc.spi.Statement.class, target, (method, result) -> {
+            if (method.getName().equals("execute")) {
+                return Mono.delay(Duration.ofMillis(millis)).thenMany(Flux.from((Publisher<?>) result));
+            }
+            // Builder-style calls (bind, add, ...) return the statement itself
+            return result == target ? self[0] : result;
+        });
+        return self[0];
+    }
+
+    private interface ResultMapper {
+        Object map(Method method, Object result) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            try {
+                return mapper.map(method, method.invoke(target, args));
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        });
+    }
+}
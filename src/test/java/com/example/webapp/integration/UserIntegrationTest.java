@@ -12,10 +12,20 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -184,6 +194,56 @@ public class UserIntegrationTest {
                 .andExpect(jsonPath("$.lastName").value("PatchedLast"));
     }
 
+    @Test
+    @Order(5)
+    @DisplayName("PATCH/PUT /v1/user/self - Omitted or unchanged password - Should keep the stored hash")
+    public void testPatchUser_PasswordNotRehashed() throws Exception {
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO(testEmail, testPassword, "First", "Last"))))
+                .andExpect(status().isCreated());
+        String originalHash = userRepository.findByEmail(testEmail).orElseThrow().getPassword();
+
+        mockMvc.perform(patch("/v1/user/self")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"OnlyFirst\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("OnlyFirst"))
+                .andExpect(jsonPath("$.lastName").value("Last"));
+
+        mockMvc.perform(put("/v1/user/self")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserUpdateDTO("OnlyFirst", "NewLast", testPassword))))
+                .andExpect(status().isOk());
+
+        assertEquals(originalHash,
+                userRepository.findByEmail(testEmail).orElseThrow().getPassword());
+
+        mockMvc.perform(patch("/v1/user/self")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lastName\":\"  \"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/v1/user/self")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\":\"Changed123!\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/user/self")
+                        .header("Authorization", authHeader))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/v1/user/self")
+                        .header("Authorization", "Basic " + Base64.getEncoder()
+                                .encodeToString((testEmail + ":Changed123!").getBytes())))
+                .andExpect(status().isOk());
+    }
+
     // ========================================
     // NEGATIVE TEST CASES
     // ========================================
@@ -382,6 +442,40 @@ public class UserIntegrationTest {
                 .andExpect(jsonPath("$.accountUpdated").value(not("2020-01-01T00:00:00")));
     }
 
+    @Test
+    @DisplayName("POST /v1/user - Concurrent retries with one Idempotency-Key - Should create one user")
+    public void testCreateUser_ConcurrentIdempotencyKey() throws Exception {
+        String body = objectMapper.writeValueAsString(new UserRequestDTO(testEmail, testPassword, "Retry", "User"));
+        int requests = 8;
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger created = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(requests);
+
+        for (int i = 0; i < requests; i++) {
+            pool.submit(() -> {
+                start.await();
+                MvcResult result = mockMvc.perform(post("/v1/user")
+                                .header("Idempotency-Key", "signup-1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andReturn();
+                if (result.getResponse().getStatus() == 201) {
+                    created.incrementAndGet();
+                    ids.add(objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText());
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(requests, created.get());
+        assertEquals(1, ids.size());
+        assertEquals(1, userRepository.count());
+    }
+
     @Test
     @DisplayName("GET /v1/user/health - Health check - Should return 200")
     public void testHealthCheck() throws Exception {
@@ -0,0 +1,109 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.model.TimeOrderedUuidGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Primary key insert throughput: random UUIDv4 vs time-ordered UUIDv7, both as BINARY(16),
+ * into a file-backed H2 table with a B-tree primary key (the same shape as InnoDB's clustered
+ * index). Reports rows/s for the first and last tenth of the load, so the slowdown of random
+ * keys as the index outgrows the page cache shows up, plus the final file size.
+ *
+ * Not part of the regular build (surefire only picks up *Test classes). Run with
+ * mvn test -Dtest=UuidInsertBenchmark [-Dbenchmark.rows=5000000]
+ */
+public class UuidInsertBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 2_000_000);
+    private static final int BATCH_SIZE = 1_000;
+    // Small page cache (KB) so the index stops fitting in memory well before the end
+    private static final int CACHE_KB = Integer.getInteger("benchmark.cache-kb", 16_384);
+
+    @Test
+    public void benchmarkPrimaryKeyInserts() throws Exception {
+        run("UUIDv4 (random)      ", UUID::randomUUID);
+        run("UUIDv7 (time-ordered)", TimeOrderedUuidGenerator::nextId);
+    }
+
+    private void run(String label, Supplier<UUID> ids) throws Exception {
+        Path directory = Files.createTempDirectory("uuid-insert-bench");
+        try {
+            String url = "jdbc:h2:file:" + directory.resolve("bench") + ";CACHE_SIZE=" + CACHE_KB;
+            long firstTenthNanos = 0;
+            long lastTenthNanos = 0;
+            long totalNanos;
+
+            try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE TABLE products (id BINARY(16) PRIMARY KEY, sku VARCHAR(64) NOT NULL)");
+                }
+                connection.setAutoCommit(false);
+
+                long start = System.nanoTime();
+                try (PreparedStatement insert = connection.prepareStatement("INSERT INTO products (id, sku) VALUES (?, ?)")) {
+                    int tenth = ROWS / 10;
+                    for (int row = 1; row <= ROWS; row++) {
+                        insert.setBytes(1, toBytes(ids.get()));
+                        insert.setString(2, "SKU-" + row);
+                        insert.addBatch();
+
+                        if (row % BATCH_SIZE == 0) {
+                            long batchStart = System.nanoTime();
+                            insert.executeBatch();
+                            connection.commit();
+                            long elapsed = System.nanoTime() - batchStart;
+                            if (row <= tenth) {
+                                firstTenthNanos += elapsed;
+                            } else if (row > ROWS - tenth) {
+                                lastTenthNanos += elapsed;
+                            }
+                        }
+                    }
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                totalNanos = System.nanoTime() - start;
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SHUTDOWN COMPACT");
+                }
+            }
+
+            long fileBytes;
+            try (Stream<Path> files = Files.list(directory)) {
+                fileBytes = files.mapToLong(file -> file.toFile().length()).sum();
+            }
+
+            double tenthRows = ROWS / 10.0;
+            System.out.printf("%s %,d rows: %,10.0f rows/s overall, first 10%% %,10.0f rows/s, last 10%% %,10.0f rows/s, %,6d MB on disk%n",
+                    label, ROWS,
+                    ROWS / (totalNanos / 1e9),
+                    tenthRows / (firstTenthNanos / 1e9),
+                    tenthRows / (lastTenthNanos / 1e9),
+                    fileBytes / (1024 * 1024));
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
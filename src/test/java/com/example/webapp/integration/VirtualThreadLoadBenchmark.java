@@ -0,0 +1,99 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.WebappApplication;
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.service.ProductService;
+import com.example.webapp.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Highest sustainable request rate of GET /v1/product/{id} with request handling on Tomcat's
+ * platform-thread pool versus on virtual threads. Each mode gets its own application on a
+ * random port; closed-loop clients step up the concurrency until p99 latency goes over the
+ * target or more than 1% of requests fail (503 from an exhausted pool included). Every
+ * statement waits db-latency-ms to stand in for MySQL (see SimulatedLatency).
+ *
+ * Not part of the regular build (surefire only picks up *Test classes). Run with
+ * mvn test -Dtest=VirtualThreadLoadBenchmark
+ * and tune with -Dbench.tomcat-threads, -Dbench.pool-size, -Dbench.db-latency-ms,
+ * -Dbench.step-seconds, -Dbench.p99-target-ms.
+ */
+public class VirtualThreadLoadBenchmark {
+
+    private static final int TOMCAT_THREADS = Integer.getInteger("bench.tomcat-threads", 200);
+    private static final int POOL_SIZE = Integer.getInteger("bench.pool-size", 50);
+    private static final long DB_LATENCY_MILLIS = Long.getLong("bench.db-latency-ms", 5);
+    private static final int STEP_SECONDS = Integer.getInteger("bench.step-seconds", 10);
+    private static final long P99_TARGET_MILLIS = Long.getLong("bench.p99-target-ms", 250);
+    private static final int[] CONCURRENCY_STEPS = {25, 50, 100, 200, 400, 800, 1600};
+
+    @Test
+    public void benchmarkMaxSustainableThroughput() throws Exception {
+        double platform = run(false);
+        double virtual = run(true);
+
+        System.out.printf("tomcat threads %d, pool %d, db latency %d ms, p99 target %d ms%n",
+                TOMCAT_THREADS, POOL_SIZE, DB_LATENCY_MILLIS, P99_TARGET_MILLIS);
+        System.out.printf("max sustainable, platform threads: %8.0f req/s%n", platform);
+        System.out.printf("max sustainable, virtual threads:  %8.0f req/s%n", virtual);
+    }
+
+    private double run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = start(mode, virtualThreads)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            URI productUri = URI.create("http://localhost:" + port + "/v1/product/" + seedProduct(context));
+
+            // Warm-up at a moderate load, not reported
+            HttpLoad.run(productUri, 50, Math.max(2, STEP_SECONDS / 2));
+
+            double best = 0;
+            for (int concurrency : CONCURRENCY_STEPS) {
+                HttpLoad.Result result = HttpLoad.run(productUri, concurrency, STEP_SECONDS);
+                System.out.printf("%-8s c=%-5d %s%n", mode, concurrency, result);
+                if (!result.sustainable(P99_TARGET_MILLIS)) {
+                    break;
+                }
+                best = Math.max(best, result.throughput());
+            }
+            return best;
+        }
+    }
+
+    private ConfigurableApplicationContext start(String mode, boolean virtualThreads) {
+        return new SpringApplicationBuilder(WebappApplication.class)
+                .profiles("test")
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                                ? SimulatedLatency.jdbc(dataSource, DB_LATENCY_MILLIS) : bean;
+                    }
+                }))
+                // Command-line arguments, so they win over application-test.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:vtbench" + mode + "db;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--webapp.outbox.journal-dir=${java.io.tmpdir}/webapp-product-journal-vtbench",
+                        "--webapp.bulkhead.enabled=false",
+                        "--logging.level.com.example.webapp=WARN");
+    }
+
+    private UUID seedProduct(ConfigurableApplicationContext context) {
+        UserService userService = context.getBean(UserService.class);
+        ProductService productService = context.getBean(ProductService.class);
+        UUID owner = userService.createUser(new UserRequestDTO(
+                "bench" + System.nanoTime() + "@example.com", "SecurePass123!", "Bench", "Mark")).getId();
+        return productService.createProduct(
+                new ProductRequestDTO("Bench", "Load test item", "VT-BENCH", "Maker", 10), owner).getId();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.repository.UserRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Runs against a real Tomcat (not MockMvc), so requests are handled on the server's own
+ * threads. A two-connection pool (Flyway needs two at startup) makes the pool limit easy to hit.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:virtualthreaddb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=500",
+        // Keep the pool free of background work
+        "webapp.outbox.enabled=false",
+        "webapp.reservation.sweep-initial-delay-ms=3600000"
+})
+public class VirtualThreadModeIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    @MockitoSpyBean
+    private BCryptPasswordEncoder passwordEncoder;
+
+    private final List<Boolean> virtualDuringHash = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        userRepository.deleteAll();
+        virtualDuringHash.clear();
+        doAnswer(invocation -> {
+            virtualDuringHash.add(Thread.currentThread().isVirtual());
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).encode(any());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Requests and @Async work run on virtual threads when enabled")
+    public void testRequestHandling_OnVirtualThreads() throws Exception {
+        ResponseEntity<String> response = restTemplate.postForEntity("/v1/user",
+                new UserRequestDTO("virtual" + System.currentTimeMillis() + "@example.com",
+                        "SecurePass123!", "Virtual", "Thread"), String.class);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertFalse(virtualDuringHash.isEmpty());
+        assertFalse(virtualDuringHash.contains(false));
+
+        assertTrue(taskExecutor.submit(() -> Thread.currentThread().isVirtual()).get());
+    }
+
+    @Test
+    @DisplayName("GET /v1/product/{id} - 503 with Retry-After when the pool has no connection to give")
+    public void testPoolExhausted_ServiceUnavailable() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            ResponseEntity<String> response = restTemplate.getForEntity(
+                    "/v1/product/" + UUID.randomUUID(), String.class);
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+        }
+
+        // Once the connections are back the same request gets through
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/v1/product/" + UUID.randomUUID(), String.class);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.config.WarmupRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Warmup runs while the context starts, against a real Tomcat. Its path list includes the
+ * readiness probe, so the server's request metrics show what readiness said during warmup.
+ * A huge stable-tolerance makes the second window count as stable.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:warmupdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "webapp.warmup.enabled=true",
+        "webapp.warmup.paths=/v1/product/{id},/v1/product/changes?limit=10,/v1/product/health/ready",
+        "webapp.warmup.max-iterations=40",
+        "webapp.warmup.window=5",
+        "webapp.warmup.stable-tolerance=100",
+        // Would refuse most warmup requests if it applied before the first ready
+        "webapp.rate-limit.enabled=true",
+        "webapp.rate-limit.public-read.capacity=3",
+        "webapp.rate-limit.public-read.refill-per-second=0.001"
+})
+public class WarmupIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Warmup requests run through the filter chain while readiness still refuses traffic")
+    public void testWarmup_RunsBeforeReady() throws Exception {
+        WarmupRunner.Result result = warmupRunner.getLastResult();
+        assertNotNull(result);
+
+        assertEquals(result.iterations(), requests("/v1/product/{id}", "404"));
+        assertEquals(result.iterations(), requests("/v1/product/health/ready", "503"));
+        assertEquals(0, meterRegistry.find("http.server.requests").tag("status", "429").timers().size());
+
+        // The readiness probe's 503s are errors; 404s for unknown ids are not
+        assertEquals(3 * result.iterations(), result.responses());
+        assertEquals(result.iterations(), result.failedResponses());
+        assertFalse(result.mostlyFailed());
+
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/v1/product/health/ready", String.class).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Warmup stops once latency is stable instead of running every iteration")
+    public void testWarmup_StopsWhenStable() {
+        WarmupRunner.Result result = warmupRunner.getLastResult();
+
+        assertTrue(result.stable());
+        assertEquals(10, result.iterations());
+        assertTrue(result.lastWindowMicros() > 0);
+    }
+
+    @Test
+    @DisplayName("Warmup stops with a warning instead of stabilizing on error responses")
+    public void testWarmup_StopsWhenMostlyErrors() throws Exception {
+        WarmupRunner.Result original = warmupRunner.getLastResult();
+        Object originalPaths = ReflectionTestUtils.getField(warmupRunner, "paths");
+        try {
+            // Needs credentials: 401 every time
+            ReflectionTestUtils.setField(warmupRunner, "paths", List.of("/v1/user/self"));
+            warmupRunner.run(null);
+
+            WarmupRunner.Result result = warmupRunner.getLastResult();
+            assertTrue(result.mostlyFailed());
+            assertFalse(result.stable());
+            // Gave up after the first window
+            assertEquals(5, result.iterations());
+            assertEquals(5, result.failedResponses());
+        } finally {
+            ReflectionTestUtils.setField(warmupRunner, "paths", originalPaths);
+            ReflectionTestUtils.setField(warmupRunner, "lastResult", original);
+        }
+    }
+
+    private long requests(String uri, String status) {
+        Timer timer = meterRegistry.find("http.server.requests").tag("uri", uri).tag("status", status).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
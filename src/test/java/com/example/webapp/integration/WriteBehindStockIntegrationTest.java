@@ -0,0 +1,281 @@
+package com.example.webapp.integration;
+
+import com.example.webapp.dto.ProductRequestDTO;
+import com.example.webapp.dto.ReservationRequestDTO;
+import com.example.webapp.dto.ReservationResponseDTO;
+import com.example.webapp.dto.UserRequestDTO;
+import com.example.webapp.exception.InsufficientStockException;
+import com.example.webapp.repository.ProductRepository;
+import com.example.webapp.repository.StockReservationRepository;
+import com.example.webapp.repository.UserRepository;
+import com.example.webapp.service.ProductOutbox;
+import com.example.webapp.service.ProductService;
+import com.example.webapp.service.ReservationService;
+import com.example.webapp.service.WriteBehindStockBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stockdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "webapp.stock.write-behind.enabled=true",
+        "webapp.stock.write-behind.hot-skus=HOT-1",
+        "webapp.stock.write-behind.stripes=4",
+        // Flushed explicitly by the tests
+        "webapp.stock.write-behind.flush-interval-ms=3600000",
+        "webapp.stock.write-behind.journal-dir=${java.io.tmpdir}/webapp-stock-journal-test"
+})
+public class WriteBehindStockIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private WriteBehindStockBuffer stockBuffer;
+
+    @Autowired
+    private ProductOutbox productOutbox;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String ownerEmail;
+    private String authHeader;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ownerEmail = "hotowner" + System.currentTimeMillis() + "@example.com";
+        authHeader = "Basic " + Base64.getEncoder()
+                .encodeToString((ownerEmail + ":SecurePass123!").getBytes());
+
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserRequestDTO(ownerEmail, "SecurePass123!", "Hot", "Owner"))))
+                .andExpect(status().isCreated());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        stockBuffer.flush();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Concurrent sales on a hot SKU never oversell and are flushed in one batch")
+    public void testConcurrentDecrements_NoOversell() throws Exception {
+        UUID productId = createProduct("HOT-1", 100);
+
+        int attempts = 160;
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+
+        for (int i = 0; i < attempts; i++) {
+            pool.submit(() -> {
+                start.await();
+                try {
+                    productService.adjustStock(productId, -1, UUID.randomUUID());
+                    sold.incrementAndGet();
+                } catch (InsufficientStockException ex) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(100, sold.get());
+        assertEquals(60, rejected.get());
+
+        // Nothing flushed yet: the row is untouched but reads include the pending delta
+        assertEquals(100, productRepository.findQuantityById(productId).orElseThrow());
+        mockMvc.perform(get("/v1/product/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(0));
+
+        stockBuffer.flush();
+
+        assertEquals(0, productRepository.findQuantityById(productId).orElseThrow());
+        mockMvc.perform(get("/v1/product/" + productId))
+                .andExpect(jsonPath("$.quantity").value(0));
+    }
+
+    @Test
+    @DisplayName("The pending delta matches the row it is added to, before and after a flush commits")
+    public void testPendingDelta_CountedOncePerRow() throws Exception {
+        UUID productId = createProduct("HOT-1", 10);
+        long before = productRepository.findById(productId).orElseThrow().getVersion();
+
+        productService.adjustStock(productId, -3, UUID.randomUUID());
+        assertEquals(-3, stockBuffer.pendingDelta(productId, before));
+
+        stockBuffer.flush();
+        long after = productRepository.findById(productId).orElseThrow().getVersion();
+        assertTrue(after > before);
+
+        // A row read after the commit already holds the batch; one read before it does not
+        assertEquals(0, stockBuffer.pendingDelta(productId, after));
+        assertEquals(-3, stockBuffer.pendingDelta(productId, before));
+        mockMvc.perform(get("/v1/product/" + productId))
+                .andExpect(jsonPath("$.quantity").value(7));
+    }
+
+    @Test
+    @DisplayName("Cold SKUs keep using the conditional UPDATE while write-behind is on")
+    public void testColdSku_WritesThrough() throws Exception {
+        UUID productId = createProduct("COLD-1", 3);
+
+        mockMvc.perform(post("/v1/product/" + productId + "/stock")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\":-2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableQuantity").value(1));
+
+        assertEquals(1, productRepository.findQuantityById(productId).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Journal files left by a crash are replayed once; files already committed are skipped")
+    public void testRecovery_AppliesEachJournalFileOnce() throws Exception {
+        UUID productId = createProduct("COLD-2", 10);
+        Path directory = Files.createTempDirectory("webapp-stock-recovery");
+
+        // Committed, then the process died before deleting the file
+        Files.writeString(directory.resolve("stripe-0-committed.flushing"), productId + ",-3\n");
+        jdbcTemplate.update("INSERT INTO stock_journal_applied (file_name, applied_at) VALUES (?, ?)",
+                "stripe-0-committed.flushing", LocalDateTime.now());
+        // Sealed but never committed, and a live file that was never sealed
+        Files.writeString(directory.resolve("stripe-1-pending.flushing"), productId + ",-2\n");
+        Files.writeString(directory.resolve("stripe-2.journal"), productId + ",-1\n");
+
+        recoverFrom(directory);
+        assertEquals(7, productRepository.findQuantityById(productId).orElseThrow());
+        try (Stream<Path> left = Files.list(directory)) {
+            assertEquals(0, left.count());
+        }
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_journal_applied", Integer.class));
+
+        // Starting again finds nothing to replay
+        recoverFrom(directory);
+        assertEquals(7, productRepository.findQuantityById(productId).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("A last journal line without its newline is torn and not replayed")
+    public void testRecovery_IgnoresTornLastLine() throws Exception {
+        UUID productId = createProduct("COLD-3", 20);
+        Path directory = Files.createTempDirectory("webapp-stock-torn");
+
+        // "-15" cut short after the "1" still parses as a delta
+        Files.writeString(directory.resolve("stripe-0.journal"), productId + ",-2\n" + productId + ",-1");
+
+        recoverFrom(directory);
+        assertEquals(18, productRepository.findQuantityById(productId).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("A rolled-back release does not hand the held units back to a hot SKU")
+    public void testReservationRelease_RolledBack() throws Exception {
+        UUID productId = createProduct("HOT-1", 5);
+        ReservationResponseDTO reservation = reservationService.createReservation(
+                new ReservationRequestDTO(productId, 5, 60), ownerEmail);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            reservationService.releaseReservation(reservation.getId(), ownerEmail);
+            status.setRollbackOnly();
+        });
+
+        // Still held in the database, so still not sellable
+        assertEquals(0, productRepository.findAvailableQuantityById(productId).orElseThrow());
+        assertThrows(InsufficientStockException.class,
+                () -> productService.adjustStock(productId, -1, UUID.randomUUID()));
+
+        reservationService.releaseReservation(reservation.getId(), ownerEmail);
+
+        assertEquals(5, productRepository.findAvailableQuantityById(productId).orElseThrow());
+        productService.adjustStock(productId, -1, UUID.randomUUID());
+
+        reservationRepository.deleteAll();
+    }
+
+    // What a restart does: a new buffer replays the directory in its @PostConstruct
+    private void recoverFrom(Path directory) {
+        WriteBehindStockBuffer restarted = new WriteBehindStockBuffer(
+                productRepository, productOutbox, jdbcTemplate, transactionManager, false, Set.of(), 4, directory);
+        ReflectionTestUtils.invokeMethod(restarted, "start");
+    }
+
+    private UUID createProduct(String sku, int quantity) throws Exception {
+        ProductRequestDTO request = new ProductRequestDTO("Flash " + sku, "Flash sale item", sku, "Maker", quantity);
+
+        MvcResult result = mockMvc.perform(post("/v1/product")
+                        .header("Authorization", authHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return UUID.fromString(objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText());
+    }
+}
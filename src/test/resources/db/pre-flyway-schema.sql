@@ -0,0 +1,37 @@
+-- The schema ddl-auto=update created before Flyway took over (Hibernate 6,
+-- MySQL dialect), with one user and one product, as production holds it.
+create table users (
+    id binary(16) not null,
+    account_created datetime(6) not null,
+    account_updated datetime(6) not null,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    password varchar(255) not null,
+    primary key (id)
+);
+
+create table products (
+    id binary(16) not null,
+    date_added datetime(6) not null,
+    date_last_updated datetime(6) not null,
+    description varchar(1000),
+    manufacturer varchar(255) not null,
+    name varchar(255) not null,
+    quantity integer not null,
+    sku varchar(255) not null,
+    owner_user_id binary(16) not null,
+    primary key (id)
+);
+
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table products add constraint UKfhmd06dsmj6k0n90swsh8ie9g unique (sku);
+alter table products add constraint FK8ts6vw3w9pkeshtcckgb1sgk2 foreign key (owner_user_id) references users (id);
+
+insert into users (id, account_created, account_updated, email, first_name, last_name, password)
+values (X'0190a1b2c3d47e5f8a6b7c8d9e0f1a2b', '2025-01-10 09:00:00', '2025-01-10 09:00:00',
+        'legacy@example.com', 'Legacy', 'Owner', '$2a$10$abcdefghijklmnopqrstuuJ3v1jY1Zk2Q5aW6cU0m0m0m0m0m0m0');
+
+insert into products (id, date_added, date_last_updated, description, manufacturer, name, quantity, sku, owner_user_id)
+values (X'0190a1b2c3d47e5f8a6b7c8d9e0f1a2c', '2025-01-11 09:00:00', '2025-01-11 09:00:00',
+        'Created before migrations', 'Maker', 'Legacy product', 7, 'LEGACY-1', X'0190a1b2c3d47e5f8a6b7c8d9e0f1a2b');